@@ -0,0 +1,58 @@
+package org.unifor.api.coordinator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.unifor.dto.response.MatrixClassResponse;
+import org.unifor.dto.response.PageResponse;
+import org.unifor.repository.BenchmarkRows;
+import org.unifor.repository.MatrixClassListRow;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coordinator class listing response: {@link MatrixClassResource#toResponse(MatrixClassListRow, Long)} over one
+ * page of rows, and the same page serialized to JSON the way Quarkus does (JavaTimeModule, ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixClassMappingBenchmark {
+
+    /** Rows in the page (default and maximum limit). */
+    @Param({"50", "200"})
+    public int size;
+
+    private List<MatrixClassListRow> rows;
+    private ObjectMapper mapper;
+
+    @Setup
+    public void setUp() {
+        rows = BenchmarkRows.matrixClassRows(size, 7);
+        mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Benchmark
+    public List<MatrixClassResponse> map() {
+        return toResponses();
+    }
+
+    @Benchmark
+    public String mapAndSerialize() throws JsonProcessingException {
+        return mapper.writeValueAsString(new PageResponse<>(toResponses(), 1500, "c2VxfGR8MzB8NDI"));
+    }
+
+    private List<MatrixClassResponse> toResponses() {
+        return rows.stream()
+                .map(row -> MatrixClassResource.toResponse(row, 1L))
+                .toList();
+    }
+}
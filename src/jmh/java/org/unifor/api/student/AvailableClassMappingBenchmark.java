@@ -0,0 +1,58 @@
+package org.unifor.api.student;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.*;
+import org.unifor.dto.response.AvailableClassResponse;
+import org.unifor.repository.AvailableClassRow;
+import org.unifor.repository.BenchmarkRows;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Student available classes response: {@link AvailableClassResource#toResponse(AvailableClassRow)} over the
+ * whole list (it is not paginated), and the list serialized to JSON the way Quarkus does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailableClassMappingBenchmark {
+
+    /** Classes available to the student. */
+    @Param({"50", "500"})
+    public int size;
+
+    private List<AvailableClassRow> rows;
+    private ObjectMapper mapper;
+
+    @Setup
+    public void setUp() {
+        rows = BenchmarkRows.availableClassRows(size, 7);
+        mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Benchmark
+    public List<AvailableClassResponse> map() {
+        return toResponses();
+    }
+
+    @Benchmark
+    public String mapAndSerialize() throws JsonProcessingException {
+        return mapper.writeValueAsString(Map.of("items", toResponses()));
+    }
+
+    private List<AvailableClassResponse> toResponses() {
+        return rows.stream()
+                .map(AvailableClassResource::toResponse)
+                .toList();
+    }
+}
@@ -0,0 +1,50 @@
+package org.unifor.repository;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic read-projection rows shared by the listing and mapping benchmarks.
+ */
+public final class BenchmarkRows {
+
+    private static final String[][] SLOTS = {
+            {"SEG", "07:30", "09:10", "M24AB"}, {"TER", "09:30", "11:10", "M35CD"},
+            {"QUA", "13:30", "15:10", "T24AB"}, {"QUI", "19:00", "20:40", "N35AB"},
+            {"SEX", "21:00", "22:40", "N24CD"},
+    };
+
+    private BenchmarkRows() {
+    }
+
+    public static List<MatrixClassListRow> matrixClassRows(int count, long seed) {
+        var random = new Random(seed);
+        var rows = new ArrayList<MatrixClassListRow>(count);
+        Instant created = Instant.parse("2026-01-10T12:00:00Z");
+        for (long id = 1; id <= count; id++) {
+            String[] slot = SLOTS[random.nextInt(SLOTS.length)];
+            var courses = List.of(
+                    new MatrixClassListRow.AuthorizedCourse(1 + id % 9, "Curso " + (1 + id % 9)),
+                    new MatrixClassListRow.AuthorizedCourse(1 + (id + 3) % 9, "Curso " + (1 + (id + 3) % 9)));
+            rows.add(new MatrixClassListRow(id, id % 15, "Disciplina " + id % 15, id % 5, "Professor " + id % 5,
+                    id % 40, slot[0], LocalTime.parse(slot[1]), LocalTime.parse(slot[2]), slot[3], courses,
+                    30 + random.nextInt(31), random.nextInt(30), 1, null, created.plusSeconds(id)));
+        }
+        return rows;
+    }
+
+    public static List<AvailableClassRow> availableClassRows(int count, long seed) {
+        var random = new Random(seed);
+        var rows = new ArrayList<AvailableClassRow>(count);
+        for (long id = 1; id <= count; id++) {
+            String[] slot = SLOTS[random.nextInt(SLOTS.length)];
+            rows.add(new AvailableClassRow(id, 40, random.nextInt(40), id % 15, "Disciplina " + id % 15,
+                    id % 5, "Professor " + id % 5, id % 40, slot[0], LocalTime.parse(slot[1]),
+                    LocalTime.parse(slot[2]), slot[3]));
+        }
+        return rows;
+    }
+}
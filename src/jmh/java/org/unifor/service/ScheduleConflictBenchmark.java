@@ -0,0 +1,108 @@
+package org.unifor.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.unifor.entity.TimeSlot;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule conflict check of one student against a list of candidate classes, as done by
+ * listAvailable and MatrixClassService.wouldCauseScheduleConflict (PRD 7.2).
+ * <p>
+ * {@code pairwise} is the nested loop over the original ScheduleConflictUtil.overlaps; {@code overlaps} is the
+ * same loop over the current one;
+ * {@code timetable} ORs the student's slots into one weekly mask and checks each candidate against it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScheduleConflictBenchmark {
+
+    private static final String[] DAYS = {"SEG", "TER", "QUA", "QUI", "SEX"};
+    private static final LocalTime[][] BLOCKS = {
+            {LocalTime.of(7, 30), LocalTime.of(9, 10)},
+            {LocalTime.of(9, 30), LocalTime.of(11, 10)},
+            {LocalTime.of(13, 30), LocalTime.of(15, 10)},
+            {LocalTime.of(15, 30), LocalTime.of(17, 10)},
+            {LocalTime.of(19, 0), LocalTime.of(20, 40)},
+            {LocalTime.of(21, 0), LocalTime.of(22, 40)},
+    };
+
+    @Param({"4", "8"})
+    public int enrollments;
+
+    @Param({"50", "500"})
+    public int candidates;
+
+    private List<TimeSlot> enrolled;
+    private List<TimeSlot> candidateSlots;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(7);
+        enrolled = new ArrayList<>();
+        for (int i = 0; i < enrollments; i++) {
+            enrolled.add(randomSlot(random));
+        }
+        candidateSlots = new ArrayList<>();
+        for (int i = 0; i < candidates; i++) {
+            candidateSlots.add(randomSlot(random));
+        }
+    }
+
+    @Benchmark
+    public void pairwise(Blackhole bh) {
+        for (TimeSlot candidate : candidateSlots) {
+            bh.consume(enrolled.stream().anyMatch(slot -> legacyOverlaps(slot, candidate)));
+        }
+    }
+
+    @Benchmark
+    public void overlaps(Blackhole bh) {
+        for (TimeSlot candidate : candidateSlots) {
+            for (TimeSlot slot : enrolled) {
+                bh.consume(ScheduleConflictUtil.overlaps(slot, candidate));
+            }
+        }
+    }
+
+    @Benchmark
+    public void timetable(Blackhole bh) {
+        Timetable timetable = Timetable.of(enrolled);
+        for (TimeSlot candidate : candidateSlots) {
+            bh.consume(timetable.conflictsWith(candidate));
+        }
+    }
+
+    @Benchmark
+    public void maskIntersects(Blackhole bh) {
+        ScheduleMask student = ScheduleMask.EMPTY;
+        for (TimeSlot slot : enrolled) {
+            student = student.or(ScheduleConflictUtil.mask(slot));
+        }
+        for (TimeSlot candidate : candidateSlots) {
+            bh.consume(student.intersects(ScheduleConflictUtil.mask(candidate)));
+        }
+    }
+
+    /**
+     * ScheduleConflictUtil.overlaps before the bitmap engine.
+     */
+    private static boolean legacyOverlaps(TimeSlot a, TimeSlot b) {
+        if (!a.dayOfWeek.equals(b.dayOfWeek)) return false;
+        return a.startTime.isBefore(b.endTime) && b.startTime.isBefore(a.endTime);
+    }
+
+    private static TimeSlot randomSlot(Random random) {
+        LocalTime[] block = BLOCKS[random.nextInt(BLOCKS.length)];
+        return new TimeSlot(DAYS[random.nextInt(DAYS.length)], block[0], block[1]);
+    }
+}
@@ -0,0 +1,84 @@
+package org.unifor.service.coordinator;
+
+import org.openjdk.jmh.annotations.*;
+import org.unifor.entity.UserRole;
+import org.unifor.repository.BenchmarkRows;
+import org.unifor.repository.KeysetPage;
+import org.unifor.repository.MatrixClassListRow;
+import org.unifor.repository.MatrixClassRepository;
+import org.unifor.repository.MatrixClassSearch;
+import org.unifor.repository.MatrixClassSort;
+import org.unifor.repository.ReadFrom;
+import org.unifor.security.UserPrincipal;
+import org.unifor.service.ReadYourWrites;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-process part of {@link MatrixClassService#list}: sort and limit validation, cursor decoding, filter
+ * translation into {@link MatrixClassSearch} and next-cursor encoding. Since the filters run in SQL
+ * (VM-02), this is all the Java work left around the query; the repository returns a prebuilt page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MatrixClassListBenchmark {
+
+    private MatrixClassService service;
+    private UserPrincipal coordinator;
+    private MatrixClassFilter filter;
+    private MatrixClassPageRequest nextPage;
+    private String cursor;
+
+    @Setup
+    public void setUp() {
+        List<MatrixClassListRow> rows = BenchmarkRows.matrixClassRows(50, 7);
+        MatrixClassListRow last = rows.get(rows.size() - 1);
+        var page = new KeysetPage<>(rows, 1500, MatrixClassSearch.Keyset.of(MatrixClassSort.MAX_STUDENTS, last));
+        var repository = new MatrixClassRepository(null) {
+            @Override
+            public KeysetPage<MatrixClassListRow> search(MatrixClassSearch search, ReadFrom from) {
+                return page;
+            }
+        };
+        var matrixService = new MatrixService(null, null, null, null) {
+            @Override
+            public void checkAccess(Long matrixId, UserPrincipal coordinator) {
+            }
+        };
+        var readYourWrites = new ReadYourWrites(null) {
+            @Override
+            public ReadFrom readFrom(UserPrincipal user) {
+                return ReadFrom.REPLICA;
+            }
+        };
+        service = new MatrixClassService(matrixService, repository, null, null, null, null, null, null, null, null,
+                readYourWrites);
+        coordinator = new UserPrincipal(1L, "carmen.lima@unifor.br", UserRole.COORDINATOR, null);
+        filter = new MatrixClassFilter(Optional.of(PeriodOfDay.MORNING), Optional.of(4L), Optional.of(30),
+                Optional.empty(), false);
+        cursor = MatrixClassCursor.encode(MatrixClassSort.MAX_STUDENTS, true,
+                MatrixClassSearch.Keyset.of(MatrixClassSort.MAX_STUDENTS, rows.get(0)));
+        nextPage = new MatrixClassPageRequest("-maxStudents", cursor, 50);
+    }
+
+    @Benchmark
+    public MatrixClassPage firstPage() {
+        return service.list(1L, coordinator, filter, MatrixClassPageRequest.firstPage());
+    }
+
+    @Benchmark
+    public MatrixClassPage nextPage() {
+        return service.list(1L, coordinator, filter, nextPage);
+    }
+
+    @Benchmark
+    public MatrixClassSearch.Keyset decodeCursor() {
+        return MatrixClassCursor.decode(cursor, MatrixClassSort.MAX_STUDENTS, true);
+    }
+}
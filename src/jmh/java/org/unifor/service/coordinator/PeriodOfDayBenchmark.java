@@ -0,0 +1,43 @@
+package org.unifor.service.coordinator;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalTime;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link PeriodOfDay#contains} over class start times spread across the day, for each period
+ * (the in-memory form of the periodOfDay filter, PRD Appendix A).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PeriodOfDayBenchmark {
+
+    @Param({"MORNING", "AFTERNOON", "EVENING"})
+    public PeriodOfDay period;
+
+    private LocalTime[] startTimes;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(7);
+        startTimes = new LocalTime[1024];
+        for (int i = 0; i < startTimes.length; i++) {
+            startTimes[i] = LocalTime.of(6 + random.nextInt(17), random.nextInt(60));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1024)
+    public void contains(Blackhole bh) {
+        for (LocalTime start : startTimes) {
+            bh.consume(period.contains(start));
+        }
+    }
+}
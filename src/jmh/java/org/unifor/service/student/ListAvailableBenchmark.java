@@ -0,0 +1,121 @@
+package org.unifor.service.student;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.unifor.entity.UserRole;
+import org.unifor.repository.AvailableClassRepository;
+import org.unifor.repository.AvailableClassRow;
+import org.unifor.repository.CatalogClassRow;
+import org.unifor.repository.EnrolledSlotRow;
+import org.unifor.repository.ReadFrom;
+import org.unifor.security.UserPrincipal;
+import org.unifor.service.ActiveMatrixCatalog;
+import org.unifor.service.ReadYourWrites;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The in-memory part of {@link EnrollmentService#listAvailable}: course lookup in the catalog snapshot,
+ * enrolled class/subject/time slot filters and the row mapping, over a synthetic active matrix.
+ * The repository is replaced by in-memory fixtures, so database time is not included.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListAvailableBenchmark {
+
+    private static final String[][] SLOTS = {
+            {"SEG", "07:30", "09:10"}, {"QUA", "07:30", "09:10"}, {"SEX", "07:30", "09:10"},
+            {"TER", "09:30", "11:10"}, {"QUI", "09:30", "11:10"}, {"SEG", "13:30", "15:10"},
+            {"QUA", "15:30", "17:10"}, {"TER", "19:00", "20:40"}, {"QUI", "21:00", "22:40"},
+    };
+    private static final int COURSES = 40;
+
+    /** Classes in the active matrix. */
+    @Param({"300", "1500"})
+    public int classes;
+
+    /** Classes the student is already enrolled in. */
+    @Param({"0", "5"})
+    public int enrollments;
+
+    private EnrollmentService service;
+    private UserPrincipal student;
+    private Optional<Long> someSubject;
+
+    @Setup
+    public void setUp() {
+        var random = new Random(7);
+        List<CatalogClassRow> rows = new ArrayList<>();
+        Map<Long, List<Long>> courses = new HashMap<>();
+        for (long id = 1; id <= classes; id++) {
+            int slotIndex = random.nextInt(SLOTS.length);
+            String[] slot = SLOTS[slotIndex];
+            long subject = 1 + id % (classes / 4);
+            rows.add(new CatalogClassRow(id, 1L, 40, subject, "Disciplina " + subject, id % 150,
+                    "Professor " + id % 150, slotIndex + 1L, slot[0], LocalTime.parse(slot[1]),
+                    LocalTime.parse(slot[2]), null));
+            long first = random.nextInt(COURSES);
+            courses.put(id, List.of(1 + first, 1 + (first + 1) % COURSES));
+        }
+        List<EnrolledSlotRow> enrolled = new ArrayList<>();
+        for (int i = 0; i < enrollments; i++) {
+            CatalogClassRow row = rows.get(random.nextInt(rows.size()));
+            enrolled.add(new EnrolledSlotRow(row.id(), row.subjectId(), row.dayOfWeek(), row.startTime(),
+                    row.endTime(), row.timeSlotCode()));
+        }
+
+        var repository = new AvailableClassRepository(null, null) {
+            @Override
+            public List<CatalogClassRow> findActiveMatrixClasses() {
+                return rows;
+            }
+
+            @Override
+            public Map<Long, List<Long>> findActiveMatrixAuthorizedCourses() {
+                return courses;
+            }
+
+            @Override
+            public List<EnrolledSlotRow> findEnrolledSlots(Long studentId, ReadFrom from) {
+                return enrolled;
+            }
+
+            @Override
+            public Map<Long, Long> findReservedSeats(Collection<Long> matrixClassIds, ReadFrom from) {
+                Map<Long, Long> reserved = new HashMap<>();
+                for (Long id : matrixClassIds) {
+                    reserved.put(id, id % 41);
+                }
+                return reserved;
+            }
+        };
+        var catalog = new ActiveMatrixCatalog(repository, () -> Duration.ofDays(1));
+        var readYourWrites = new ReadYourWrites(null) {
+            @Override
+            public ReadFrom readFrom(UserPrincipal user) {
+                return ReadFrom.REPLICA;
+            }
+        };
+        service = new EnrollmentService(null, null, null, null, repository, catalog, null, null,
+                new EnrollmentMetrics(new SimpleMeterRegistry()), readYourWrites, null, null);
+        student = new UserPrincipal(1L, "aluno@unifor.br", UserRole.STUDENT, 1L);
+        someSubject = Optional.of(rows.get(0).subjectId());
+    }
+
+    @Benchmark
+    public List<AvailableClassRow> all() {
+        return service.listAvailable(student, Optional.empty(), Optional.empty());
+    }
+
+    @Benchmark
+    public List<AvailableClassRow> bySubject() {
+        return service.listAvailable(student, Optional.empty(), someSubject);
+    }
+}
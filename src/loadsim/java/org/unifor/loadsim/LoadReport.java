@@ -0,0 +1,112 @@
+package org.unifor.loadsim;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects per-endpoint latencies, HTTP statuses and enroll outcome codes from the student threads, and
+ * renders them (with the invariant checks) as the JSON report.
+ */
+final class LoadReport {
+
+    private final Map<String, Queue<Long>> latencies = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final LongAdder queued = new LongAdder();
+
+    void request(String endpoint, int status, long nanos) {
+        latencies.computeIfAbsent(endpoint, e -> new ConcurrentLinkedQueue<>()).add(nanos);
+        statuses.computeIfAbsent(endpoint + " " + status, s -> new LongAdder()).increment();
+    }
+
+    /** Final result of one enroll attempt: ENROLLED or the error code, after polling its ticket if queued. */
+    void outcome(String code) {
+        outcomes.computeIfAbsent(code, c -> new LongAdder()).increment();
+    }
+
+    void queued() {
+        queued.increment();
+    }
+
+    long outcomes(String code) {
+        LongAdder count = outcomes.get(code);
+        return count != null ? count.sum() : 0;
+    }
+
+    Map<String, Object> toMap(LoadSimConfig config, SyntheticPopulation population, String threading,
+                              long elapsedNanos, Map<String, Long> invariants) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threading", threading);
+        report.put("population", Map.of(
+                "students", population.studentEmails().size(),
+                "classes", population.classes(),
+                "seats", population.totalSeats(),
+                "courses", config.courses(),
+                "subjects", config.subjects(),
+                "classesPerStudent", config.classesPerStudent(),
+                "seed", config.seed()));
+        long requests = latencies.values().stream().mapToLong(Queue::size).sum();
+        double seconds = elapsedNanos / 1e9;
+        report.put("durationSeconds", round(seconds));
+        report.put("requests", requests);
+        report.put("throughputPerSecond", round(requests / seconds));
+        Map<String, Object> endpoints = new TreeMap<>();
+        latencies.forEach((endpoint, values) -> endpoints.put(endpoint, percentiles(values)));
+        report.put("latencyMillis", endpoints);
+        report.put("statuses", counts(statuses));
+        report.put("enrollOutcomes", counts(outcomes));
+        report.put("queuedTickets", queued.sum());
+        report.put("invariants", invariants);
+        return report;
+    }
+
+    static String write(Map<String, Object> report, LoadSimConfig config) throws IOException {
+        var mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        String json = mapper.writeValueAsString(report);
+        Files.createDirectories(config.report().toAbsolutePath().getParent());
+        Files.writeString(config.report(), json);
+        return json;
+    }
+
+    private static Map<String, Object> percentiles(Queue<Long> values) {
+        long[] sorted = values.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        Map<String, Object> p = new LinkedHashMap<>();
+        p.put("count", sorted.length);
+        p.put("p50", millis(sorted, 0.50));
+        p.put("p90", millis(sorted, 0.90));
+        p.put("p99", millis(sorted, 0.99));
+        p.put("p999", millis(sorted, 0.999));
+        p.put("max", millis(sorted, 1.0));
+        return p;
+    }
+
+    private static double millis(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return round(sorted[Math.max(0, index)] / 1e6);
+    }
+
+    private static Map<String, Long> counts(Map<String, LongAdder> adders) {
+        Map<String, Long> counts = new TreeMap<>();
+        adders.forEach((key, adder) -> counts.put(key, adder.sum()));
+        return counts;
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100) / 100.0;
+    }
+}
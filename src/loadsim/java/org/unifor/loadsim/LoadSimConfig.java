@@ -0,0 +1,38 @@
+package org.unifor.loadsim;
+
+import java.nio.file.Path;
+
+/**
+ * Simulation parameters, read from system properties ({@code -Dload.students=20000 ...}).
+ *
+ * @param students         synthetic students, one virtual thread each
+ * @param classes          classes in the active matrix
+ * @param courses          synthetic courses the students are spread over
+ * @param subjects         synthetic subjects; classes cycle over them, so each has classes/subjects sections
+ * @param professors       synthetic professors
+ * @param classesPerStudent enroll attempts per student
+ * @param skew             exponent applied when students pick classes from their list; above 1 concentrates
+ *                         demand on the first classes (hot sections)
+ * @param seed             seed for the population and for every student's choices
+ * @param report           JSON report path
+ */
+record LoadSimConfig(int students, int classes, int courses, int subjects, int professors,
+                     int classesPerStudent, double skew, long seed, Path report) {
+
+    static LoadSimConfig fromSystemProperties() {
+        var config = new LoadSimConfig(
+                Integer.getInteger("load.students", 20_000),
+                Integer.getInteger("load.classes", 1_500),
+                Integer.getInteger("load.courses", 40),
+                Integer.getInteger("load.subjects", 400),
+                Integer.getInteger("load.professors", 150),
+                Integer.getInteger("load.classes-per-student", 5),
+                Double.parseDouble(System.getProperty("load.skew", "2.0")),
+                Long.getLong("load.seed", 42L),
+                Path.of(System.getProperty("load.report", "target/load-sim/report.json")));
+        if (config.classes > config.subjects * 40) {
+            throw new IllegalArgumentException("load.classes exceeds subjects x 40 time slots");
+        }
+        return config;
+    }
+}
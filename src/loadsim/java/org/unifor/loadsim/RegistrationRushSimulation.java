@@ -0,0 +1,238 @@
+package org.unifor.loadsim;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.jboss.logging.Logger;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.unifor.PostgresTestResource;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Registration rush against the real REST endpoints: a synthetic population (see {@link SyntheticPopulation})
+ * is written into the test database, then every student, on its own virtual thread, lists its available
+ * classes and tries to enroll in {@code load.classes-per-student} of them, all released at the same instant.
+ * Queued enrollments (202) are polled until they finish; 503 is retried after Retry-After. The admission queue
+ * is off by default; add {@code -Dunifor.admission.enabled=true} to run the rush through it.
+ * <p>
+ * Writes throughput, latency percentiles per endpoint, the enroll outcome distribution and the invariant
+ * checks to {@code load.report}, and fails if any class is overbooked or any student holds two sections
+ * of a subject or two classes in one time slot. Run with:
+ * <pre>
+ * ./mvnw -Pload-sim test [-Dload.students=20000 -Dload.classes=1500 -Dload.seed=42]
+ * </pre>
+ * Add {@code -Dquarkus.virtual-threads.enabled=true} to run the resources on virtual threads instead of the
+ * worker pool (recorded as {@code threading} in the report), and {@code -Djdk.tracePinnedThreads=short} to
+ * print any virtual thread pinned while blocking.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@Tag("load")
+class RegistrationRushSimulation {
+
+    private static final Logger LOG = Logger.getLogger(RegistrationRushSimulation.class);
+    private static final String ENROLLMENTS = "/api/student/enrollments";
+
+    @Inject
+    DataSource dataSource;
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LoadReport report = new LoadReport();
+    private HttpClient http;
+
+    @Test
+    @TestSecurity(user = "loadsim@unifor.br", roles = "student")
+    void registrationRush() throws Exception {
+        var config = LoadSimConfig.fromSystemProperties();
+        var population = SyntheticPopulation.generate(dataSource, config);
+
+        var start = new CountDownLatch(1);
+        long elapsed;
+        try (ExecutorService students = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            http = HttpClient.newBuilder()
+                    .executor(httpExecutor)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            List<String> emails = population.studentEmails();
+            for (int i = 0; i < emails.size(); i++) {
+                String email = emails.get(i);
+                var random = new Random(config.seed() + i);
+                students.submit(() -> {
+                    start.await();
+                    runStudent(email, random, config);
+                    return null;
+                });
+            }
+            long began = System.nanoTime();
+            start.countDown();
+            students.shutdown();
+            assertTrue(students.awaitTermination(30, TimeUnit.MINUTES), "Simulation did not finish in 30 minutes");
+            elapsed = System.nanoTime() - began;
+        }
+
+        Map<String, Long> invariants = checkInvariants(population.matrixId());
+        String threading = ConfigProvider.getConfig().getValue("quarkus.virtual-threads.enabled", Boolean.class)
+                ? "virtual-threads" : "worker-pool";
+        String json = LoadReport.write(report.toMap(config, population, threading, elapsed, invariants), config);
+        LOG.infof("Registration rush report written to %s:%n%s", config.report().toAbsolutePath(), json);
+
+        assertEquals(0, invariants.get("overbookedClasses"), "Overbooked classes");
+        assertEquals(0, invariants.get("seatCounterMismatches"), "enrolled_count differs from enrollments");
+        assertEquals(0, invariants.get("duplicateSubjectEnrollments"), "Students enrolled twice in one subject");
+        assertEquals(0, invariants.get("sameSlotEnrollments"), "Students enrolled twice in one time slot");
+        assertEquals(report.outcomes("ENROLLED"), invariants.get("enrollments"),
+                "Every ENROLLED outcome must match one enrollment row");
+    }
+
+    private void runStudent(String email, Random random, LoadSimConfig config) throws Exception {
+        HttpResponse<String> available = send("available", email,
+                HttpRequest.newBuilder(baseUri.resolve("/api/student/classes/available")).GET());
+        if (available.statusCode() != 200) {
+            return;
+        }
+        List<Long> candidates = new ArrayList<>();
+        for (JsonNode item : mapper.readTree(available.body()).path("items")) {
+            if (item.path("availableSeats").asInt() > 0) {
+                candidates.add(item.path("id").asLong());
+            }
+        }
+        Set<Long> picks = new LinkedHashSet<>();
+        int wanted = Math.min(config.classesPerStudent(), candidates.size());
+        while (picks.size() < wanted) {
+            // Skewed towards the head of the list, so some sections become hot
+            int index = (int) (candidates.size() * Math.pow(random.nextDouble(), config.skew()));
+            picks.add(candidates.get(index));
+        }
+        for (Long matrixClassId : picks) {
+            report.outcome(enroll(email, matrixClassId));
+        }
+    }
+
+    private String enroll(String email, Long matrixClassId) throws Exception {
+        var body = "{\"matrixClassId\":" + matrixClassId + "}";
+        for (int attempt = 0; ; attempt++) {
+            HttpResponse<String> response = send("enroll", email, HttpRequest.newBuilder(baseUri.resolve(ENROLLMENTS))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)));
+            switch (response.statusCode()) {
+                case 201:
+                    return "ENROLLED";
+                case 202:
+                    report.queued();
+                    return awaitTicket(email, mapper.readTree(response.body()).path("ticketId").asText(),
+                            retryAfter(response));
+                case 503:
+                    if (attempt < 3) {
+                        Thread.sleep(retryAfter(response).toMillis());
+                        continue;
+                    }
+                    return errorCode(response);
+                default:
+                    return errorCode(response);
+            }
+        }
+    }
+
+    private String awaitTicket(String email, String ticketId, Duration pollInterval) throws Exception {
+        var uri = baseUri.resolve(ENROLLMENTS + "/tickets/" + ticketId);
+        while (true) {
+            Thread.sleep(pollInterval.toMillis());
+            HttpResponse<String> response = send("ticket", email, HttpRequest.newBuilder(uri).GET());
+            if (response.statusCode() != 200) {
+                return errorCode(response);
+            }
+            JsonNode ticket = mapper.readTree(response.body());
+            switch (ticket.path("status").asText()) {
+                case "ENROLLED":
+                    return "ENROLLED";
+                case "REJECTED":
+                    return ticket.path("error").path("code").asText();
+                default:
+                    pollInterval = retryAfter(response);
+            }
+        }
+    }
+
+    private HttpResponse<String> send(String endpoint, String email, HttpRequest.Builder request)
+            throws IOException, InterruptedException {
+        request.header("X-Test-User-Email", email).timeout(Duration.ofMinutes(2));
+        long began = System.nanoTime();
+        HttpResponse<String> response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        report.request(endpoint, response.statusCode(), System.nanoTime() - began);
+        return response;
+    }
+
+    private String errorCode(HttpResponse<String> response) throws IOException {
+        String code = response.body().isBlank() ? "" : mapper.readTree(response.body()).path("code").asText();
+        return code.isEmpty() ? "HTTP_" + response.statusCode() : code;
+    }
+
+    private static Duration retryAfter(HttpResponse<String> response) {
+        return response.headers().firstValue("Retry-After")
+                .map(seconds -> Duration.ofSeconds(Long.parseLong(seconds)))
+                .orElse(Duration.ofSeconds(1));
+    }
+
+    private Map<String, Long> checkInvariants(long matrixId) throws SQLException {
+        Map<String, Long> invariants = new LinkedHashMap<>();
+        try (Connection c = dataSource.getConnection()) {
+            invariants.put("enrollments", count(c, "SELECT COUNT(*) FROM enrollments e "
+                    + "JOIN matrix_classes mc ON mc.id = e.matrix_class_id WHERE mc.matrix_id = " + matrixId));
+            invariants.put("overbookedClasses", count(c, "SELECT COUNT(*) FROM matrix_classes mc "
+                    + "WHERE mc.matrix_id = " + matrixId + " AND mc.max_students < "
+                    + "(SELECT COUNT(*) FROM enrollments e WHERE e.matrix_class_id = mc.id)"));
+            invariants.put("seatCounterMismatches", count(c, "SELECT COUNT(*) FROM matrix_classes mc "
+                    + "WHERE mc.matrix_id = " + matrixId + " AND mc.seat_buckets = 1 AND mc.enrolled_count <> "
+                    + "(SELECT COUNT(*) FROM enrollments e WHERE e.matrix_class_id = mc.id)"));
+            invariants.put("duplicateSubjectEnrollments", count(c, "SELECT COUNT(*) FROM ("
+                    + "SELECT e.student_id, mc.subject_id FROM enrollments e "
+                    + "JOIN matrix_classes mc ON mc.id = e.matrix_class_id WHERE mc.matrix_id = " + matrixId
+                    + " GROUP BY e.student_id, mc.subject_id HAVING COUNT(*) > 1) d"));
+            invariants.put("sameSlotEnrollments", count(c, "SELECT COUNT(*) FROM ("
+                    + "SELECT e.student_id, mc.time_slot_id FROM enrollments e "
+                    + "JOIN matrix_classes mc ON mc.id = e.matrix_class_id WHERE mc.matrix_id = " + matrixId
+                    + " GROUP BY e.student_id, mc.time_slot_id HAVING COUNT(*) > 1) d"));
+        }
+        return invariants;
+    }
+
+    private static long count(Connection c, String sql) throws SQLException {
+        try (var statement = c.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package org.unifor.loadsim;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Synthetic registration population written straight into the database (no REST calls): courses, subjects,
+ * professors, students and one active matrix whose classes follow a realistic time slot distribution
+ * (mornings and evenings busier than afternoons), 1-3 authorized courses and 30-60 seats each.
+ * Students are {@code aluno<n>@loadsim.unifor.br}, spread evenly over the synthetic courses.
+ */
+record SyntheticPopulation(List<String> studentEmails, long matrixId, int classes, long totalSeats) {
+
+    /** Share of classes per turn (time slot code prefix). */
+    private static final double MORNING = 0.45;
+    private static final double AFTERNOON = 0.20;
+
+    static SyntheticPopulation generate(DataSource dataSource, LoadSimConfig config) throws SQLException {
+        var random = new Random(config.seed());
+        try (Connection c = dataSource.getConnection()) {
+            c.setAutoCommit(false);
+            List<Long> courses = insertNamed(c, "courses", "Curso Sintético ", config.courses());
+            List<Long> subjects = insertNamed(c, "subjects", "Disciplina Sintética ", config.subjects());
+            List<Long> professors = insertNamed(c, "professors", "Professor Sintético ", config.professors());
+            List<String> students = insertStudents(c, courses, config.students());
+            long matrixId = insertActiveMatrix(c);
+            long seats = insertClasses(c, matrixId, courses, subjects, professors, config.classes(), random);
+            c.commit();
+            return new SyntheticPopulation(students, matrixId, config.classes(), seats);
+        }
+    }
+
+    private static List<Long> insertNamed(Connection c, String table, String prefix, int count) throws SQLException {
+        var ids = new ArrayList<Long>(count);
+        try (var ps = c.prepareStatement("INSERT INTO " + table + " (name) "
+                + "SELECT ? || g FROM generate_series(1, ?) g RETURNING id")) {
+            ps.setString(1, prefix);
+            ps.setInt(2, count);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static List<String> insertStudents(Connection c, List<Long> courses, int count) throws SQLException {
+        var emails = new ArrayList<String>(count);
+        Array courseIds = c.createArrayOf("bigint", courses.toArray());
+        try (var ps = c.prepareStatement("INSERT INTO users (email, name, role, course_id) "
+                + "SELECT 'aluno' || g || '@loadsim.unifor.br', 'Aluno Sintético ' || g, 'STUDENT', "
+                + "(?::bigint[])[1 + g % ?] FROM generate_series(1, ?) g RETURNING email")) {
+            ps.setArray(1, courseIds);
+            ps.setInt(2, courses.size());
+            ps.setInt(3, count);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    emails.add(rs.getString(1));
+                }
+            }
+        }
+        return emails;
+    }
+
+    private static long insertActiveMatrix(Connection c) throws SQLException {
+        try (var deactivate = c.prepareStatement("UPDATE curriculum_matrices SET active = false WHERE active")) {
+            deactivate.executeUpdate();
+        }
+        try (var ps = c.prepareStatement("INSERT INTO curriculum_matrices (name, coordinator_id, active) "
+                + "SELECT 'Matriz Simulação de Matrícula', id, true FROM users WHERE email = 'carmen.lima@unifor.br' "
+                + "RETURNING id");
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static long insertClasses(Connection c, long matrixId, List<Long> courses, List<Long> subjects,
+                                      List<Long> professors, int count, Random random) throws SQLException {
+        List<List<Long>> slotsByTurn = slotsByTurn(c);
+        Set<String> taken = new HashSet<>();
+        var classIds = new ArrayList<Long>(count);
+        long seats = 0;
+        try (PreparedStatement ps = c.prepareStatement("INSERT INTO matrix_classes "
+                + "(matrix_id, subject_id, professor_id, time_slot_id, max_students) VALUES (?, ?, ?, ?, ?)",
+                new String[]{"id"})) {
+            for (int i = 0; i < count; i++) {
+                long subject = subjects.get(i % subjects.size());
+                long slot;
+                do {
+                    slot = pickSlot(slotsByTurn, random);
+                } while (!taken.add(subject + ":" + slot));
+                int maxStudents = 30 + random.nextInt(31);
+                seats += maxStudents;
+                ps.setLong(1, matrixId);
+                ps.setLong(2, subject);
+                ps.setLong(3, professors.get(random.nextInt(professors.size())));
+                ps.setLong(4, slot);
+                ps.setInt(5, maxStudents);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            try (ResultSet keys = ps.getGeneratedKeys()) {
+                while (keys.next()) {
+                    classIds.add(keys.getLong(1));
+                }
+            }
+        }
+        try (var ps = c.prepareStatement(
+                "INSERT INTO matrix_class_authorized_courses (matrix_class_id, course_id) VALUES (?, ?)")) {
+            for (long classId : classIds) {
+                int first = random.nextInt(courses.size());
+                int authorized = 1 + random.nextInt(Math.min(3, courses.size()));
+                for (int k = 0; k < authorized; k++) {
+                    ps.setLong(1, classId);
+                    ps.setLong(2, courses.get((first + k) % courses.size()));
+                    ps.addBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+        return seats;
+    }
+
+    /** Seeded time slots grouped by turn: M (morning), T (afternoon), N (night). */
+    private static List<List<Long>> slotsByTurn(Connection c) throws SQLException {
+        List<List<Long>> turns = List.of(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        try (var ps = c.prepareStatement("SELECT id, code FROM time_slots WHERE code IS NOT NULL ORDER BY id");
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                int turn = switch (rs.getString(2).charAt(0)) {
+                    case 'M' -> 0;
+                    case 'T' -> 1;
+                    default -> 2;
+                };
+                turns.get(turn).add(rs.getLong(1));
+            }
+        }
+        return turns;
+    }
+
+    private static long pickSlot(List<List<Long>> slotsByTurn, Random random) {
+        double turn = random.nextDouble();
+        List<Long> slots = turn < MORNING ? slotsByTurn.get(0)
+                : turn < MORNING + AFTERNOON ? slotsByTurn.get(1)
+                : slotsByTurn.get(2);
+        return slots.get(random.nextInt(slots.size()));
+    }
+}
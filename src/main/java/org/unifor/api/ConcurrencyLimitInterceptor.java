@@ -0,0 +1,31 @@
+package org.unifor.api;
+
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Binds {@link ConcurrencyLimit} to {@link VirtualThreadRequestLimit}. Runs before {@code @Transactional}, so a
+ * waiting request holds no connection. Invocations on the worker pool pass through: the pool size already
+ * bounds them.
+ */
+@ConcurrencyLimit
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 50)
+public class ConcurrencyLimitInterceptor {
+
+    private final VirtualThreadRequestLimit limit;
+
+    public ConcurrencyLimitInterceptor(VirtualThreadRequestLimit limit) {
+        this.limit = limit;
+    }
+
+    @AroundInvoke
+    Object limit(InvocationContext context) throws Exception {
+        if (!Thread.currentThread().isVirtual()) {
+            return context.proceed();
+        }
+        return limit.call(context::proceed);
+    }
+}
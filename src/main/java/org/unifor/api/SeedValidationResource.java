@@ -1,5 +1,6 @@
 package org.unifor.api;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
@@ -16,6 +17,8 @@ import java.util.Map;
  */
 @Path("/api/dev/seed-validation")
 @Produces(MediaType.APPLICATION_JSON)
+@RunOnVirtualThread
+@ConcurrencyLimit
 public class SeedValidationResource {
 
     private final SubjectRepository subjectRepository;
@@ -0,0 +1,53 @@
+package org.unifor.api;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.unifor.config.VirtualThreadsConfig;
+import org.unifor.exception.ServiceUnavailableException;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * On the worker pool, the pool size bounds how many requests use the database at once. Virtual threads have
+ * no such bound: a burst of requests would all wait on the datasource pool and fail with an acquisition
+ * timeout. Resource invocations on virtual threads therefore take a permit of a fair semaphore
+ * ({@code max-concurrent-requests}) first, waiting up to {@code acquire-timeout} before answering 503
+ * {@code SERVER_BUSY} with Retry-After.
+ * <p>
+ * Metrics: {@code unifor.virtual-threads.waiting} and {@code unifor.virtual-threads.rejected}.
+ */
+@ApplicationScoped
+public class VirtualThreadRequestLimit {
+
+    private final VirtualThreadsConfig config;
+    private final Semaphore permits;
+    private final Counter rejected;
+
+    public VirtualThreadRequestLimit(VirtualThreadsConfig config, MeterRegistry registry) {
+        this.config = config;
+        this.permits = new Semaphore(config.maxConcurrentRequests(), true);
+        Gauge.builder("unifor.virtual-threads.waiting", permits, Semaphore::getQueueLength)
+                .description("Requests on virtual threads waiting for a concurrency permit")
+                .register(registry);
+        this.rejected = Counter.builder("unifor.virtual-threads.rejected")
+                .description("Requests on virtual threads refused after waiting acquire-timeout")
+                .register(registry);
+    }
+
+    public <T> T call(Callable<T> invocation) throws Exception {
+        if (!permits.tryAcquire(config.acquireTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+            rejected.increment();
+            throw new ServiceUnavailableException("SERVER_BUSY",
+                    "Servidor ocupado; tente novamente em instantes", config.retryAfter());
+        }
+        try {
+            return invocation.call();
+        } finally {
+            permits.release();
+        }
+    }
+}
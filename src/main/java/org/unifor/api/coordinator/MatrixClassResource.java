@@ -1,41 +1,55 @@
 package org.unifor.api.coordinator;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.unifor.api.ConcurrencyLimit;
 import org.unifor.dto.request.CreateMatrixClassRequest;
 import org.unifor.dto.request.UpdateMatrixClassRequest;
 import org.unifor.dto.response.*;
 import org.unifor.entity.*;
-import org.unifor.repository.EnrollmentRepository;
+import org.unifor.exception.PreconditionFailedException;
+import org.unifor.repository.MatrixClassListRow;
+import org.unifor.repository.ScheduleConflictRow;
 import org.unifor.security.CurrentUserService;
+import org.unifor.service.SeatInventory;
 import org.unifor.service.coordinator.MatrixClassFilter;
+import org.unifor.service.coordinator.MatrixClassPage;
+import org.unifor.service.coordinator.MatrixClassPageRequest;
 import org.unifor.service.coordinator.MatrixClassService;
 import org.unifor.service.coordinator.PeriodOfDay;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Path("/api/coordinator/matrices/{matrixId}/classes")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed("coordinator")
 @Transactional
+@RunOnVirtualThread
+@ConcurrencyLimit
 public class MatrixClassResource {
 
     private final MatrixClassService matrixClassService;
     private final CurrentUserService currentUserService;
-    private final EnrollmentRepository enrollmentRepository;
+    private final SeatInventory seatInventory;
 
     public MatrixClassResource(MatrixClassService matrixClassService,
                                CurrentUserService currentUserService,
-                               EnrollmentRepository enrollmentRepository) {
+                               SeatInventory seatInventory) {
         this.matrixClassService = matrixClassService;
         this.currentUserService = currentUserService;
-        this.enrollmentRepository = enrollmentRepository;
+        this.seatInventory = seatInventory;
     }
 
     @GET
@@ -45,7 +59,10 @@ public class MatrixClassResource {
             @QueryParam("authorizedCourseId") Long authorizedCourseId,
             @QueryParam("maxStudentsMin") Integer maxStudentsMin,
             @QueryParam("maxStudentsMax") Integer maxStudentsMax,
-            @QueryParam("includeDeleted") @DefaultValue("false") boolean includeDeleted
+            @QueryParam("includeDeleted") @DefaultValue("false") boolean includeDeleted,
+            @QueryParam("sort") String sort,
+            @QueryParam("cursor") String cursor,
+            @QueryParam("limit") Integer limit
     ) {
         var coordinator = currentUserService.getCurrentCoordinator();
         var filter = new MatrixClassFilter(
@@ -55,18 +72,22 @@ public class MatrixClassResource {
                 Optional.ofNullable(maxStudentsMax),
                 includeDeleted
         );
-        List<MatrixClass> classes = matrixClassService.list(matrixId, coordinator, filter);
-        var items = classes.stream()
-                .map(mc -> toResponse(mc, matrixId))
+        MatrixClassPage page = matrixClassService.list(matrixId, coordinator, filter,
+                new MatrixClassPageRequest(sort, cursor, limit));
+        var items = page.items().stream()
+                .map(row -> toResponse(row, matrixId))
                 .toList();
-        return Response.ok().entity(new PageResponse<>(items, items.size())).build();
+        return Response.ok().entity(new PageResponse<>(items, page.total(), page.nextCursor())).build();
     }
 
     @POST
     public Response create(@PathParam("matrixId") Long matrixId, @Valid CreateMatrixClassRequest request) {
         var coordinator = currentUserService.getCurrentCoordinator();
         MatrixClass matrixClass = matrixClassService.create(request, matrixId, coordinator);
-        return Response.status(Response.Status.CREATED).entity(toResponse(matrixClass, matrixId)).build();
+        return Response.status(Response.Status.CREATED)
+                .entity(toResponse(matrixClass, matrixId))
+                .tag(etag(matrixClass))
+                .build();
     }
 
     @GET
@@ -74,31 +95,93 @@ public class MatrixClassResource {
     public Response getById(@PathParam("matrixId") Long matrixId, @PathParam("classId") Long classId) {
         var coordinator = currentUserService.getCurrentCoordinator();
         MatrixClass matrixClass = matrixClassService.getByIdAndCoordinator(classId, matrixId, coordinator);
-        return Response.ok().entity(toResponse(matrixClass, matrixId)).build();
+        return Response.ok().entity(toResponse(matrixClass, matrixId)).tag(etag(matrixClass)).build();
     }
 
+    @GET
+    @Path("{classId}/time-slot-impact")
+    public Response timeSlotImpact(
+            @PathParam("matrixId") Long matrixId,
+            @PathParam("classId") Long classId,
+            @QueryParam("timeSlotId") Long timeSlotId
+    ) {
+        var coordinator = currentUserService.getCurrentCoordinator();
+        List<ScheduleConflictRow> conflicts = matrixClassService.timeSlotImpact(classId, matrixId, timeSlotId, coordinator);
+        Map<Long, List<ScheduleConflictRow>> byStudent = conflicts.stream()
+                .collect(Collectors.groupingBy(ScheduleConflictRow::studentId, LinkedHashMap::new, Collectors.toList()));
+        var students = byStudent.values().stream()
+                .map(rows -> new TimeSlotImpactResponse.AffectedStudent(
+                        rows.get(0).studentId(),
+                        rows.get(0).studentName(),
+                        rows.stream().map(MatrixClassResource::toConflictingClass).toList()))
+                .toList();
+        return Response.ok()
+                .entity(new TimeSlotImpactResponse(classId, timeSlotId, !students.isEmpty(), students))
+                .build();
+    }
+
+    /**
+     * Updates the class. With If-Match (the ETag of a previous read) a class changed since then answers 412;
+     * without it, only an edit committed while this one runs does.
+     */
     @PUT
     @Path("{classId}")
     public Response update(
             @PathParam("matrixId") Long matrixId,
             @PathParam("classId") Long classId,
+            @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch,
             @Valid UpdateMatrixClassRequest request
     ) {
         var coordinator = currentUserService.getCurrentCoordinator();
-        MatrixClass matrixClass = matrixClassService.update(classId, request, matrixId, coordinator);
-        return Response.ok().entity(toResponse(matrixClass, matrixId)).build();
+        MatrixClass matrixClass = matrixClassService.update(classId, request, matrixId, coordinator, version(ifMatch));
+        return Response.ok().entity(toResponse(matrixClass, matrixId)).tag(etag(matrixClass)).build();
     }
 
+    /**
+     * Soft-deletes the class; If-Match as in {@link #update}.
+     */
     @DELETE
     @Path("{classId}")
-    public Response delete(@PathParam("matrixId") Long matrixId, @PathParam("classId") Long classId) {
+    public Response delete(@PathParam("matrixId") Long matrixId, @PathParam("classId") Long classId,
+                           @HeaderParam(HttpHeaders.IF_MATCH) String ifMatch) {
         var coordinator = currentUserService.getCurrentCoordinator();
-        matrixClassService.softDelete(classId, matrixId, coordinator);
+        matrixClassService.softDelete(classId, matrixId, coordinator, version(ifMatch));
         return Response.noContent().build();
     }
 
+    /** The class version, as a strong ETag. */
+    private static EntityTag etag(MatrixClass matrixClass) {
+        return new EntityTag(Long.toString(matrixClass.version));
+    }
+
+    /**
+     * Version named by If-Match; null when the header is absent or {@code *}. Weak or foreign tags never match
+     * (strong comparison), so they fail with 412.
+     */
+    static Long version(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        try {
+            if (tag.length() > 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                return Long.parseLong(tag.substring(1, tag.length() - 1));
+            }
+        } catch (NumberFormatException e) {
+            // Not one of ours
+        }
+        throw new PreconditionFailedException("If-Match não corresponde à versão atual da turma");
+    }
+
+    private static TimeSlotImpactResponse.ConflictingClass toConflictingClass(ScheduleConflictRow row) {
+        return new TimeSlotImpactResponse.ConflictingClass(
+                row.matrixClassId(),
+                new SubjectDto(row.subjectId(), row.subjectName()),
+                new TimeSlotDto(row.timeSlotId(), row.dayOfWeek(), row.startTime(), row.endTime(), row.timeSlotCode()));
+    }
+
     private MatrixClassResponse toResponse(MatrixClass mc, Long matrixId) {
-        long currentEnrollments = enrollmentRepository.countByMatrixClass(mc);
+        long currentEnrollments = seatInventory.enrolledCount(mc);
         var subject = new SubjectDto(mc.subject.id, mc.subject.name);
         var professor = new ProfessorDto(mc.professor.id, mc.professor.name);
         var timeSlot = new TimeSlotDto(mc.timeSlot.id, mc.timeSlot.dayOfWeek, mc.timeSlot.startTime, mc.timeSlot.endTime, mc.timeSlot.code);
@@ -114,8 +197,31 @@ public class MatrixClassResource {
                 authorizedCourses,
                 mc.maxStudents,
                 currentEnrollments,
+                mc.seatBuckets,
                 mc.deletedAt,
                 mc.createdAt
         );
     }
+
+    static MatrixClassResponse toResponse(MatrixClassListRow row, Long matrixId) {
+        var subject = new SubjectDto(row.subjectId(), row.subjectName());
+        var professor = new ProfessorDto(row.professorId(), row.professorName());
+        var timeSlot = new TimeSlotDto(row.timeSlotId(), row.dayOfWeek(), row.startTime(), row.endTime(), row.timeSlotCode());
+        var authorizedCourses = row.authorizedCourses().stream()
+                .map(c -> new CourseDto(c.id(), c.name()))
+                .toList();
+        return new MatrixClassResponse(
+                row.id(),
+                matrixId,
+                subject,
+                professor,
+                timeSlot,
+                authorizedCourses,
+                row.maxStudents(),
+                row.reservedSeats(),
+                row.seatBuckets(),
+                row.deletedAt(),
+                row.createdAt()
+        );
+    }
 }
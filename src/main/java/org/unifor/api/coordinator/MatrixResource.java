@@ -1,5 +1,6 @@
 package org.unifor.api.coordinator;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
@@ -8,10 +9,12 @@ import jakarta.ws.rs.core.Context;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.UriInfo;
+import org.unifor.api.ConcurrencyLimit;
 import org.unifor.dto.request.CreateMatrixRequest;
 import org.unifor.dto.response.MatrixResponse;
 import org.unifor.dto.response.MatrixSummaryResponse;
 import org.unifor.entity.CurriculumMatrix;
+import org.unifor.repository.MatrixSummaryRow;
 import org.unifor.security.CurrentUserService;
 import org.unifor.service.coordinator.MatrixService;
 
@@ -22,6 +25,8 @@ import java.util.List;
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed("coordinator")
 @Transactional
+@RunOnVirtualThread
+@ConcurrencyLimit
 public class MatrixResource {
 
     private final MatrixService matrixService;
@@ -35,7 +40,7 @@ public class MatrixResource {
     @GET
     public Response list() {
         var coordinator = currentUserService.getCurrentCoordinator();
-        List<CurriculumMatrix> matrices = matrixService.listByCoordinator(coordinator);
+        List<MatrixSummaryRow> matrices = matrixService.listByCoordinator(coordinator);
         var items = matrices.stream()
                 .map(this::toSummaryResponse)
                 .toList();
@@ -66,9 +71,8 @@ public class MatrixResource {
         return Response.noContent().build();
     }
 
-    private MatrixSummaryResponse toSummaryResponse(CurriculumMatrix m) {
-        long classCount = m.classes != null ? m.classes.size() : 0;
-        return new MatrixSummaryResponse(m.id, m.name, m.active, classCount, m.createdAt);
+    private MatrixSummaryResponse toSummaryResponse(MatrixSummaryRow row) {
+        return new MatrixSummaryResponse(row.id(), row.name(), row.active(), row.classCount(), row.createdAt());
     }
 
     private record ListWrapper(List<MatrixSummaryResponse> items) {}
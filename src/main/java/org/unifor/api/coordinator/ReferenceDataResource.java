@@ -1,76 +1,92 @@
 package org.unifor.api.coordinator;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
-import jakarta.transaction.Transactional;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.CacheControl;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
-import org.unifor.dto.response.*;
-import org.unifor.repository.CourseRepository;
-import org.unifor.repository.ProfessorRepository;
-import org.unifor.repository.SubjectRepository;
-import org.unifor.repository.TimeSlotRepository;
+import org.unifor.api.ConcurrencyLimit;
+import org.unifor.service.ReferenceDataCache;
+import org.unifor.service.ReferenceDataCache.CachedJson;
 
 /**
  * Reference data endpoints for coordinator "Add class" form dropdowns.
  * Returns the same IDs and shapes used in create-class and list-classes.
+ * Bodies are served pre-serialized from {@link ReferenceDataCache} with a strong ETag;
+ * a matching If-None-Match gets 304 without touching the database.
  */
 @Path("/api/coordinator/reference")
 @Produces(MediaType.APPLICATION_JSON)
 @RolesAllowed("coordinator")
-@Transactional
+@RunOnVirtualThread
+@ConcurrencyLimit
 public class ReferenceDataResource {
 
-    private final SubjectRepository subjectRepository;
-    private final ProfessorRepository professorRepository;
-    private final TimeSlotRepository timeSlotRepository;
-    private final CourseRepository courseRepository;
+    private static final CacheControl REVALIDATE = revalidate();
 
-    public ReferenceDataResource(SubjectRepository subjectRepository,
-                                ProfessorRepository professorRepository,
-                                TimeSlotRepository timeSlotRepository,
-                                CourseRepository courseRepository) {
-        this.subjectRepository = subjectRepository;
-        this.professorRepository = professorRepository;
-        this.timeSlotRepository = timeSlotRepository;
-        this.courseRepository = courseRepository;
+    private final ReferenceDataCache referenceDataCache;
+
+    public ReferenceDataResource(ReferenceDataCache referenceDataCache) {
+        this.referenceDataCache = referenceDataCache;
     }
 
     @GET
     @Path("/subjects")
-    public Response listSubjects() {
-        var items = subjectRepository.listAll().stream()
-                .map(s -> new SubjectDto(s.id, s.name))
-                .toList();
-        return Response.ok().entity(items).build();
+    public Response listSubjects(@Context Request request) {
+        return respond(request, referenceDataCache.current().subjects());
     }
 
     @GET
     @Path("/professors")
-    public Response listProfessors() {
-        var items = professorRepository.listAll().stream()
-                .map(p -> new ProfessorDto(p.id, p.name))
-                .toList();
-        return Response.ok().entity(items).build();
+    public Response listProfessors(@Context Request request) {
+        return respond(request, referenceDataCache.current().professors());
     }
 
     @GET
     @Path("/time-slots")
-    public Response listTimeSlots() {
-        var items = timeSlotRepository.listAll().stream()
-                .map(t -> new TimeSlotDto(t.id, t.dayOfWeek, t.startTime, t.endTime, t.code))
-                .toList();
-        return Response.ok().entity(items).build();
+    public Response listTimeSlots(@Context Request request) {
+        return respond(request, referenceDataCache.current().timeSlots());
     }
 
     @GET
     @Path("/courses")
-    public Response listCourses() {
-        var items = courseRepository.listAll().stream()
-                .map(c -> new CourseDto(c.id, c.name))
-                .toList();
-        return Response.ok().entity(items).build();
+    public Response listCourses(@Context Request request) {
+        return respond(request, referenceDataCache.current().courses());
+    }
+
+    /**
+     * Subjects, professors, time slots and courses in one payload.
+     */
+    @GET
+    @Path("/bundle")
+    public Response bundle(@Context Request request) {
+        return respond(request, referenceDataCache.current().bundle());
+    }
+
+    private Response respond(Request request, CachedJson json) {
+        var etag = new EntityTag(json.etag());
+        Response.ResponseBuilder notModified = request.evaluatePreconditions(etag);
+        if (notModified != null) {
+            return notModified.cacheControl(REVALIDATE).build();
+        }
+        return Response.ok(json.body(), MediaType.APPLICATION_JSON_TYPE)
+                .tag(etag)
+                .cacheControl(REVALIDATE)
+                .build();
+    }
+
+    /** {@code private, no-cache}: clients keep the body but revalidate it with If-None-Match every time. */
+    private static CacheControl revalidate() {
+        CacheControl cacheControl = new CacheControl();
+        cacheControl.setPrivate(true);
+        cacheControl.setNoCache(true);
+        cacheControl.setNoTransform(false);
+        return cacheControl;
     }
 }
@@ -1,15 +1,16 @@
 package org.unifor.api.student;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.unifor.api.ConcurrencyLimit;
 import org.unifor.dto.response.*;
-import org.unifor.entity.MatrixClass;
-import org.unifor.entity.User;
-import org.unifor.repository.EnrollmentRepository;
+import org.unifor.repository.AvailableClassRow;
 import org.unifor.security.CurrentUserService;
+import org.unifor.security.UserPrincipal;
 import org.unifor.service.student.EnrollmentService;
 
 import java.util.List;
@@ -18,18 +19,17 @@ import java.util.Optional;
 @Path("/api/student/classes/available")
 @Produces(MediaType.APPLICATION_JSON)
 @RolesAllowed("student")
+@RunOnVirtualThread
+@ConcurrencyLimit
 public class AvailableClassResource {
 
     private final EnrollmentService enrollmentService;
     private final CurrentUserService currentUserService;
-    private final EnrollmentRepository enrollmentRepository;
 
     public AvailableClassResource(EnrollmentService enrollmentService,
-                                 CurrentUserService currentUserService,
-                                 EnrollmentRepository enrollmentRepository) {
+                                 CurrentUserService currentUserService) {
         this.enrollmentService = enrollmentService;
         this.currentUserService = currentUserService;
-        this.enrollmentRepository = enrollmentRepository;
     }
 
     @GET
@@ -38,35 +38,32 @@ public class AvailableClassResource {
             @QueryParam("matrixId") Long matrixId,
             @QueryParam("subjectId") Long subjectId
     ) {
-        User student = currentUserService.getCurrentStudent();
-        List<MatrixClass> classes = enrollmentService.listAvailable(
+        UserPrincipal student = currentUserService.getCurrentStudent();
+        List<AvailableClassRow> classes = enrollmentService.listAvailable(
                 student,
                 Optional.ofNullable(matrixId),
                 Optional.ofNullable(subjectId)
         );
         var items = classes.stream()
-                .map(mc -> toResponse(mc, student))
+                .map(AvailableClassResource::toResponse)
                 .toList();
         return Response.ok().entity(new ListWrapper(items)).build();
     }
 
-    private AvailableClassResponse toResponse(MatrixClass mc, User student) {
-        long enrollmentCount = enrollmentRepository.countByMatrixClass(mc);
-        int availableSeats = (int) (mc.maxStudents - enrollmentCount);
-        boolean authorized = mc.authorizedCourses.stream()
-                .anyMatch(c -> student.course != null && c.id.equals(student.course.id));
-        var subject = new SubjectDto(mc.subject.id, mc.subject.name);
-        var professor = new ProfessorDto(mc.professor.id, mc.professor.name);
-        var timeSlot = new TimeSlotDto(mc.timeSlot.id, mc.timeSlot.dayOfWeek,
-                mc.timeSlot.startTime, mc.timeSlot.endTime, mc.timeSlot.code);
+    /** Rows are already filtered by the student's course, so every item is authorized. */
+    static AvailableClassResponse toResponse(AvailableClassRow row) {
+        var subject = new SubjectDto(row.subjectId(), row.subjectName());
+        var professor = new ProfessorDto(row.professorId(), row.professorName());
+        var timeSlot = new TimeSlotDto(row.timeSlotId(), row.dayOfWeek(),
+                row.startTime(), row.endTime(), row.timeSlotCode());
         return new AvailableClassResponse(
-                mc.id,
+                row.id(),
                 subject,
                 professor,
                 timeSlot,
-                mc.maxStudents,
-                availableSeats,
-                authorized
+                row.maxStudents(),
+                row.availableSeats(),
+                true
         );
     }
 
@@ -1,60 +1,157 @@
 package org.unifor.api.student;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.transaction.Transactional;
 import jakarta.validation.Valid;
 import jakarta.ws.rs.*;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.unifor.api.ConcurrencyLimit;
+import org.unifor.dto.request.BatchEnrollRequest;
 import org.unifor.dto.request.EnrollRequest;
+import org.unifor.config.AdmissionConfig;
 import org.unifor.dto.response.*;
-import org.unifor.entity.Enrollment;
-import org.unifor.entity.MatrixClass;
+import org.unifor.repository.EnrollmentRow;
+import org.unifor.repository.IdempotencyKeyRow;
 import org.unifor.security.CurrentUserService;
+import org.unifor.service.student.BatchEnrollOutcome;
+import org.unifor.service.student.EnrollmentAdmission;
+import org.unifor.service.student.EnrollmentIdempotency;
 import org.unifor.service.student.EnrollmentService;
+import org.unifor.service.student.EnrollmentTicket;
 
+import java.net.URI;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Path("/api/student/enrollments")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 @RolesAllowed("student")
 @Transactional
+@RunOnVirtualThread
+@ConcurrencyLimit
 public class EnrollmentResource {
 
     private final EnrollmentService enrollmentService;
     private final CurrentUserService currentUserService;
+    private final EnrollmentAdmission admission;
+    private final AdmissionConfig admissionConfig;
+    private final EnrollmentIdempotency idempotency;
 
     public EnrollmentResource(EnrollmentService enrollmentService,
-                              CurrentUserService currentUserService) {
+                              CurrentUserService currentUserService,
+                              EnrollmentAdmission admission,
+                              AdmissionConfig admissionConfig,
+                              EnrollmentIdempotency idempotency) {
         this.enrollmentService = enrollmentService;
         this.currentUserService = currentUserService;
+        this.admission = admission;
+        this.admissionConfig = admissionConfig;
+        this.idempotency = idempotency;
     }
 
     @GET
     public Response list() {
         var student = currentUserService.getCurrentStudent();
-        List<Enrollment> enrollments = enrollmentService.listEnrolled(student);
+        List<EnrollmentRow> enrollments = enrollmentService.listEnrolled(student);
         var items = enrollments.stream()
                 .map(this::toResponse)
                 .toList();
         return Response.ok().entity(new ListWrapper(items)).build();
     }
 
+    /**
+     * Enrolls through the admission queue (see {@link EnrollmentAdmission}): 201 when admitted at once, which
+     * is always the case with the queue disabled (the default); 202 with a ticket to poll otherwise, 503 with
+     * Retry-After when the queue is full or the class stays locked. Runs without a transaction so that no connection is held while waiting; the enrollment opens its own.
+     * <p>
+     * With an Idempotency-Key header, a retry of the same key gets the first outcome again (see
+     * {@link EnrollmentIdempotency}), marked with {@code Idempotent-Replayed: true}.
+     */
     @POST
-    public Response enroll(@Valid EnrollRequest request) {
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public Response enroll(@Valid EnrollRequest request,
+                           @HeaderParam(EnrollmentIdempotency.HEADER) String idempotencyKey) {
         var student = currentUserService.getCurrentStudent();
-        Enrollment enrollment = enrollmentService.enroll(request.matrixClassId(), student);
-        return Response.status(Response.Status.CREATED).entity(toResponse(enrollment)).build();
+        Supplier<EnrollmentResponse> enroll =
+                () -> toResponse(enrollmentService.enroll(request.matrixClassId(), student));
+        if (idempotencyKey == null) {
+            return submit(request.matrixClassId(), student.id(), enroll);
+        }
+        return idempotency.execute(student.id(), idempotencyKey, request.matrixClassId(), EnrollmentResource::replay,
+                () -> submit(request.matrixClassId(), student.id(),
+                        idempotency.recording(student.id(), idempotencyKey, request.matrixClassId(), enroll)));
     }
 
-    private EnrollmentResponse toResponse(Enrollment e) {
-        MatrixClass mc = e.matrixClass;
-        var subject = new SubjectDto(mc.subject.id, mc.subject.name);
-        var professor = new ProfessorDto(mc.professor.id, mc.professor.name);
-        var timeSlot = new TimeSlotDto(mc.timeSlot.id, mc.timeSlot.dayOfWeek,
-                mc.timeSlot.startTime, mc.timeSlot.endTime, mc.timeSlot.code);
-        return new EnrollmentResponse(e.id, mc.id, subject, professor, timeSlot, e.enrolledAt);
+    private Response submit(Long matrixClassId, Long studentId, Supplier<EnrollmentResponse> enroll) {
+        var result = admission.submit(matrixClassId, studentId, enroll);
+        if (result.ticket() == null) {
+            return Response.status(Response.Status.CREATED).entity(result.enrollment()).build();
+        }
+        return Response.accepted(toResponse(result.ticket()))
+                .location(URI.create("/api/student/enrollments/tickets/" + result.ticket().id()))
+                .header(HttpHeaders.RETRY_AFTER, admissionConfig.pollInterval().toSeconds())
+                .build();
+    }
+
+    /**
+     * Status of a queued enroll request. 404 for unknown or expired tickets and for other students' tickets.
+     */
+    @GET
+    @Path("tickets/{ticketId}")
+    public Response ticket(@PathParam("ticketId") String ticketId) {
+        var student = currentUserService.getCurrentStudent();
+        EnrollmentTicket ticket = admission.getTicket(ticketId, student.id());
+        var response = Response.ok(toResponse(ticket));
+        if (ticket.status() == EnrollmentTicket.Status.QUEUED) {
+            response.header(HttpHeaders.RETRY_AFTER, admissionConfig.pollInterval().toSeconds());
+        }
+        return response.build();
+    }
+
+    /**
+     * Enrolls in several classes at once (see {@link EnrollmentService#enrollBatch}). 201 when at least one
+     * class was enrolled; 409 CONFLICT_BATCH_REJECTED, with every outcome in the details, when none was.
+     * The service owns the transaction so that it can retry it on lock contention.
+     */
+    @POST
+    @Path("batch")
+    @Transactional(Transactional.TxType.NOT_SUPPORTED)
+    public Response enrollBatch(@Valid BatchEnrollRequest request) {
+        var student = currentUserService.getCurrentStudent();
+        List<BatchEnrollOutcome> outcomes = enrollmentService.enrollBatch(
+                request.matrixClassIds(), request.modeOrDefault(), student);
+        var items = outcomes.stream()
+                .map(o -> new BatchEnrollResponse.Item(o.matrixClassId(), o.code(), o.message(),
+                        o.enrollment() != null ? toResponse(o.enrollment()) : null))
+                .toList();
+        int enrolled = (int) items.stream().filter(i -> i.enrollment() != null).count();
+        return Response.status(Response.Status.CREATED).entity(new BatchEnrollResponse(enrolled, items)).build();
+    }
+
+    /** The stored body is the JSON sent the first time. */
+    private static Response replay(IdempotencyKeyRow stored) {
+        return Response.status(stored.status())
+                .entity(stored.body())
+                .type(MediaType.APPLICATION_JSON)
+                .header(EnrollmentIdempotency.REPLAYED_HEADER, true)
+                .build();
+    }
+
+    private EnrollmentTicketResponse toResponse(EnrollmentTicket ticket) {
+        return new EnrollmentTicketResponse(ticket.id(), ticket.matrixClassId(), ticket.status().name(),
+                admission.position(ticket), ticket.enrollment(), ticket.error());
+    }
+
+    private EnrollmentResponse toResponse(EnrollmentRow row) {
+        var subject = new SubjectDto(row.subjectId(), row.subjectName());
+        var professor = new ProfessorDto(row.professorId(), row.professorName());
+        var timeSlot = new TimeSlotDto(row.timeSlotId(), row.dayOfWeek(),
+                row.startTime(), row.endTime(), row.timeSlotCode());
+        return new EnrollmentResponse(row.id(), row.matrixClassId(), subject, professor, timeSlot, row.enrolledAt());
     }
 
     private record ListWrapper(List<EnrollmentResponse> items) {}
@@ -0,0 +1,37 @@
+package org.unifor.api.student;
+
+import io.smallrye.mutiny.Multi;
+import jakarta.annotation.security.RolesAllowed;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+import org.unifor.dto.response.SeatAvailabilityResponse;
+import org.unifor.service.student.SeatAvailabilityFeed;
+
+/**
+ * Server-Sent Events with the available seats of the active matrix's classes: every class on connect, then
+ * the classes that changed (see {@link SeatAvailabilityFeed}). Replaces polling GET
+ * /api/student/classes/available to watch seats. Served on the event loop: an open stream holds no thread and
+ * no connection to the database.
+ */
+@Path("/api/student/classes/availability")
+@RolesAllowed("student")
+public class SeatAvailabilityStreamResource {
+
+    private final SeatAvailabilityFeed seatAvailabilityFeed;
+
+    public SeatAvailabilityStreamResource(SeatAvailabilityFeed seatAvailabilityFeed) {
+        this.seatAvailabilityFeed = seatAvailabilityFeed;
+    }
+
+    @GET
+    @Path("stream")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @RestStreamElementType(MediaType.APPLICATION_JSON)
+    public Multi<SeatAvailabilityResponse> stream() {
+        return seatAvailabilityFeed.subscribe()
+                .map(seats -> new SeatAvailabilityResponse(seats.classId(), seats.availableSeats()));
+    }
+}
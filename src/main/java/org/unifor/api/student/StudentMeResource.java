@@ -1,5 +1,6 @@
 package org.unifor.api.student;
 
+import io.smallrye.common.annotation.RunOnVirtualThread;
 import jakarta.annotation.security.RolesAllowed;
 import jakarta.transaction.Transactional;
 import jakarta.ws.rs.GET;
@@ -7,29 +8,37 @@ import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import org.unifor.api.ConcurrencyLimit;
 import org.unifor.dto.response.CourseDto;
 import org.unifor.dto.response.StudentMeResponse;
-import org.unifor.entity.User;
+import org.unifor.entity.Course;
+import org.unifor.repository.CourseRepository;
 import org.unifor.security.CurrentUserService;
+import org.unifor.security.UserPrincipal;
 
 @Path("/api/student/me")
 @Produces(MediaType.APPLICATION_JSON)
 @RolesAllowed("student")
+@RunOnVirtualThread
+@ConcurrencyLimit
 public class StudentMeResource {
 
     private final CurrentUserService currentUserService;
+    private final CourseRepository courseRepository;
 
-    public StudentMeResource(CurrentUserService currentUserService) {
+    public StudentMeResource(CurrentUserService currentUserService, CourseRepository courseRepository) {
         this.currentUserService = currentUserService;
+        this.courseRepository = courseRepository;
     }
 
     @GET
     @Transactional
     public Response me() {
-        User student = currentUserService.getCurrentStudent();
-        var course = student.course == null
+        UserPrincipal student = currentUserService.getCurrentStudent();
+        Course studentCourse = student.courseId() == null ? null : courseRepository.findById(student.courseId());
+        var course = studentCourse == null
                 ? null
-                : new CourseDto(student.course.id, student.course.name);
+                : new CourseDto(studentCourse.id, studentCourse.name);
         return Response.ok(new StudentMeResponse(course)).build();
     }
 }
@@ -0,0 +1,73 @@
+package org.unifor.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+/**
+ * Enrollment admission queue tuning (prefix {@code unifor.admission}). See
+ * {@link org.unifor.service.student.EnrollmentAdmission}.
+ */
+@ConfigMapping(prefix = "unifor.admission")
+public interface AdmissionConfig {
+
+    /**
+     * When false (the default), enroll requests run directly and answer 201/409, as before the queue existed.
+     * When true, a request not admitted within {@code admission-wait} answers 202 with a ticket to poll, so
+     * enable it only for clients that handle 202.
+     */
+    @WithDefault("false")
+    boolean enabled();
+
+    /**
+     * Enrollments running at once across all classes. Keep it below the datasource pool size so reads
+     * still get connections during a registration rush.
+     */
+    @WithDefault("16")
+    int globalPermits();
+
+    /**
+     * Enrollments running at once in one class. Requests beyond this would only wait on the class row lock
+     * while holding a connection.
+     */
+    @WithDefault("4")
+    int perClassPermits();
+
+    /**
+     * How long a request waits for permits before it is answered with 202 and a ticket.
+     */
+    @WithDefault("2s")
+    Duration admissionWait();
+
+    /**
+     * Tickets waiting for admission. Beyond this, enroll answers 503 with Retry-After.
+     */
+    @WithDefault("5000")
+    int queueCapacity();
+
+    /**
+     * Retry-After sent with 503 when the queue is full.
+     */
+    @WithDefault("10s")
+    Duration retryAfter();
+
+    /**
+     * Retry-After sent with 202: how soon the client should poll the ticket.
+     */
+    @WithDefault("1s")
+    Duration pollInterval();
+
+    /**
+     * How long a ticket can wait in the queue. Older tickets are rejected with {@code QUEUE_TIMEOUT}, which
+     * frees their place in {@code queue-capacity}.
+     */
+    @WithDefault("5m")
+    Duration queueTimeout();
+
+    /**
+     * How long a finished ticket can still be polled.
+     */
+    @WithDefault("10m")
+    Duration ticketTtl();
+}
@@ -0,0 +1,29 @@
+package org.unifor.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+/**
+ * Seat availability stream tuning (prefix {@code unifor.availability-stream}). See
+ * {@link org.unifor.service.student.SeatAvailabilityFeed}.
+ */
+@ConfigMapping(prefix = "unifor.availability-stream")
+public interface AvailabilityStreamConfig {
+
+    /**
+     * How often changed classes are read and pushed; a class gets at most one update per interval, however
+     * many enrollments it had in between.
+     */
+    @WithDefault("1s")
+    Duration interval();
+
+    /**
+     * Updates buffered per connection for a client that reads slower than they are pushed. Beyond this the
+     * stream is closed and the client reconnects, getting a fresh snapshot. Must hold the initial snapshot:
+     * keep it above the number of classes of the active matrix.
+     */
+    @WithDefault("1024")
+    int subscriberBuffer();
+}
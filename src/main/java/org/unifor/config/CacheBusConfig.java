@@ -0,0 +1,52 @@
+package org.unifor.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+/**
+ * Cross-node cache invalidation over Postgres LISTEN/NOTIFY (prefix {@code unifor.cache-bus}). See
+ * {@link org.unifor.service.CacheInvalidationBus}.
+ */
+@ConfigMapping(prefix = "unifor.cache-bus")
+public interface CacheBusConfig {
+
+    /**
+     * Turn on when several nodes serve the API. Each node then holds the two connections of the {@code cache-bus}
+     * datasource.
+     */
+    @WithDefault("false")
+    boolean enabled();
+
+    /**
+     * NOTIFY channel; nodes of one deployment must share it. Letters, digits and {@code _}, up to 63 characters.
+     */
+    @WithDefault("unifor_cache")
+    String channel();
+
+    /**
+     * Enrollments in one class within this window are sent to the other nodes as one SEATS message.
+     */
+    @WithDefault("200ms")
+    Duration seatsWindow();
+
+    /**
+     * How long the listener waits for notifications before checking its connection.
+     */
+    @WithDefault("1s")
+    Duration pollInterval();
+
+    /**
+     * Pause before reconnecting after the connection was lost.
+     */
+    @WithDefault("1s")
+    Duration reconnectDelay();
+
+    /**
+     * Messages waiting to be sent while the database is slow or unreachable. Beyond this they are dropped,
+     * and the other nodes flush everything when they notice the gap.
+     */
+    @WithDefault("10000")
+    int outboxCapacity();
+}
@@ -0,0 +1,20 @@
+package org.unifor.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+/**
+ * Active matrix catalog tuning (prefix {@code unifor.catalog}).
+ */
+@ConfigMapping(prefix = "unifor.catalog")
+public interface CatalogConfig {
+
+    /**
+     * Maximum age of the catalog snapshot. Local coordinator writes rebuild it on commit; this bounds how
+     * long changes made elsewhere (another instance, manual SQL) can go unseen.
+     */
+    @WithDefault("30s")
+    Duration maxStaleness();
+}
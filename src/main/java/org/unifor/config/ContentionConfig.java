@@ -0,0 +1,49 @@
+package org.unifor.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+/**
+ * Retry of transactions that failed on lock contention (prefix {@code unifor.contention}). See
+ * {@link org.unifor.service.ContentionRetry}.
+ */
+@ConfigMapping(prefix = "unifor.contention")
+public interface ContentionConfig {
+
+    /**
+     * Attempts per call, the first included. 1 disables retries.
+     */
+    @WithDefault("3")
+    int maxAttempts();
+
+    /**
+     * Backoff ceiling before the first retry; it doubles on each retry up to {@link #maxBackoff()}. The actual
+     * pause is drawn uniformly below the ceiling (full jitter), so retries of colliding requests spread out.
+     */
+    @WithDefault("50ms")
+    Duration initialBackoff();
+
+    @WithDefault("1s")
+    Duration maxBackoff();
+
+    /**
+     * Retries allowed per call, on average: each call adds this fraction of a retry to the budget and each
+     * retry spends one. Under sustained contention at most this share of the load is retried.
+     */
+    @WithDefault("0.2")
+    double budgetRatio();
+
+    /**
+     * Retries the budget can hold (it starts full), so isolated collisions are always retried.
+     */
+    @WithDefault("20")
+    int budgetCapacity();
+
+    /**
+     * Retry-After sent with the 503 when a call gives up.
+     */
+    @WithDefault("2s")
+    Duration retryAfter();
+}
@@ -0,0 +1,41 @@
+package org.unifor.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+import org.unifor.service.student.SeatAccountingMode;
+
+import java.time.Duration;
+
+/**
+ * Enrollment tuning (prefix {@code unifor.enrollment}).
+ */
+@ConfigMapping(prefix = "unifor.enrollment")
+public interface EnrollmentConfig {
+
+    /**
+     * Seat accounting strategy used by enroll. See {@link SeatAccountingMode}.
+     */
+    @WithDefault("pessimistic")
+    SeatAccountingMode seatMode();
+
+    /**
+     * Upper bound for the per-class seatBuckets chosen by coordinators.
+     */
+    @WithDefault("32")
+    int maxSeatBuckets();
+
+    /**
+     * Postgres {@code lock_timeout} for the enrollment transactions: a row lock not granted within this time
+     * fails the attempt, which is then retried (see {@link org.unifor.service.RetryOnContention}) instead of
+     * waiting behind a slow transaction. 0 waits indefinitely.
+     */
+    @WithDefault("2s")
+    Duration lockTimeout();
+
+    /**
+     * Number of in-process locks that enrollments of the same student serialize on (see
+     * {@link org.unifor.service.student.StudentLocks}); students are spread over them by id.
+     */
+    @WithDefault("1024")
+    int studentLockStripes();
+}
@@ -0,0 +1,26 @@
+package org.unifor.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+/**
+ * Idempotency-Key handling of enroll requests (prefix {@code unifor.idempotency}). See
+ * {@link org.unifor.service.student.EnrollmentIdempotency}.
+ */
+@ConfigMapping(prefix = "unifor.idempotency")
+public interface IdempotencyConfig {
+
+    /**
+     * How long a stored response is replayed. After that the key can be used again.
+     */
+    @WithDefault("24h")
+    Duration ttl();
+
+    /**
+     * How often expired responses are deleted.
+     */
+    @WithDefault("10m")
+    Duration cleanupInterval();
+}
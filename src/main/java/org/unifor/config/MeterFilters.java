@@ -0,0 +1,33 @@
+package org.unifor.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import jakarta.enterprise.inject.Produces;
+import jakarta.inject.Singleton;
+
+/**
+ * Publishes percentile histograms ({@code _bucket} series) for the HTTP server timers, one per endpoint
+ * (method and uri template), and for the application timers ({@code unifor.*}), so latency percentiles can be
+ * aggregated across instances in Prometheus.
+ */
+public class MeterFilters {
+
+    @Produces
+    @Singleton
+    public MeterFilter latencyHistograms() {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                String name = id.getName();
+                if (name.equals("http.server.requests") || name.startsWith("unifor.")) {
+                    return DistributionStatisticConfig.builder()
+                            .percentilesHistogram(true)
+                            .build()
+                            .merge(config);
+                }
+                return config;
+            }
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package org.unifor.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+/**
+ * Reference data cache tuning (prefix {@code unifor.reference}).
+ */
+@ConfigMapping(prefix = "unifor.reference")
+public interface ReferenceDataConfig {
+
+    /**
+     * How long the serialized reference data is served before it is reloaded. Reference tables have no
+     * write endpoints (they change through migrations), so this bounds how long such a change goes unseen.
+     */
+    @WithDefault("5m")
+    Duration refreshInterval();
+}
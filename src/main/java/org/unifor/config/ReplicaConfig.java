@@ -0,0 +1,17 @@
+package org.unifor.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+/**
+ * Read replica routing (prefix {@code unifor.replica}). See {@link org.unifor.repository.ReplicaReads}.
+ */
+@ConfigMapping(prefix = "unifor.replica")
+public interface ReplicaConfig {
+
+    /**
+     * Runs {@code ReadFrom.REPLICA} reads on the {@code replica} datasource. Off, every query goes to the primary.
+     */
+    @WithDefault("false")
+    boolean enabled();
+}
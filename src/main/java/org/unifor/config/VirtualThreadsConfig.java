@@ -0,0 +1,34 @@
+package org.unifor.config;
+
+import io.smallrye.config.ConfigMapping;
+import io.smallrye.config.WithDefault;
+
+import java.time.Duration;
+
+/**
+ * Limits for REST resources running on virtual threads (prefix {@code unifor.virtual-threads}). See
+ * {@link org.unifor.api.VirtualThreadRequestLimit}.
+ */
+@ConfigMapping(prefix = "unifor.virtual-threads")
+public interface VirtualThreadsConfig {
+
+    /**
+     * Resource invocations running at once on virtual threads. The worker pool used to be the implicit limit;
+     * keep this close to the datasource pool size so requests wait here, cheaply, instead of timing out on
+     * connection acquisition.
+     */
+    @WithDefault("20")
+    int maxConcurrentRequests();
+
+    /**
+     * How long a request waits for a slot before it is answered with 503.
+     */
+    @WithDefault("30s")
+    Duration acquireTimeout();
+
+    /**
+     * Retry-After sent with that 503.
+     */
+    @WithDefault("5s")
+    Duration retryAfter();
+}
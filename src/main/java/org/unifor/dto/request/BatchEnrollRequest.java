@@ -0,0 +1,22 @@
+package org.unifor.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.unifor.service.student.BatchEnrollMode;
+
+import java.util.List;
+
+/**
+ * Multi-class enrollment. {@code mode} defaults to ALL_OR_NOTHING.
+ */
+public record BatchEnrollRequest(
+        @NotEmpty(message = "Informe ao menos uma turma")
+        @Size(max = 20, message = "No máximo 20 turmas por lote")
+        List<@NotNull(message = "ID da turma é obrigatório") Long> matrixClassIds,
+        BatchEnrollMode mode
+) {
+    public BatchEnrollMode modeOrDefault() {
+        return mode != null ? mode : BatchEnrollMode.ALL_OR_NOTHING;
+    }
+}
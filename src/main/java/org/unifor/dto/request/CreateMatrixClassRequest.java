@@ -22,5 +22,9 @@ public record CreateMatrixClassRequest(
 
         @NotNull(message = "Número máximo de alunos é obrigatório")
         @Min(value = 1, message = "Número máximo de alunos deve ser pelo menos 1")
-        Integer maxStudents
+        Integer maxStudents,
+
+        /** Optional: split seats across N bucket rows for hot classes (default 1 = no buckets). */
+        @Min(value = 1, message = "Número de grupos de vagas deve ser pelo menos 1")
+        Integer seatBuckets
 ) {}
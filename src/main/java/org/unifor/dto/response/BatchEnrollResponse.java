@@ -0,0 +1,14 @@
+package org.unifor.dto.response;
+
+import java.util.List;
+
+/**
+ * Response of a multi-class enrollment: one item per requested class, in request order.
+ */
+public record BatchEnrollResponse(int enrolled, List<Item> items) {
+
+    /**
+     * {@code code} is ENROLLED (with {@code enrollment}) or the conflict code that rejected the class.
+     */
+    public record Item(Long matrixClassId, String code, String message, EnrollmentResponse enrollment) {}
+}
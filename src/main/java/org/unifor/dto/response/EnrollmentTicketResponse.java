@@ -0,0 +1,14 @@
+package org.unifor.dto.response;
+
+/**
+ * A queued enroll request (202 response and ticket polling). {@code status} is QUEUED (with an approximate
+ * {@code position}), ENROLLED (with {@code enrollment}) or REJECTED (with {@code error}).
+ */
+public record EnrollmentTicketResponse(
+        String ticketId,
+        Long matrixClassId,
+        String status,
+        Long position,
+        EnrollmentResponse enrollment,
+        ErrorResponse error
+) {}
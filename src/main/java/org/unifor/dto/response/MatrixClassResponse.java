@@ -12,6 +12,7 @@ public record MatrixClassResponse(
         List<CourseDto> authorizedCourses,
         Integer maxStudents,
         long currentEnrollments,
+        int seatBuckets,
         Instant deletedAt,
         Instant createdAt
 ) {}
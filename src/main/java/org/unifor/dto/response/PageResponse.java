@@ -4,5 +4,11 @@ import java.util.List;
 
 /**
  * Generic wrapper for paginated list responses.
+ * {@code nextCursor} is passed back as {@code cursor} to fetch the next page; null on the last page.
  */
-public record PageResponse<T>(List<T> items, long total) {}
+public record PageResponse<T>(List<T> items, long total, String nextCursor) {
+
+    public PageResponse(List<T> items, long total) {
+        this(items, total, null);
+    }
+}
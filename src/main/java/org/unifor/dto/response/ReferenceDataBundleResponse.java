@@ -0,0 +1,13 @@
+package org.unifor.dto.response;
+
+import java.util.List;
+
+/**
+ * All "Add class" form dropdowns in one payload (GET /api/coordinator/reference/bundle).
+ */
+public record ReferenceDataBundleResponse(
+        List<SubjectDto> subjects,
+        List<ProfessorDto> professors,
+        List<TimeSlotDto> timeSlots,
+        List<CourseDto> courses
+) {}
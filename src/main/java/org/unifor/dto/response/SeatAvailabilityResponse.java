@@ -0,0 +1,9 @@
+package org.unifor.dto.response;
+
+/**
+ * One event of the seat availability stream: the class's available seats, 0 also when it left the active matrix.
+ */
+public record SeatAvailabilityResponse(
+        Long classId,
+        int availableSeats
+) {}
@@ -0,0 +1,16 @@
+package org.unifor.dto.response;
+
+import java.util.List;
+
+/**
+ * Preview of moving a class to another time slot (GET .../classes/{classId}/time-slot-impact).
+ * {@code conflict} is true when the move would be rejected with CONFLICT_SCHEDULE_CONFLICT; {@code students}
+ * lists the enrolled students it affects, each with their classes that overlap the new slot.
+ */
+public record TimeSlotImpactResponse(Long matrixClassId, Long timeSlotId, boolean conflict,
+                                     List<AffectedStudent> students) {
+
+    public record AffectedStudent(Long id, String name, List<ConflictingClass> conflictingClasses) {}
+
+    public record ConflictingClass(Long matrixClassId, SubjectDto subject, TimeSlotDto timeSlot) {}
+}
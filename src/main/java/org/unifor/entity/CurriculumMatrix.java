@@ -8,6 +8,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import org.hibernate.annotations.SQLRestriction;
 
 import java.time.Instant;
@@ -38,6 +39,11 @@ public class CurriculumMatrix extends PanacheEntity {
     @Column(name = "updated_at", nullable = false)
     public Instant updatedAt = Instant.now();
 
+    /** Optimistic lock: concurrent activations or edits of the same matrix fail instead of overwriting each other. */
+    @Version
+    @Column(nullable = false)
+    public long version;
+
     @OneToMany(mappedBy = "matrix")
     public List<MatrixClass> classes = new ArrayList<>();
 
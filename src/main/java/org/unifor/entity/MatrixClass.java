@@ -8,8 +8,11 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedAttributeNode;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import org.hibernate.annotations.SQLRestriction;
 
 import java.time.Instant;
@@ -19,8 +22,17 @@ import java.util.List;
 @Entity
 @Table(name = "matrix_classes")
 @SQLRestriction("deleted_at IS NULL")
+@NamedEntityGraph(name = MatrixClass.DETAIL_GRAPH, attributeNodes = {
+        @NamedAttributeNode("subject"),
+        @NamedAttributeNode("professor"),
+        @NamedAttributeNode("timeSlot"),
+        @NamedAttributeNode("authorizedCourses")
+})
 public class MatrixClass extends PanacheEntity {
 
+    /** Entity graph of the class detail response: subject, professor, time slot and authorized courses. */
+    public static final String DETAIL_GRAPH = "MatrixClass.detail";
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "matrix_id", nullable = false)
     public CurriculumMatrix matrix;
@@ -40,6 +52,16 @@ public class MatrixClass extends PanacheEntity {
     @Column(name = "max_students", nullable = false)
     public Integer maxStudents;
 
+    /**
+     * Seats taken, maintained only through {@code MatrixClassRepository.reserveSeat} (never written by dirty checking).
+     */
+    @Column(name = "enrolled_count", nullable = false, insertable = false, updatable = false)
+    public Integer enrolledCount = 0;
+
+    /** Number of seat buckets (matrix_class_seat_buckets rows); 1 = no buckets, seats tracked in enrolledCount. */
+    @Column(name = "seat_buckets", nullable = false)
+    public Integer seatBuckets = 1;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "matrix_class_authorized_courses",
@@ -57,6 +79,11 @@ public class MatrixClass extends PanacheEntity {
     @Column(name = "updated_at", nullable = false)
     public Instant updatedAt = Instant.now();
 
+    /** Optimistic lock; exposed as the ETag of the class. Seat reservations do not change it. */
+    @Version
+    @Column(nullable = false)
+    public long version;
+
     @OneToMany(mappedBy = "matrixClass")
     public List<Enrollment> enrollments = new ArrayList<>();
 
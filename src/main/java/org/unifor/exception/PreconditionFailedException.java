@@ -0,0 +1,14 @@
+package org.unifor.exception;
+
+import java.util.Map;
+
+public class PreconditionFailedException extends UniforException {
+
+    public PreconditionFailedException(String message) {
+        super("PRECONDITION_FAILED", message);
+    }
+
+    public PreconditionFailedException(String message, Map<String, Object> details) {
+        super("PRECONDITION_FAILED", message, details);
+    }
+}
@@ -0,0 +1,20 @@
+package org.unifor.exception;
+
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+import org.unifor.dto.response.ErrorResponse;
+
+@Provider
+public class PreconditionFailedExceptionMapper implements ExceptionMapper<PreconditionFailedException> {
+
+    @Override
+    public Response toResponse(PreconditionFailedException exception) {
+        var response = new ErrorResponse(
+                exception.getErrorCode(),
+                exception.getMessage(),
+                exception.getDetails()
+        );
+        return Response.status(Response.Status.PRECONDITION_FAILED).entity(response).build();
+    }
+}
@@ -0,0 +1,22 @@
+package org.unifor.exception;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * The request was not accepted because the server is at capacity; the client should retry after
+ * {@link #getRetryAfter()}.
+ */
+public class ServiceUnavailableException extends UniforException {
+
+    private final Duration retryAfter;
+
+    public ServiceUnavailableException(String errorCode, String message, Duration retryAfter) {
+        super(errorCode, message, Map.of("retryAfterSeconds", retryAfter.toSeconds()));
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,24 @@
+package org.unifor.exception;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.ext.ExceptionMapper;
+import jakarta.ws.rs.ext.Provider;
+import org.unifor.dto.response.ErrorResponse;
+
+@Provider
+public class ServiceUnavailableExceptionMapper implements ExceptionMapper<ServiceUnavailableException> {
+
+    @Override
+    public Response toResponse(ServiceUnavailableException exception) {
+        var response = new ErrorResponse(
+                exception.getErrorCode(),
+                exception.getMessage(),
+                exception.getDetails()
+        );
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, exception.getRetryAfter().toSeconds())
+                .entity(response)
+                .build();
+    }
+}
@@ -0,0 +1,172 @@
+package org.unifor.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import org.hibernate.query.NativeQuery;
+
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Read queries behind GET /api/student/classes/available (PRD 3.7a).
+ * Class metadata of the active matrix is loaded in bulk for the active matrix catalog;
+ * the per-request parts (seat counts, the student's enrollments) are single queries over
+ * plain columns, so no entity is loaded into the persistence context.
+ */
+@ApplicationScoped
+public class AvailableClassRepository {
+
+    private final EntityManager entityManager;
+    private final ReplicaReads replicaReads;
+
+    public AvailableClassRepository(EntityManager entityManager, ReplicaReads replicaReads) {
+        this.entityManager = entityManager;
+        this.replicaReads = replicaReads;
+    }
+
+    /**
+     * Non-deleted classes of the active matrix with subject, professor and time slot, ordered by id.
+     * Empty when no matrix is active.
+     */
+    public List<CatalogClassRow> findActiveMatrixClasses() {
+        NativeQuery<?> query = entityManager.createNativeQuery("""
+                        SELECT mc.id AS id, m.id AS matrix_id, mc.max_students AS max_students,
+                               s.id AS subject_id, s.name AS subject_name,
+                               p.id AS professor_id, p.name AS professor_name,
+                               ts.id AS time_slot_id, ts.day_of_week AS day_of_week,
+                               ts.start_time AS start_time, ts.end_time AS end_time, ts.code AS time_slot_code
+                        FROM matrix_classes mc
+                        JOIN curriculum_matrices m ON m.id = mc.matrix_id
+                        JOIN subjects s ON s.id = mc.subject_id
+                        JOIN professors p ON p.id = mc.professor_id
+                        JOIN time_slots ts ON ts.id = mc.time_slot_id
+                        WHERE m.active = true AND m.deleted_at IS NULL AND mc.deleted_at IS NULL
+                        ORDER BY mc.id
+                        """)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("matrix_id", Long.class)
+                .addScalar("max_students", Integer.class)
+                .addScalar("subject_id", Long.class)
+                .addScalar("subject_name", String.class)
+                .addScalar("professor_id", Long.class)
+                .addScalar("professor_name", String.class)
+                .addScalar("time_slot_id", Long.class)
+                .addScalar("day_of_week", String.class)
+                .addScalar("start_time", LocalTime.class)
+                .addScalar("end_time", LocalTime.class)
+                .addScalar("time_slot_code", String.class);
+
+        return query.getResultList().stream()
+                .map(r -> (Object[]) r)
+                .map(r -> new CatalogClassRow(
+                        (Long) r[0],
+                        (Long) r[1],
+                        (Integer) r[2],
+                        (Long) r[3],
+                        (String) r[4],
+                        (Long) r[5],
+                        (String) r[6],
+                        (Long) r[7],
+                        (String) r[8],
+                        (LocalTime) r[9],
+                        (LocalTime) r[10],
+                        (String) r[11]))
+                .toList();
+    }
+
+    /**
+     * Authorized course ids per class, for the non-deleted classes of the active matrix.
+     */
+    public Map<Long, List<Long>> findActiveMatrixAuthorizedCourses() {
+        NativeQuery<?> query = entityManager.createNativeQuery("""
+                        SELECT ac.matrix_class_id AS matrix_class_id, ac.course_id AS course_id
+                        FROM matrix_class_authorized_courses ac
+                        JOIN matrix_classes mc ON mc.id = ac.matrix_class_id
+                        JOIN curriculum_matrices m ON m.id = mc.matrix_id
+                        WHERE m.active = true AND m.deleted_at IS NULL AND mc.deleted_at IS NULL
+                        """)
+                .unwrap(NativeQuery.class)
+                .addScalar("matrix_class_id", Long.class)
+                .addScalar("course_id", Long.class);
+
+        Map<Long, List<Long>> coursesByClass = new HashMap<>();
+        for (Object row : query.getResultList()) {
+            Object[] r = (Object[]) row;
+            coursesByClass.computeIfAbsent((Long) r[0], id -> new ArrayList<>()).add((Long) r[1]);
+        }
+        return coursesByClass;
+    }
+
+    /**
+     * The student's enrollments in non-deleted classes (VE-03).
+     */
+    public List<EnrolledSlotRow> findEnrolledSlots(Long studentId, ReadFrom from) {
+        return replicaReads.query(from, entityManager -> findEnrolledSlots(entityManager, studentId));
+    }
+
+    private static List<EnrolledSlotRow> findEnrolledSlots(EntityManager entityManager, Long studentId) {
+        NativeQuery<?> query = entityManager.createNativeQuery("""
+                        SELECT mc.id AS matrix_class_id, mc.subject_id AS subject_id,
+                               ts.day_of_week AS day_of_week, ts.start_time AS start_time, ts.end_time AS end_time,
+                               ts.code AS code
+                        FROM enrollments e
+                        JOIN matrix_classes mc ON mc.id = e.matrix_class_id AND mc.deleted_at IS NULL
+                        JOIN time_slots ts ON ts.id = mc.time_slot_id
+                        WHERE e.student_id = :studentId
+                        """)
+                .unwrap(NativeQuery.class)
+                .addScalar("matrix_class_id", Long.class)
+                .addScalar("subject_id", Long.class)
+                .addScalar("day_of_week", String.class)
+                .addScalar("start_time", LocalTime.class)
+                .addScalar("end_time", LocalTime.class)
+                .addScalar("code", String.class);
+        query.setParameter("studentId", studentId);
+
+        return query.getResultList().stream()
+                .map(r -> (Object[]) r)
+                .map(r -> new EnrolledSlotRow(
+                        (Long) r[0],
+                        (Long) r[1],
+                        (String) r[2],
+                        (LocalTime) r[3],
+                        (LocalTime) r[4],
+                        (String) r[5]))
+                .toList();
+    }
+
+    /**
+     * Live reserved seats (enrolled_count, or the sum of the seat buckets) of the given classes.
+     * Soft-deleted classes are left out of the result.
+     */
+    public Map<Long, Long> findReservedSeats(Collection<Long> matrixClassIds, ReadFrom from) {
+        if (matrixClassIds.isEmpty()) {
+            return Map.of();
+        }
+        return replicaReads.query(from, entityManager -> findReservedSeats(entityManager, matrixClassIds));
+    }
+
+    private static Map<Long, Long> findReservedSeats(EntityManager entityManager, Collection<Long> matrixClassIds) {
+        NativeQuery<?> query = entityManager.createNativeQuery("""
+                        SELECT mc.id AS id,
+                               CASE WHEN mc.seat_buckets > 1
+                                    THEN (SELECT COALESCE(SUM(b.enrolled_count), 0) FROM matrix_class_seat_buckets b
+                                          WHERE b.matrix_class_id = mc.id)
+                                    ELSE mc.enrolled_count END AS reserved_seats
+                        FROM matrix_classes mc
+                        WHERE mc.id IN (:ids) AND mc.deleted_at IS NULL
+                        """)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("reserved_seats", Long.class);
+        query.setParameter("ids", matrixClassIds);
+
+        Map<Long, Long> reserved = new HashMap<>();
+        for (Object row : query.getResultList()) {
+            Object[] r = (Object[]) row;
+            reserved.put((Long) r[0], (Long) r[1]);
+        }
+        return reserved;
+    }
+}
@@ -0,0 +1,25 @@
+package org.unifor.repository;
+
+import java.time.LocalTime;
+
+/**
+ * Flat projection of a class the student can enroll in, as returned by {@link AvailableClassRepository}.
+ */
+public record AvailableClassRow(
+        Long id,
+        int maxStudents,
+        long reservedSeats,
+        Long subjectId,
+        String subjectName,
+        Long professorId,
+        String professorName,
+        Long timeSlotId,
+        String dayOfWeek,
+        LocalTime startTime,
+        LocalTime endTime,
+        String timeSlotCode
+) {
+    public int availableSeats() {
+        return (int) (maxStudents - reservedSeats);
+    }
+}
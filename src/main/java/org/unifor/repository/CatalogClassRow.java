@@ -0,0 +1,23 @@
+package org.unifor.repository;
+
+import java.time.LocalTime;
+
+/**
+ * Flat projection of a class of the active matrix, as loaded by {@link AvailableClassRepository}
+ * to build the active matrix catalog. Seat counts are not part of it (they stay live).
+ */
+public record CatalogClassRow(
+        Long id,
+        Long matrixId,
+        int maxStudents,
+        Long subjectId,
+        String subjectName,
+        Long professorId,
+        String professorName,
+        Long timeSlotId,
+        String dayOfWeek,
+        LocalTime startTime,
+        LocalTime endTime,
+        String timeSlotCode
+) {
+}
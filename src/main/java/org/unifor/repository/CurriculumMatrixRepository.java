@@ -3,15 +3,45 @@ package org.unifor.repository;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.unifor.entity.CurriculumMatrix;
-import org.unifor.entity.User;
 
 import java.util.List;
+import java.util.Optional;
 
 @ApplicationScoped
 public class CurriculumMatrixRepository implements PanacheRepository<CurriculumMatrix> {
 
-    public List<CurriculumMatrix> findByCoordinator(User coordinator) {
-        return list("coordinator", coordinator);
+    private final ReplicaReads replicaReads;
+
+    public CurriculumMatrixRepository(ReplicaReads replicaReads) {
+        this.replicaReads = replicaReads;
+    }
+
+    /**
+     * Summaries of the coordinator's matrices, ordered by id. Selected straight into {@link MatrixSummaryRow},
+     * with the class count as a subquery, so neither matrices nor classes are loaded as entities.
+     */
+    public List<MatrixSummaryRow> findSummariesByCoordinatorId(Long coordinatorId, ReadFrom from) {
+        return replicaReads.query(from, entityManager -> entityManager.createQuery("""
+                        select new org.unifor.repository.MatrixSummaryRow(
+                            m.id, m.name, m.active,
+                            (select count(mc) from MatrixClass mc where mc.matrix = m),
+                            m.createdAt)
+                        from CurriculumMatrix m
+                        where m.coordinator.id = :coordinatorId
+                        order by m.id""", MatrixSummaryRow.class)
+                .setParameter("coordinatorId", coordinatorId)
+                .getResultList());
+    }
+
+    /**
+     * Coordinator id of the matrix, without loading it. Empty when the matrix does not exist (or is soft-deleted).
+     */
+    public Optional<Long> findCoordinatorId(Long matrixId) {
+        return getEntityManager().createQuery(
+                        "select m.coordinator.id from CurriculumMatrix m where m.id = :matrixId", Long.class)
+                .setParameter("matrixId", matrixId)
+                .getResultStream()
+                .findFirst();
     }
 
     public CurriculumMatrix findActive() {
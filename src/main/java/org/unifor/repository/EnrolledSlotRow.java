@@ -0,0 +1,16 @@
+package org.unifor.repository;
+
+import java.time.LocalTime;
+
+/**
+ * A student's enrollment in a non-deleted class: class, subject and time slot (EN-06, EN-08).
+ */
+public record EnrolledSlotRow(
+        Long matrixClassId,
+        Long subjectId,
+        String dayOfWeek,
+        LocalTime startTime,
+        LocalTime endTime,
+        String timeSlotCode
+) {
+}
@@ -2,24 +2,78 @@ package org.unifor.repository;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.TypedQuery;
 import org.unifor.entity.Enrollment;
 import org.unifor.entity.MatrixClass;
-import org.unifor.entity.User;
 
 import java.util.List;
 
 @ApplicationScoped
 public class EnrollmentRepository implements PanacheRepository<Enrollment> {
 
-    public List<Enrollment> findByStudent(User student) {
-        return list("student", student);
+    private final ReplicaReads replicaReads;
+
+    public EnrollmentRepository(ReplicaReads replicaReads) {
+        this.replicaReads = replicaReads;
+    }
+
+    public List<Enrollment> findByStudentId(Long studentId) {
+        return list("student.id", studentId);
+    }
+
+    /**
+     * Enrollments of the student in classes that are not soft-deleted, ordered by id (enrollment list view).
+     * Selected straight into {@link EnrollmentRow}: no entity is loaded into the persistence context.
+     */
+    public List<EnrollmentRow> findRowsByStudentId(Long studentId, ReadFrom from) {
+        return replicaReads.query(from, entityManager -> entityManager.createQuery("""
+                        select new org.unifor.repository.EnrollmentRow(
+                            e.id, mc.id, s.id, s.name, p.id, p.name,
+                            ts.id, ts.dayOfWeek, ts.startTime, ts.endTime, ts.code, e.enrolledAt)
+                        from Enrollment e
+                        join e.matrixClass mc
+                        join mc.subject s
+                        join mc.professor p
+                        join mc.timeSlot ts
+                        where e.student.id = :studentId and mc.deletedAt is null
+                        order by e.id""", EnrollmentRow.class)
+                .setParameter("studentId", studentId)
+                .getResultList());
+    }
+
+    /**
+     * Students enrolled in the class whose other classes (not soft-deleted) have [start, end) intersecting the
+     * time slot's, on any day. One row per student and class, by student then class; callers keep the rows that
+     * really overlap (a common day, meeting patterns included). One query, whatever the number of enrollments.
+     */
+    public List<ScheduleConflictRow> findTimeOverlaps(Long matrixClassId, Long timeSlotId) {
+        return getEntityManager().createQuery("""
+                        select new org.unifor.repository.ScheduleConflictRow(
+                            st.id, st.name, omc.id, s.id, s.name,
+                            ots.id, ots.dayOfWeek, ots.startTime, ots.endTime, ots.code)
+                        from Enrollment e
+                        join e.student st
+                        join Enrollment o on o.student = st
+                        join o.matrixClass omc
+                        join omc.subject s
+                        join omc.timeSlot ots
+                        join TimeSlot nts on nts.id = :timeSlotId
+                        where e.matrixClass.id = :matrixClassId
+                          and omc.id <> :matrixClassId
+                          and omc.deletedAt is null
+                          and ots.startTime < nts.endTime
+                          and nts.startTime < ots.endTime
+                        order by st.id, omc.id""", ScheduleConflictRow.class)
+                .setParameter("matrixClassId", matrixClassId)
+                .setParameter("timeSlotId", timeSlotId)
+                .getResultList();
     }
 
     public long countByMatrixClass(MatrixClass matrixClass) {
         return count("matrixClass", matrixClass);
     }
 
-    public boolean existsByMatrixClassAndStudent(MatrixClass matrixClass, User student) {
-        return count("matrixClass = ?1 and student = ?2", matrixClass, student) > 0;
+    public boolean existsByMatrixClassAndStudentId(MatrixClass matrixClass, Long studentId) {
+        return count("matrixClass = ?1 and student.id = ?2", matrixClass, studentId) > 0;
     }
 }
@@ -0,0 +1,36 @@
+package org.unifor.repository;
+
+import org.unifor.entity.Enrollment;
+import org.unifor.entity.MatrixClass;
+
+import java.time.Instant;
+import java.time.LocalTime;
+
+/**
+ * Flat projection of an enrollment with its class, subject, professor and time slot,
+ * as returned by {@link EnrollmentRepository#findRowsByStudentId}.
+ */
+public record EnrollmentRow(
+        Long id,
+        Long matrixClassId,
+        Long subjectId,
+        String subjectName,
+        Long professorId,
+        String professorName,
+        Long timeSlotId,
+        String dayOfWeek,
+        LocalTime startTime,
+        LocalTime endTime,
+        String timeSlotCode,
+        Instant enrolledAt
+) {
+    /**
+     * Row of a just-persisted enrollment. Loads the class associations, so call it inside the transaction.
+     */
+    public static EnrollmentRow of(Enrollment enrollment) {
+        MatrixClass mc = enrollment.matrixClass;
+        return new EnrollmentRow(enrollment.id, mc.id, mc.subject.id, mc.subject.name,
+                mc.professor.id, mc.professor.name, mc.timeSlot.id, mc.timeSlot.dayOfWeek,
+                mc.timeSlot.startTime, mc.timeSlot.endTime, mc.timeSlot.code, enrollment.enrolledAt);
+    }
+}
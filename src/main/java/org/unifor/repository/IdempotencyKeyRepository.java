@@ -0,0 +1,83 @@
+package org.unifor.repository;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stored responses of enroll requests sent with an Idempotency-Key, by student and key. Entries older than
+ * the given time-to-live count as absent.
+ */
+@ApplicationScoped
+public class IdempotencyKeyRepository {
+
+    private final EntityManager entityManager;
+
+    public IdempotencyKeyRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public Optional<IdempotencyKeyRow> find(Long studentId, String key, Duration ttl) {
+        List<?> rows = entityManager.createNativeQuery("""
+                        SELECT matrix_class_id, status, body
+                        FROM enrollment_idempotency_keys
+                        WHERE student_id = ?1 AND idempotency_key = ?2
+                          AND created_at > now() - make_interval(secs => ?3)
+                        """)
+                .setParameter(1, studentId)
+                .setParameter(2, key)
+                .setParameter(3, seconds(ttl))
+                .getResultList();
+        return rows.stream()
+                .map(r -> (Object[]) r)
+                .map(r -> new IdempotencyKeyRow(((Number) r[0]).longValue(), ((Number) r[1]).intValue(), (String) r[2]))
+                .findFirst();
+    }
+
+    /**
+     * Stores the response unless the key already has one that has not expired; the first response wins.
+     *
+     * @return false if the key already had a response
+     */
+    public boolean save(Long studentId, String key, IdempotencyKeyRow row, Duration ttl) {
+        return entityManager.createNativeQuery("""
+                        INSERT INTO enrollment_idempotency_keys (student_id, idempotency_key, matrix_class_id, status, body)
+                        VALUES (?1, ?2, ?3, ?4, ?5)
+                        ON CONFLICT (student_id, idempotency_key) DO UPDATE
+                        SET matrix_class_id = EXCLUDED.matrix_class_id, status = EXCLUDED.status,
+                            body = EXCLUDED.body, created_at = now()
+                        WHERE enrollment_idempotency_keys.created_at <= now() - make_interval(secs => ?6)
+                        """)
+                .setParameter(1, studentId)
+                .setParameter(2, key)
+                .setParameter(3, row.matrixClassId())
+                .setParameter(4, row.status())
+                .setParameter(5, row.body())
+                .setParameter(6, seconds(ttl))
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * Deletes up to {@code limit} expired entries.
+     *
+     * @return the number deleted
+     */
+    public int deleteExpired(Duration ttl, int limit) {
+        return entityManager.createNativeQuery("""
+                        DELETE FROM enrollment_idempotency_keys
+                        WHERE ctid IN (SELECT ctid FROM enrollment_idempotency_keys
+                                       WHERE created_at <= now() - make_interval(secs => ?1)
+                                       LIMIT ?2)
+                        """)
+                .setParameter(1, seconds(ttl))
+                .setParameter(2, limit)
+                .executeUpdate();
+    }
+
+    private static double seconds(Duration ttl) {
+        return ttl.toMillis() / 1000.0;
+    }
+}
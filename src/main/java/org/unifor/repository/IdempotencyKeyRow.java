@@ -0,0 +1,12 @@
+package org.unifor.repository;
+
+/**
+ * Stored response of an enroll request sent with an Idempotency-Key: the class it was for, the HTTP status
+ * and the JSON body.
+ */
+public record IdempotencyKeyRow(
+        Long matrixClassId,
+        int status,
+        String body
+) {
+}
@@ -0,0 +1,10 @@
+package org.unifor.repository;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated query: the rows, the total matching the filters (ignoring the keyset)
+ * and the keyset of the last row when more rows follow (null on the last page).
+ */
+public record KeysetPage<T>(List<T> items, long total, MatrixClassSearch.Keyset next) {
+}
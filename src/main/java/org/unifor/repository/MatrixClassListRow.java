@@ -0,0 +1,32 @@
+package org.unifor.repository;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Flat projection of one row of the coordinator class listing, as returned by {@link MatrixClassRepository#search}:
+ * the class columns with subject, professor and time slot, its authorized courses and the seats taken
+ * according to the seat counters.
+ */
+public record MatrixClassListRow(
+        Long id,
+        Long subjectId,
+        String subjectName,
+        Long professorId,
+        String professorName,
+        Long timeSlotId,
+        String dayOfWeek,
+        LocalTime startTime,
+        LocalTime endTime,
+        String timeSlotCode,
+        List<AuthorizedCourse> authorizedCourses,
+        int maxStudents,
+        long reservedSeats,
+        int seatBuckets,
+        Instant deletedAt,
+        Instant createdAt
+) {
+    public record AuthorizedCourse(Long id, String name) {
+    }
+}
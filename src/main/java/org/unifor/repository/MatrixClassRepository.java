@@ -2,19 +2,217 @@ package org.unifor.repository;
 
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.LockModeType;
+import org.hibernate.query.NativeQuery;
 import org.unifor.entity.CurriculumMatrix;
 import org.unifor.entity.MatrixClass;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @ApplicationScoped
 public class MatrixClassRepository implements PanacheRepository<MatrixClass> {
 
+    private final ReplicaReads replicaReads;
+
+    public MatrixClassRepository(ReplicaReads replicaReads) {
+        this.replicaReads = replicaReads;
+    }
+
     public List<MatrixClass> findByMatrix(CurriculumMatrix matrix) {
         return list("matrix", matrix);
     }
 
+    /**
+     * One page of the classes of a matrix, filtered, sorted and paginated in SQL (VM-01 to VM-03).
+     * Runs a COUNT over the filters, the page query and one query for the authorized courses of the page,
+     * whatever the page size. Both read plain columns into {@link MatrixClassListRow}: subject, professor,
+     * time slot and the seats taken (grouped over the seat buckets of the matrix) are joined in, and no
+     * entity is loaded into the persistence context. Rows are read with native SQL, so soft-deleted classes
+     * can be returned when {@code includeDeleted} is set (the entity's {@code @SQLRestriction} does not
+     * apply to native SQL).
+     */
+    public KeysetPage<MatrixClassListRow> search(MatrixClassSearch search, ReadFrom from) {
+        return replicaReads.query(from, entityManager -> search(entityManager, search));
+    }
+
+    @SuppressWarnings("unchecked")
+    private KeysetPage<MatrixClassListRow> search(EntityManager entityManager, MatrixClassSearch search) {
+        Map<String, Object> params = new HashMap<>();
+        boolean periodFilter = search.startTimeFrom() != null || search.startTimeTo() != null;
+        var where = new StringBuilder(" WHERE mc.matrix_id = :matrixId");
+        params.put("matrixId", search.matrixId());
+        if (!search.includeDeleted()) {
+            where.append(" AND mc.deleted_at IS NULL");
+        }
+        if (search.startTimeFrom() != null) {
+            where.append(" AND ts.start_time >= :startTimeFrom");
+            params.put("startTimeFrom", search.startTimeFrom());
+        }
+        if (search.startTimeTo() != null) {
+            where.append(" AND ts.start_time < :startTimeTo");
+            params.put("startTimeTo", search.startTimeTo());
+        }
+        if (search.authorizedCourseId() != null) {
+            where.append(" AND EXISTS (SELECT 1 FROM matrix_class_authorized_courses ac"
+                    + " WHERE ac.matrix_class_id = mc.id AND ac.course_id = :courseId)");
+            params.put("courseId", search.authorizedCourseId());
+        }
+        if (search.maxStudentsMin() != null) {
+            where.append(" AND mc.max_students >= :maxStudentsMin");
+            params.put("maxStudentsMin", search.maxStudentsMin());
+        }
+        if (search.maxStudentsMax() != null) {
+            where.append(" AND mc.max_students <= :maxStudentsMax");
+            params.put("maxStudentsMax", search.maxStudentsMax());
+        }
+
+        String countFrom = periodFilter
+                ? " FROM matrix_classes mc JOIN time_slots ts ON ts.id = mc.time_slot_id"
+                : " FROM matrix_classes mc";
+        var countQuery = entityManager.createNativeQuery("SELECT count(*)" + countFrom + where);
+        params.forEach(countQuery::setParameter);
+        long total = ((Number) countQuery.getSingleResult()).longValue();
+
+        String column = search.sort().column();
+        String direction = search.descending() ? " DESC" : " ASC";
+        var keyset = new StringBuilder();
+        Map<String, Object> pageParams = new HashMap<>(params);
+        if (search.after() != null) {
+            String comparison = search.descending() ? " < " : " > ";
+            if (column == null) {
+                keyset.append(" AND mc.id").append(comparison).append(":afterId");
+            } else {
+                keyset.append(" AND (").append(column).append(", mc.id)").append(comparison)
+                        .append("(:afterValue, :afterId)");
+                pageParams.put("afterValue", search.after().value());
+            }
+            pageParams.put("afterId", search.after().id());
+        }
+        String orderBy = column == null
+                ? " ORDER BY mc.id" + direction
+                : " ORDER BY " + column + direction + ", mc.id" + direction;
+
+        NativeQuery<Object[]> pageQuery = entityManager.createNativeQuery("""
+                        SELECT mc.id AS id, s.id AS subject_id, s.name AS subject_name,
+                               p.id AS professor_id, p.name AS professor_name,
+                               ts.id AS time_slot_id, ts.day_of_week AS day_of_week,
+                               ts.start_time AS start_time, ts.end_time AS end_time, ts.code AS time_slot_code,
+                               mc.max_students AS max_students,
+                               CASE WHEN mc.seat_buckets > 1 THEN COALESCE(b.reserved_seats, 0)
+                                    ELSE mc.enrolled_count END AS reserved_seats,
+                               mc.seat_buckets AS seat_buckets, mc.deleted_at AS deleted_at, mc.created_at AS created_at
+                        FROM matrix_classes mc
+                        JOIN subjects s ON s.id = mc.subject_id
+                        JOIN professors p ON p.id = mc.professor_id
+                        JOIN time_slots ts ON ts.id = mc.time_slot_id
+                        LEFT JOIN (SELECT sb.matrix_class_id, SUM(sb.enrolled_count) AS reserved_seats
+                                   FROM matrix_class_seat_buckets sb
+                                   JOIN matrix_classes bmc ON bmc.id = sb.matrix_class_id
+                                   WHERE bmc.matrix_id = :matrixId
+                                   GROUP BY sb.matrix_class_id) b ON b.matrix_class_id = mc.id
+                        """ + where + keyset + orderBy + (search.limit() == null ? "" : " LIMIT :limit"))
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .addScalar("subject_id", Long.class)
+                .addScalar("subject_name", String.class)
+                .addScalar("professor_id", Long.class)
+                .addScalar("professor_name", String.class)
+                .addScalar("time_slot_id", Long.class)
+                .addScalar("day_of_week", String.class)
+                .addScalar("start_time", LocalTime.class)
+                .addScalar("end_time", LocalTime.class)
+                .addScalar("time_slot_code", String.class)
+                .addScalar("max_students", Integer.class)
+                .addScalar("reserved_seats", Long.class)
+                .addScalar("seat_buckets", Integer.class)
+                .addScalar("deleted_at", Instant.class)
+                .addScalar("created_at", Instant.class);
+        pageParams.forEach(pageQuery::setParameter);
+        if (search.limit() != null) {
+            pageQuery.setParameter("limit", search.limit() + 1);
+        }
+        List<Object[]> rows = pageQuery.getResultList();
+
+        boolean more = search.limit() != null && rows.size() > search.limit();
+        List<Object[]> pageRows = more ? rows.subList(0, search.limit()) : rows;
+        Map<Long, List<MatrixClassListRow.AuthorizedCourse>> authorizedCourses = findAuthorizedCourses(entityManager,
+                pageRows.stream().map(r -> (Long) r[0]).toList());
+        List<MatrixClassListRow> items = pageRows.stream()
+                .map(r -> new MatrixClassListRow(
+                        (Long) r[0],
+                        (Long) r[1],
+                        (String) r[2],
+                        (Long) r[3],
+                        (String) r[4],
+                        (Long) r[5],
+                        (String) r[6],
+                        (LocalTime) r[7],
+                        (LocalTime) r[8],
+                        (String) r[9],
+                        authorizedCourses.getOrDefault((Long) r[0], List.of()),
+                        (Integer) r[10],
+                        (Long) r[11],
+                        (Integer) r[12],
+                        (Instant) r[13],
+                        (Instant) r[14]))
+                .toList();
+
+        if (!more) {
+            return new KeysetPage<>(items, total, null);
+        }
+        return new KeysetPage<>(items, total,
+                MatrixClassSearch.Keyset.of(search.sort(), items.get(items.size() - 1)));
+    }
+
+    /**
+     * Authorized courses (id and name) of the given classes, soft-deleted ones included, ordered by course id,
+     * in one query.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Long, List<MatrixClassListRow.AuthorizedCourse>> findAuthorizedCourses(
+            EntityManager entityManager, Collection<Long> matrixClassIds) {
+        if (matrixClassIds.isEmpty()) {
+            return Map.of();
+        }
+        NativeQuery<Object[]> query = entityManager.createNativeQuery("""
+                        SELECT ac.matrix_class_id AS matrix_class_id, c.id AS course_id, c.name AS course_name
+                        FROM matrix_class_authorized_courses ac
+                        JOIN courses c ON c.id = ac.course_id
+                        WHERE ac.matrix_class_id IN (:ids)
+                        ORDER BY ac.matrix_class_id, c.id
+                        """)
+                .unwrap(NativeQuery.class)
+                .addScalar("matrix_class_id", Long.class)
+                .addScalar("course_id", Long.class)
+                .addScalar("course_name", String.class);
+        query.setParameter("ids", matrixClassIds);
+
+        Map<Long, List<MatrixClassListRow.AuthorizedCourse>> courses = new HashMap<>();
+        for (Object[] row : query.getResultList()) {
+            courses.computeIfAbsent((Long) row[0], id -> new ArrayList<>())
+                    .add(new MatrixClassListRow.AuthorizedCourse((Long) row[1], (String) row[2]));
+        }
+        return courses;
+    }
+
+    /**
+     * Loads a class with subject, professor, time slot and authorized courses in one statement
+     * ({@link MatrixClass#DETAIL_GRAPH}). Null when missing or soft-deleted.
+     */
+    public MatrixClass findByIdWithDetails(Long id) {
+        var entityManager = getEntityManager();
+        return entityManager.find(MatrixClass.class, id,
+                Map.of("jakarta.persistence.fetchgraph", entityManager.getEntityGraph(MatrixClass.DETAIL_GRAPH)));
+    }
+
     /**
      * Loads MatrixClass with PESSIMISTIC_WRITE (SELECT FOR UPDATE).
      * Used during enrollment to prevent overbooking (Phase 5, CC-01, CC-02).
@@ -23,4 +221,130 @@ public class MatrixClassRepository implements PanacheRepository<MatrixClass> {
     public MatrixClass findByIdForUpdate(Long id) {
         return find("id", id).withLock(LockModeType.PESSIMISTIC_WRITE).firstResult();
     }
+
+    /**
+     * Sets Postgres {@code lock_timeout} for the rest of the current transaction ({@code SET LOCAL}): a lock not
+     * granted within {@code timeout} fails the statement with SQLSTATE 55P03 instead of waiting indefinitely.
+     */
+    public void setLockTimeout(Duration timeout) {
+        getEntityManager().createNativeQuery("SELECT set_config('lock_timeout', ?1, true)")
+                .setParameter(1, timeout.toMillis() + "ms")
+                .getSingleResult();
+    }
+
+    /**
+     * Locks the given classes (SELECT FOR UPDATE) in ascending id order, in one statement, so that
+     * concurrent multi-class enrollments always acquire their row locks in the same order and cannot deadlock.
+     * Soft-deleted and missing ids are skipped. Locks are held until the transaction commits.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Long> lockInIdOrder(Collection<Long> ids) {
+        return getEntityManager().createNativeQuery(
+                        "SELECT id FROM matrix_classes WHERE id IN (:ids) AND deleted_at IS NULL ORDER BY id FOR UPDATE",
+                        Long.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    /**
+     * Non-deleted classes among the given ids, with time slot and authorized courses fetched, for enrollment checks.
+     */
+    public List<MatrixClass> findForEnrollment(Collection<Long> ids) {
+        return list("""
+                select distinct mc from MatrixClass mc
+                join fetch mc.timeSlot
+                left join fetch mc.authorizedCourses
+                where mc.id in ?1""", ids);
+    }
+
+    /**
+     * Reserves one seat: {@code enrolled_count + 1} only while below max_students.
+     * Single conditional UPDATE; the row lock it takes is held only until commit.
+     *
+     * @return false when the class is full (or soft-deleted)
+     */
+    public boolean reserveSeat(Long id) {
+        int updated = getEntityManager().createNativeQuery(
+                        "UPDATE matrix_classes SET enrolled_count = enrolled_count + 1 " +
+                                "WHERE id = ?1 AND deleted_at IS NULL AND enrolled_count < max_students")
+                .setParameter(1, id)
+                .executeUpdate();
+        return updated == 1;
+    }
+
+    /**
+     * Creates the seat buckets of a class, splitting maxStudents as evenly as possible
+     * (the first {@code maxStudents % buckets} buckets get one extra seat).
+     */
+    public void createSeatBuckets(Long id, int maxStudents, int buckets) {
+        getEntityManager().createNativeQuery(
+                        "INSERT INTO matrix_class_seat_buckets (matrix_class_id, bucket_no, capacity) " +
+                                "SELECT ?1, g, ?2 / ?3 + CASE WHEN g < ?2 % ?3 THEN 1 ELSE 0 END " +
+                                "FROM generate_series(0, ?3 - 1) g")
+                .setParameter(1, id)
+                .setParameter(2, maxStudents)
+                .setParameter(3, buckets)
+                .executeUpdate();
+    }
+
+    /**
+     * Claims one seat from the buckets of a class, starting at {@code startBucket} and wrapping around.
+     * First pass skips buckets locked by concurrent enrollments (SKIP LOCKED); if none is free that way,
+     * falls back to waiting on each non-full bucket in order.
+     * <p>
+     * The bucket UPDATEs do not touch the class row, so the class row is first locked FOR SHARE while not
+     * soft-deleted. A concurrent soft delete then either waits for this enrollment to commit (and sees it in its
+     * enrollment check) or commits first, and this reservation finds no live class.
+     *
+     * @return false when every bucket is full (or the class is soft-deleted)
+     */
+    public boolean reserveBucketSeat(Long id, int buckets, int startBucket) {
+        List<?> live = getEntityManager().createNativeQuery(
+                        "SELECT 1 FROM matrix_classes WHERE id = ?1 AND deleted_at IS NULL FOR SHARE")
+                .setParameter(1, id)
+                .getResultList();
+        if (live.isEmpty()) {
+            return false;
+        }
+        int updated = getEntityManager().createNativeQuery(
+                        "UPDATE matrix_class_seat_buckets b SET enrolled_count = b.enrolled_count + 1 " +
+                                "WHERE (b.matrix_class_id, b.bucket_no) = (" +
+                                "  SELECT c.matrix_class_id, c.bucket_no FROM matrix_class_seat_buckets c " +
+                                "  WHERE c.matrix_class_id = ?1 AND c.enrolled_count < c.capacity " +
+                                "  ORDER BY c.bucket_no >= ?2 DESC, c.bucket_no " +
+                                "  LIMIT 1 FOR UPDATE SKIP LOCKED)")
+                .setParameter(1, id)
+                .setParameter(2, startBucket)
+                .executeUpdate();
+        if (updated == 1) {
+            return true;
+        }
+        for (int i = 0; i < buckets; i++) {
+            int bucketNo = (startBucket + i) % buckets;
+            updated = getEntityManager().createNativeQuery(
+                            "UPDATE matrix_class_seat_buckets SET enrolled_count = enrolled_count + 1 " +
+                                    "WHERE matrix_class_id = ?1 AND bucket_no = ?2 AND enrolled_count < capacity")
+                    .setParameter(1, id)
+                    .setParameter(2, bucketNo)
+                    .executeUpdate();
+            if (updated == 1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Seats taken according to the seat counters: sum of the buckets for bucketed classes, enrolled_count otherwise.
+     */
+    public long countReservedSeats(Long id) {
+        Number count = (Number) getEntityManager().createNativeQuery(
+                        "SELECT CASE WHEN mc.seat_buckets > 1 " +
+                                "THEN (SELECT COALESCE(SUM(b.enrolled_count), 0) FROM matrix_class_seat_buckets b WHERE b.matrix_class_id = mc.id) " +
+                                "ELSE mc.enrolled_count END " +
+                                "FROM matrix_classes mc WHERE mc.id = ?1")
+                .setParameter(1, id)
+                .getSingleResult();
+        return count.longValue();
+    }
 }
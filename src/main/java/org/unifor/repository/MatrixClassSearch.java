@@ -0,0 +1,36 @@
+package org.unifor.repository;
+
+import java.time.LocalTime;
+
+/**
+ * Criteria of one page of the coordinator class listing (VM-01 to VM-03), in SQL terms.
+ * Null filter fields are not applied. {@code after} is the keyset position of the last row of the previous page;
+ * a null {@code limit} reads every matching row.
+ */
+public record MatrixClassSearch(
+        Long matrixId,
+        LocalTime startTimeFrom,
+        LocalTime startTimeTo,
+        Long authorizedCourseId,
+        Integer maxStudentsMin,
+        Integer maxStudentsMax,
+        boolean includeDeleted,
+        MatrixClassSort sort,
+        boolean descending,
+        Keyset after,
+        Integer limit
+) {
+    /**
+     * Position in the sort order: value of the sort column (Integer for MAX_STUDENTS, Instant for CREATED_AT,
+     * null for ID) and the row id.
+     */
+    public record Keyset(Object value, Long id) {
+        public static Keyset of(MatrixClassSort sort, MatrixClassListRow row) {
+            return switch (sort) {
+                case ID -> new Keyset(null, row.id());
+                case MAX_STUDENTS -> new Keyset(row.maxStudents(), row.id());
+                case CREATED_AT -> new Keyset(row.createdAt(), row.id());
+            };
+        }
+    }
+}
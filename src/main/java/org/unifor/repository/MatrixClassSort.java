@@ -0,0 +1,41 @@
+package org.unifor.repository;
+
+/**
+ * Sort keys of the coordinator class listing. Every key is paired with {@code id} as tie-breaker,
+ * which makes the order total and usable for keyset pagination.
+ */
+public enum MatrixClassSort {
+    ID("id", null),
+    MAX_STUDENTS("maxStudents", "mc.max_students"),
+    CREATED_AT("createdAt", "mc.created_at");
+
+    private final String param;
+    private final String column;
+
+    MatrixClassSort(String param, String column) {
+        this.param = param;
+        this.column = column;
+    }
+
+    /** Name used in the {@code sort} query parameter. */
+    public String param() {
+        return param;
+    }
+
+    /** Sort column before the id tie-breaker; null when sorting by id alone. */
+    String column() {
+        return column;
+    }
+
+    /**
+     * @return the key for a query parameter name, or null when unknown
+     */
+    public static MatrixClassSort fromParam(String param) {
+        for (MatrixClassSort sort : values()) {
+            if (sort.param.equals(param)) {
+                return sort;
+            }
+        }
+        return null;
+    }
+}
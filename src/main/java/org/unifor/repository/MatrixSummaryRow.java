@@ -0,0 +1,10 @@
+package org.unifor.repository;
+
+import java.time.Instant;
+
+/**
+ * Flat projection of a matrix with its number of (non-deleted) classes,
+ * as returned by {@link CurriculumMatrixRepository#findSummariesByCoordinatorId}.
+ */
+public record MatrixSummaryRow(Long id, String name, boolean active, long classCount, Instant createdAt) {
+}
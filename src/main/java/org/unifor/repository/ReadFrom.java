@@ -0,0 +1,11 @@
+package org.unifor.repository;
+
+/**
+ * Where a read repository runs a query that the read replica can serve (see {@link ReplicaReads}).
+ */
+public enum ReadFrom {
+    /** The primary, in the caller's transaction: sees every committed write, including the caller's own. */
+    PRIMARY,
+    /** The read replica when {@code unifor.replica.enabled}; may lag behind the primary. */
+    REPLICA
+}
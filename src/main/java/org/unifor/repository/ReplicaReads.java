@@ -0,0 +1,66 @@
+package org.unifor.repository;
+
+import io.agroal.api.AgroalDataSource;
+import io.quarkus.agroal.DataSource;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.unifor.config.ReplicaConfig;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.function.Function;
+
+/**
+ * Queries of the read repositories on the named {@code replica} datasource ({@code quarkus.datasource.replica}).
+ * <p>
+ * A {@link ReadFrom#REPLICA} query borrows one replica connection, opens a read-only Hibernate session on it
+ * and runs in one read-only transaction there, so all its statements see the same snapshot; then the
+ * connection goes back to the pool. The replica datasource stays out of JTA ({@code jdbc.transactions=disabled}),
+ * and nothing is bound to the thread: the caller's transaction and session stay on the primary.
+ * <p>
+ * {@link ReadFrom#PRIMARY} queries, and every query with {@code unifor.replica.enabled=false}, run on the
+ * primary in the caller's transaction.
+ */
+@ApplicationScoped
+public class ReplicaReads {
+
+    private final EntityManager primary;
+    private final SessionFactory sessionFactory;
+    private final AgroalDataSource replica;
+    private final boolean replicaEnabled;
+
+    public ReplicaReads(EntityManager primary, SessionFactory sessionFactory,
+                        @DataSource("replica") AgroalDataSource replica, ReplicaConfig config) {
+        this.primary = primary;
+        this.sessionFactory = sessionFactory;
+        this.replica = replica;
+        this.replicaEnabled = config.enabled();
+    }
+
+    /**
+     * Runs {@code query} with the entity manager of {@code from}.
+     */
+    public <T> T query(ReadFrom from, Function<EntityManager, T> query) {
+        if (from == ReadFrom.PRIMARY || !replicaEnabled) {
+            return query.apply(primary);
+        }
+        try (Connection connection = replica.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Session session = sessionFactory.withOptions()
+                    .connection(connection)
+                    .autoJoinTransactions(false)
+                    .openSession()) {
+                session.setDefaultReadOnly(true);
+                return query.apply(session);
+            } finally {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new PersistenceException("Falha ao ler da réplica", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.unifor.repository;
+
+import java.time.LocalTime;
+
+/**
+ * A student enrolled in a class together with one of their other classes that overlaps a candidate time slot,
+ * as returned by {@link EnrollmentRepository#findTimeOverlaps}.
+ */
+public record ScheduleConflictRow(
+        Long studentId,
+        String studentName,
+        Long matrixClassId,
+        Long subjectId,
+        String subjectName,
+        Long timeSlotId,
+        String dayOfWeek,
+        LocalTime startTime,
+        LocalTime endTime,
+        String timeSlotCode
+) {}
@@ -3,15 +3,44 @@ package org.unifor.repository;
 import io.quarkus.hibernate.orm.panache.PanacheRepository;
 import jakarta.enterprise.context.ApplicationScoped;
 import org.unifor.entity.User;
+import org.unifor.security.UserPrincipal;
 
 @ApplicationScoped
 public class UserRepository implements PanacheRepository<User> {
 
+    /** First key of the students' advisory locks, keeping them apart from other advisory locks. */
+    public static final int STUDENT_LOCK_SPACE = 0x53544431;
+
     public User findByEmail(String email) {
         return find("email", email).firstResult();
     }
 
+    /**
+     * Id, role and course id of the user, without loading the entity. Null when not found.
+     */
+    public UserPrincipal findPrincipalByEmail(String email) {
+        return getEntityManager().createQuery(
+                        "select new org.unifor.security.UserPrincipal(u.id, u.email, u.role, c.id) "
+                                + "from User u left join u.course c where u.email = :email", UserPrincipal.class)
+                .setParameter("email", email)
+                .getResultStream()
+                .findFirst()
+                .orElse(null);
+    }
+
     public boolean existsByEmail(String email) {
         return count("email", email) > 0;
     }
+
+    /**
+     * Takes the student's advisory lock ({@code pg_advisory_xact_lock}) for the rest of the current transaction.
+     * Serializes the enrollments of one student across nodes without locking the users row. The wait is bounded
+     * by {@code lock_timeout} like a row lock.
+     */
+    public void lockStudent(Long studentId) {
+        getEntityManager().createNativeQuery("SELECT 1 FROM pg_advisory_xact_lock(?1, ?2)")
+                .setParameter(1, STUDENT_LOCK_SPACE)
+                .setParameter(2, Long.hashCode(studentId))
+                .getSingleResult();
+    }
 }
@@ -2,10 +2,8 @@ package org.unifor.security;
 
 import io.quarkus.security.identity.SecurityIdentity;
 import org.eclipse.microprofile.jwt.JsonWebToken;
-import org.unifor.entity.User;
 import org.unifor.entity.UserRole;
 import org.unifor.exception.ForbiddenException;
-import org.unifor.repository.UserRepository;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.enterprise.inject.Instance;
@@ -13,7 +11,7 @@ import jakarta.inject.Inject;
 
 /**
  * Resolves the current authenticated user from the OIDC token.
- * Maps Keycloak principal to User entity via email (PRD: AC-05).
+ * Maps Keycloak principal to a {@link UserPrincipal} via email (PRD: AC-05), through {@link UserPrincipalCache}.
  * When JWT is absent (e.g. OIDC disabled in tests with @TestSecurity), falls back to SecurityIdentity principal name as email.
  */
 @ApplicationScoped
@@ -23,25 +21,25 @@ public class CurrentUserService {
     private static final String CLAIM_PREFERRED_USERNAME = "preferred_username";
 
     private final Instance<JsonWebToken> jwtInstance;
-    private final UserRepository userRepository;
+    private final UserPrincipalCache userPrincipalCache;
     private final Instance<TestUserEmailContext> testUserEmailContext;
 
     @Inject
     SecurityIdentity securityIdentity;
 
-    public CurrentUserService(Instance<JsonWebToken> jwtInstance, UserRepository userRepository,
+    public CurrentUserService(Instance<JsonWebToken> jwtInstance, UserPrincipalCache userPrincipalCache,
                               Instance<TestUserEmailContext> testUserEmailContext) {
         this.jwtInstance = jwtInstance;
-        this.userRepository = userRepository;
+        this.userPrincipalCache = userPrincipalCache;
         this.testUserEmailContext = testUserEmailContext;
     }
 
     /**
      * Returns the current user as coordinator. Fails if user not found or role is not COORDINATOR.
      */
-    public User getCurrentCoordinator() {
-        User user = resolveCurrentUser();
-        if (user.role != UserRole.COORDINATOR) {
+    public UserPrincipal getCurrentCoordinator() {
+        UserPrincipal user = resolveCurrentUser();
+        if (user.role() != UserRole.COORDINATOR) {
             throw new ForbiddenException("Acesso negado: usuário não é coordenador");
         }
         return user;
@@ -50,9 +48,9 @@ public class CurrentUserService {
     /**
      * Returns the current user as student. Fails if user not found or role is not STUDENT.
      */
-    public User getCurrentStudent() {
-        User user = resolveCurrentUser();
-        if (user.role != UserRole.STUDENT) {
+    public UserPrincipal getCurrentStudent() {
+        UserPrincipal user = resolveCurrentUser();
+        if (user.role() != UserRole.STUDENT) {
             throw new ForbiddenException("Acesso negado: usuário não é estudante");
         }
         return user;
@@ -60,18 +58,22 @@ public class CurrentUserService {
 
     /**
      * Returns the current user from token. Fails if user not found in database.
+     * Served from the cache; a miss costs one query.
      */
-    public User resolveCurrentUser() {
-        String email = extractEmail();
-        if (email == null || email.isBlank()) {
+    public UserPrincipal resolveCurrentUser() {
+        String email = currentEmail();
+        if (email == null) {
             throw new ForbiddenException("Token inválido: e-mail não encontrado");
         }
+        return userPrincipalCache.get(email);
+    }
 
-        User user = userRepository.findByEmail(email);
-        if (user == null) {
-            throw new ForbiddenException("Usuário não encontrado para o e-mail: " + email);
-        }
-        return user;
+    /**
+     * E-mail of the current user as carried by the request, or null when there is none. No lookup.
+     */
+    public String currentEmail() {
+        String email = extractEmail();
+        return email == null || email.isBlank() ? null : email;
     }
 
     private String extractEmail() {
@@ -0,0 +1,10 @@
+package org.unifor.security;
+
+import org.unifor.entity.UserRole;
+
+/**
+ * Immutable identity of the authenticated user: what services need to authorize and filter
+ * without a managed {@link org.unifor.entity.User}. {@code courseId} is null for coordinators.
+ */
+public record UserPrincipal(Long id, String email, UserRole role, Long courseId) {
+}
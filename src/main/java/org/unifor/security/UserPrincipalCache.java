@@ -0,0 +1,60 @@
+package org.unifor.security;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.unifor.exception.ForbiddenException;
+import org.unifor.repository.UserRepository;
+import org.unifor.service.CacheInvalidation;
+import org.unifor.service.CacheInvalidationBus;
+
+/**
+ * Bounded, TTL-based cache of resolved users keyed by e-mail (AC-05).
+ * Size, expiry and hit/miss metrics are configured under {@code quarkus.cache.caffeine."current-users"}.
+ * A miss runs one projection query; nothing is loaded into the persistence context.
+ * Unknown e-mails are not cached.
+ */
+@ApplicationScoped
+public class UserPrincipalCache {
+
+    public static final String CACHE_NAME = "current-users";
+
+    private final Cache cache;
+    private final UserRepository userRepository;
+
+    public UserPrincipalCache(@CacheName(CACHE_NAME) Cache cache, UserRepository userRepository) {
+        this.cache = cache;
+        this.userRepository = userRepository;
+    }
+
+    public UserPrincipal get(String email) {
+        return cache.get(email, this::load).await().indefinitely();
+    }
+
+    /**
+     * Drops one user, e.g. after a change of role or course.
+     */
+    public void invalidate(String email) {
+        cache.invalidate(email).await().indefinitely();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll().await().indefinitely();
+    }
+
+    /** Users have no change events: only a full flush of the {@link CacheInvalidationBus} drops them. */
+    void onRemoteChange(@Observes CacheInvalidation invalidation) {
+        if (invalidation.type() == CacheInvalidation.Type.ALL) {
+            invalidateAll();
+        }
+    }
+
+    private UserPrincipal load(String email) {
+        UserPrincipal principal = userRepository.findPrincipalByEmail(email);
+        if (principal == null) {
+            throw new ForbiddenException("Usuário não encontrado para o e-mail: " + email);
+        }
+        return principal;
+    }
+}
@@ -0,0 +1,98 @@
+package org.unifor.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import org.unifor.config.CatalogConfig;
+import org.unifor.repository.AvailableClassRepository;
+import org.unifor.repository.CatalogClassRow;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory catalog of the active matrix for student reads (PRD 3.7a).
+ * Holds one immutable {@link ActiveMatrixSnapshot}; a rebuild creates a new snapshot and swaps the reference,
+ * so readers never see a partially built catalog and never lock.
+ * <p>
+ * A committed {@link MatrixChanged} (matrix activation, class create/update/soft delete) invalidates the
+ * snapshot and the next read rebuilds it. Independently of events, a snapshot older than
+ * {@code unifor.catalog.max-staleness} is rebuilt on read. Concurrent readers of an invalid snapshot wait
+ * for a single rebuild instead of each querying the database. Changes made on other nodes arrive through the
+ * {@link CacheInvalidationBus}. Rebuilds read the primary, so a snapshot built
+ * right after a change cannot miss it on a lagging replica.
+ */
+@ApplicationScoped
+public class ActiveMatrixCatalog {
+
+    private final AvailableClassRepository availableClassRepository;
+    private final long maxStalenessNanos;
+    private final AtomicLong generation = new AtomicLong();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private volatile ActiveMatrixSnapshot snapshot;
+
+    public ActiveMatrixCatalog(AvailableClassRepository availableClassRepository, CatalogConfig config) {
+        this.availableClassRepository = availableClassRepository;
+        this.maxStalenessNanos = config.maxStaleness().toNanos();
+    }
+
+    /**
+     * Current snapshot, rebuilt first if it was invalidated or is older than the staleness window.
+     */
+    public ActiveMatrixSnapshot current() {
+        ActiveMatrixSnapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            current = snapshot;
+            if (isFresh(current)) {
+                return current;
+            }
+            current = build();
+            snapshot = current;
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Drops the snapshot; the next read rebuilds it.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    void onMatrixChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) MatrixChanged event) {
+        invalidate();
+    }
+
+    /** The same for changes committed on another node; seat counts are not part of the snapshot. */
+    void onRemoteChange(@Observes CacheInvalidation invalidation) {
+        if (invalidation.type() != CacheInvalidation.Type.SEATS) {
+            invalidate();
+        }
+    }
+
+    private boolean isFresh(ActiveMatrixSnapshot current) {
+        return current != null
+                && current.generation() == generation.get()
+                && System.nanoTime() - current.builtAtNanos() < maxStalenessNanos;
+    }
+
+    private ActiveMatrixSnapshot build() {
+        // Read the generation first: an invalidation during the queries leaves this snapshot stale
+        long buildGeneration = generation.get();
+        long builtAt = System.nanoTime();
+        List<CatalogClassRow> rows = availableClassRepository.findActiveMatrixClasses();
+        if (rows.isEmpty()) {
+            return new ActiveMatrixSnapshot(null, List.of(), Map.of(), buildGeneration, builtAt);
+        }
+        return new ActiveMatrixSnapshot(rows.get(0).matrixId(), rows,
+                availableClassRepository.findActiveMatrixAuthorizedCourses(), buildGeneration, builtAt);
+    }
+}
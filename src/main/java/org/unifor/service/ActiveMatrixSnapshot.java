@@ -0,0 +1,143 @@
+package org.unifor.service;
+
+import org.unifor.entity.TimeSlot;
+import org.unifor.repository.AvailableClassRow;
+import org.unifor.repository.CatalogClassRow;
+
+import java.time.LocalTime;
+import java.util.*;
+
+/**
+ * Immutable, pre-indexed view of the active matrix's classes. Subject, professor, time slot and
+ * authorized courses are resolved into parallel arrays indexed by position (ordered by class id);
+ * {@link #classesForCourse(Long)} returns the positions a course may enroll in.
+ * Seat counts are not included: they change on every enrollment and are always read live.
+ */
+public final class ActiveMatrixSnapshot {
+
+    private static final int[] NONE = new int[0];
+
+    private final Long matrixId;
+    private final long[] ids;
+    private final int[] maxStudents;
+    private final long[] subjectIds;
+    private final String[] subjectNames;
+    private final long[] professorIds;
+    private final String[] professorNames;
+    private final long[] timeSlotIds;
+    private final String[] days;
+    private final LocalTime[] startTimes;
+    private final LocalTime[] endTimes;
+    private final String[] timeSlotCodes;
+    /** Detached copies, never handed out: only used for conflict checks. */
+    private final TimeSlot[] timeSlots;
+    private final Map<Long, int[]> positionsByCourse;
+    private final long generation;
+    private final long builtAtNanos;
+
+    ActiveMatrixSnapshot(Long matrixId, List<CatalogClassRow> rows, Map<Long, List<Long>> coursesByClass,
+                         long generation, long builtAtNanos) {
+        int n = rows.size();
+        this.matrixId = matrixId;
+        this.ids = new long[n];
+        this.maxStudents = new int[n];
+        this.subjectIds = new long[n];
+        this.subjectNames = new String[n];
+        this.professorIds = new long[n];
+        this.professorNames = new String[n];
+        this.timeSlotIds = new long[n];
+        this.days = new String[n];
+        this.startTimes = new LocalTime[n];
+        this.endTimes = new LocalTime[n];
+        this.timeSlotCodes = new String[n];
+        this.timeSlots = new TimeSlot[n];
+        this.generation = generation;
+        this.builtAtNanos = builtAtNanos;
+
+        Map<Long, List<Integer>> byCourse = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            CatalogClassRow row = rows.get(i);
+            ids[i] = row.id();
+            maxStudents[i] = row.maxStudents();
+            subjectIds[i] = row.subjectId();
+            subjectNames[i] = row.subjectName();
+            professorIds[i] = row.professorId();
+            professorNames[i] = row.professorName();
+            timeSlotIds[i] = row.timeSlotId();
+            days[i] = row.dayOfWeek();
+            startTimes[i] = row.startTime();
+            endTimes[i] = row.endTime();
+            timeSlotCodes[i] = row.timeSlotCode();
+            timeSlots[i] = new TimeSlot(row.dayOfWeek(), row.startTime(), row.endTime(), row.timeSlotCode());
+            for (Long courseId : coursesByClass.getOrDefault(row.id(), List.of())) {
+                byCourse.computeIfAbsent(courseId, id -> new ArrayList<>()).add(i);
+            }
+        }
+        Map<Long, int[]> positions = new HashMap<>();
+        byCourse.forEach((courseId, list) -> positions.put(courseId,
+                list.stream().mapToInt(Integer::intValue).toArray()));
+        this.positionsByCourse = Map.copyOf(positions);
+    }
+
+    /**
+     * Id of the active matrix, or null when no matrix is active (or it has no classes).
+     */
+    public Long matrixId() {
+        return matrixId;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    /**
+     * Positions of the classes authorized for the course, in class id order. Callers must not modify the array.
+     */
+    public int[] classesForCourse(Long courseId) {
+        return positionsByCourse.getOrDefault(courseId, NONE);
+    }
+
+    public long id(int position) {
+        return ids[position];
+    }
+
+    public long subjectId(int position) {
+        return subjectIds[position];
+    }
+
+    public int maxStudents(int position) {
+        return maxStudents[position];
+    }
+
+    /**
+     * True when the class at the position overlaps the timetable (PRD 7.2).
+     */
+    public boolean conflictsWith(int position, Timetable timetable) {
+        return timetable.conflictsWith(timeSlots[position]);
+    }
+
+    public AvailableClassRow toRow(int position, long reservedSeats) {
+        return new AvailableClassRow(
+                ids[position],
+                maxStudents[position],
+                reservedSeats,
+                subjectIds[position],
+                subjectNames[position],
+                professorIds[position],
+                professorNames[position],
+                timeSlotIds[position],
+                days[position],
+                startTimes[position],
+                endTimes[position],
+                timeSlotCodes[position]
+        );
+    }
+
+    long generation() {
+        return generation;
+    }
+
+    long builtAtNanos() {
+        return builtAtNanos;
+    }
+}
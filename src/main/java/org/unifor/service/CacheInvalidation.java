@@ -0,0 +1,28 @@
+package org.unifor.service;
+
+/**
+ * Change made on another node, delivered by {@link CacheInvalidationBus} as a CDI event to the caches of this
+ * node. Local changes reach the caches as {@link MatrixChanged} and {@link SeatsChanged} instead.
+ * <p>
+ * {@link Type#ALL} carries no ids: messages may have been missed (connection lost, gap in a node's sequence),
+ * so every cache drops everything.
+ */
+public record CacheInvalidation(Type type, Long matrixId, Long matrixClassId) {
+
+    public enum Type {
+        /** The matrix itself changed (activation). */
+        MATRIX,
+        /** A class was created, updated or soft-deleted. */
+        MATRIX_CLASS,
+        /** Seats of a class were reserved. */
+        SEATS,
+        ALL
+    }
+
+    public static final CacheInvalidation ALL = new CacheInvalidation(Type.ALL, null, null);
+
+    static CacheInvalidation of(MatrixChanged change) {
+        return new CacheInvalidation(change.matrixClassId() == null ? Type.MATRIX : Type.MATRIX_CLASS,
+                change.matrixId(), change.matrixClassId());
+    }
+}
@@ -0,0 +1,373 @@
+package org.unifor.service;
+
+import io.agroal.api.AgroalDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.agroal.DataSource;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.unifor.config.CacheBusConfig;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the in-memory caches of several nodes in step, over Postgres LISTEN/NOTIFY on {@code channel}.
+ * <p>
+ * After a coordinator change commits ({@link MatrixChanged}), the node queues one message for it. Enrollments
+ * ({@link SeatsChanged}) are coalesced per class: the classes changed within {@code seats-window} are queued as
+ * one message each when the window closes. A publisher thread sends what is queued with a single NOTIFY round
+ * trip. A listener thread on every node turns the other nodes' messages into {@link CacheInvalidation} events,
+ * which the caches observe. Each thread holds a connection of the {@code cache-bus} datasource.
+ * <p>
+ * Messages carry the sender's node id and a per-node sequence number. NOTIFY is not durable: a node that was
+ * not listening, a message that could not be sent, or a gap in a sender's sequence all end in a full flush
+ * ({@link CacheInvalidation#ALL}) on the receiving node. The listener flushes every time it (re)connects.
+ * <p>
+ * Metrics: {@code unifor.cache.bus.published}, {@code unifor.cache.bus.dropped},
+ * {@code unifor.cache.bus.received{type}} and {@code unifor.cache.bus.flushes{reason=connect|gap}}.
+ */
+@ApplicationScoped
+public class CacheInvalidationBus {
+
+    private static final int MAX_BATCH = 500;
+    /** Unquoted Postgres identifier; the channel is quoted in LISTEN to keep its case, as pg_notify does. */
+    private static final Pattern CHANNEL = Pattern.compile("[A-Za-z_][A-Za-z0-9_]{0,62}");
+
+    private final CacheBusConfig config;
+    private final AgroalDataSource dataSource;
+    private final Event<CacheInvalidation> invalidations;
+    private final MeterRegistry registry;
+    private final String node = UUID.randomUUID().toString();
+    private final BlockingQueue<String> outbox;
+    private final Sequences sequences = new Sequences();
+    private final PendingSeats pendingSeats = new PendingSeats();
+    /** The listener's connection, closed by {@link #stop} to end a wait for notifications. */
+    private final AtomicReference<Connection> listening = new AtomicReference<>();
+    private final Counter published;
+    private final Counter dropped;
+    private long sequence;
+    private volatile boolean running;
+    private Thread publisher;
+    private Thread listener;
+    private ScheduledExecutorService seatsWindow;
+
+    public CacheInvalidationBus(CacheBusConfig config,
+                                @DataSource("cache-bus") AgroalDataSource dataSource,
+                                Event<CacheInvalidation> invalidations,
+                                MeterRegistry registry) {
+        this.config = config;
+        this.dataSource = dataSource;
+        this.invalidations = invalidations;
+        this.registry = registry;
+        this.outbox = new LinkedBlockingQueue<>(config.outboxCapacity());
+        this.published = Counter.builder("unifor.cache.bus.published")
+                .description("Invalidation messages sent to the other nodes")
+                .register(registry);
+        this.dropped = Counter.builder("unifor.cache.bus.dropped")
+                .description("Invalidation messages that could not be sent (the other nodes flush on the gap)")
+                .register(registry);
+    }
+
+    void start(@Observes StartupEvent event) {
+        if (!config.enabled()) {
+            return;
+        }
+        String listen = listenStatement(config.channel());
+        running = true;
+        publisher = Thread.ofPlatform().name("cache-bus-publisher").daemon(true).start(this::publishLoop);
+        listener = Thread.ofPlatform().name("cache-bus-listener").daemon(true).start(() -> listenLoop(listen));
+        seatsWindow = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("cache-bus-seats").daemon(true).factory());
+        long window = config.seatsWindow().toNanos();
+        seatsWindow.scheduleWithFixedDelay(this::publishSeats, window, window, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (seatsWindow != null) {
+            seatsWindow.shutdownNow();
+        }
+        if (publisher != null) {
+            publisher.interrupt();
+        }
+        if (listener != null) {
+            listener.interrupt();
+        }
+        close(listening.getAndSet(null));
+    }
+
+    /**
+     * {@code LISTEN} on {@code channel}, quoted after checking that it is a plain identifier.
+     *
+     * @throws IllegalArgumentException if {@code channel} is not a plain identifier
+     */
+    static String listenStatement(String channel) {
+        if (!CHANNEL.matcher(channel).matches()) {
+            throw new IllegalArgumentException("unifor.cache-bus.channel inválido: " + channel
+                    + " (letras, dígitos e _, até 63 caracteres, sem começar por dígito)");
+        }
+        return "LISTEN \"" + channel + "\"";
+    }
+
+    void onMatrixChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) MatrixChanged change) {
+        publish(CacheInvalidation.of(change));
+    }
+
+    void onSeatsChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) SeatsChanged change) {
+        if (running) {
+            pendingSeats.add(change.matrixClassIds());
+        }
+    }
+
+    /**
+     * Queues one SEATS message per class changed since the previous window.
+     */
+    private void publishSeats() {
+        for (Long matrixClassId : pendingSeats.drain()) {
+            publish(new CacheInvalidation(CacheInvalidation.Type.SEATS, null, matrixClassId));
+        }
+    }
+
+    /**
+     * Queues {@code invalidation} for the other nodes. Synchronized so that sequence numbers enter the queue in
+     * order; a full queue drops the message, which the receivers see as a gap.
+     */
+    private synchronized void publish(CacheInvalidation invalidation) {
+        if (!running) {
+            return;
+        }
+        String payload = new Message(node, ++sequence, invalidation).encode();
+        if (!outbox.offer(payload)) {
+            dropped.increment();
+        }
+    }
+
+    private void publishLoop() {
+        Connection connection = null;
+        List<String> batch = new ArrayList<>();
+        while (running) {
+            try {
+                batch.add(outbox.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            outbox.drainTo(batch, MAX_BATCH - 1);
+            try {
+                if (connection == null) {
+                    connection = dataSource.getConnection();
+                }
+                try (PreparedStatement notify = connection.prepareStatement(
+                        "SELECT pg_notify(?, payload) FROM unnest(?::text[]) AS payload")) {
+                    notify.setString(1, config.channel());
+                    notify.setArray(2, connection.createArrayOf("text", batch.toArray()));
+                    notify.execute();
+                }
+                published.increment(batch.size());
+            } catch (SQLException e) {
+                dropped.increment(batch.size());
+                discard(connection);
+                connection = null;
+                pause();
+            }
+            batch.clear();
+        }
+        close(connection);
+    }
+
+    private void listenLoop(String listen) {
+        while (running) {
+            Connection connection = null;
+            try {
+                connection = dataSource.getConnection();
+                listening.set(connection);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(listen);
+                }
+                sequences.clear();
+                // Whatever was sent while this node was not listening is lost
+                flush("connect");
+                PGConnection notifications = connection.unwrap(PGConnection.class);
+                int timeoutMillis = (int) config.pollInterval().toMillis();
+                while (running) {
+                    PGNotification[] received = notifications.getNotifications(timeoutMillis);
+                    if (received == null || received.length == 0) {
+                        // A dead connection does not always fail the wait
+                        if (!connection.isValid(Math.max(1, timeoutMillis / 1000))) {
+                            break;
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : received) {
+                        receive(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                // Reconnect below
+            }
+            // Unless stop() took the connection to close it
+            if (connection != null && listening.compareAndSet(connection, null)) {
+                if (running) {
+                    discard(connection);
+                } else {
+                    close(connection);
+                }
+            }
+            if (running) {
+                pause();
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        Message message = Message.parse(payload);
+        if (message == null || message.node().equals(node)) {
+            return;
+        }
+        if (!sequences.inOrder(message.node(), message.sequence())) {
+            flush("gap");
+            return;
+        }
+        Counter.builder("unifor.cache.bus.received")
+                .description("Invalidation messages received from other nodes")
+                .tag("type", message.invalidation().type().name())
+                .register(registry)
+                .increment();
+        invalidations.fire(message.invalidation());
+    }
+
+    private void flush(String reason) {
+        Counter.builder("unifor.cache.bus.flushes")
+                .description("Full cache flushes after messages may have been missed")
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+        invalidations.fire(CacheInvalidation.ALL);
+    }
+
+    /**
+     * Returns a connection that failed or went silent to the pool, and has the pool drop it if it is broken
+     * rather than hand it out again.
+     */
+    private void discard(Connection connection) {
+        close(connection);
+        dataSource.flush(AgroalDataSource.FlushMode.INVALID);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(config.reconnectDelay());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    private static void close(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            // Already broken
+        }
+    }
+
+    /**
+     * NOTIFY payload: {@code node sequence type matrixId matrixClassId}, with {@code -} for a missing id.
+     */
+    record Message(String node, long sequence, CacheInvalidation invalidation) {
+
+        String encode() {
+            return node + " " + sequence + " " + invalidation.type() + " "
+                    + id(invalidation.matrixId()) + " " + id(invalidation.matrixClassId());
+        }
+
+        /** Null when {@code payload} is not a message of this format. */
+        static Message parse(String payload) {
+            String[] parts = payload == null ? new String[0] : payload.split(" ");
+            if (parts.length != 5) {
+                return null;
+            }
+            try {
+                return new Message(parts[0], Long.parseLong(parts[1]), new CacheInvalidation(
+                        CacheInvalidation.Type.valueOf(parts[2]), id(parts[3]), id(parts[4])));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        private static String id(Long id) {
+            return id == null ? "-" : id.toString();
+        }
+
+        private static Long id(String id) {
+            return "-".equals(id) ? null : Long.valueOf(id);
+        }
+    }
+
+    /**
+     * Classes with SEATS changes not yet queued; each class appears once however often it changed.
+     */
+    static final class PendingSeats {
+
+        private final Set<Long> matrixClassIds = ConcurrentHashMap.newKeySet();
+
+        void add(Collection<Long> ids) {
+            matrixClassIds.addAll(ids);
+        }
+
+        /**
+         * Removes and returns the pending classes. A class added meanwhile is either returned or left for the
+         * next call.
+         */
+        List<Long> drain() {
+            List<Long> drained = new ArrayList<>();
+            for (Iterator<Long> it = matrixClassIds.iterator(); it.hasNext(); ) {
+                drained.add(it.next());
+                it.remove();
+            }
+            return drained;
+        }
+    }
+
+    /**
+     * Last sequence number seen per sending node; listener thread only.
+     */
+    static final class Sequences {
+
+        private final Map<String, Long> last = new HashMap<>();
+
+        /**
+         * Records {@code sequence} and tells whether it directly follows the node's previous one. The first
+         * message of a node is in order: earlier ones were covered by the flush on connect.
+         */
+        boolean inOrder(String node, long sequence) {
+            Long previous = last.put(node, sequence);
+            return previous == null || sequence == previous + 1;
+        }
+
+        void clear() {
+            last.clear();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.unifor.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.unifor.config.ContentionConfig;
+import org.unifor.exception.ServiceUnavailableException;
+
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Retry policy for transactions that fail on lock contention, applied by {@link RetryOnContention}.
+ * <p>
+ * A failure is contention when its cause chain holds a Postgres error with SQLSTATE 55P03 (lock_not_available,
+ * raised by {@code lock_timeout}), 40P01 (deadlock_detected) or 40001 (serialization_failure): the same call is
+ * likely to succeed once the other transaction is done. Those are retried up to {@code max-attempts}, pausing
+ * a random time below an exponentially growing ceiling (full jitter). Every retry also spends from a shared
+ * budget refilled by {@code budget-ratio} per call, so a hot row does not turn into a retry storm. When the
+ * attempts or the budget run out the call fails with 503 {@code CONTENTION} and Retry-After.
+ * <p>
+ * Metrics: {@code unifor.contention.retries{operation,sqlstate}} and
+ * {@code unifor.contention.exhausted{operation,reason=attempts|budget}}.
+ */
+@ApplicationScoped
+public class ContentionRetry {
+
+    static final Set<String> CONTENTION_STATES = Set.of("55P03", "40P01", "40001");
+
+    /** Budget in thousandths of a retry. */
+    private static final long UNIT = 1000;
+
+    private final ContentionConfig config;
+    private final MeterRegistry registry;
+    private final AtomicLong budget;
+
+    public ContentionRetry(ContentionConfig config, MeterRegistry registry) {
+        this.config = config;
+        this.registry = registry;
+        this.budget = new AtomicLong(config.budgetCapacity() * UNIT);
+    }
+
+    /**
+     * Runs {@code attempt}, retrying it while it fails on contention.
+     *
+     * @throws ServiceUnavailableException when it still fails on contention after the allowed retries
+     */
+    public <T> T call(String operation, Callable<T> attempt) throws Exception {
+        deposit();
+        for (int attempts = 1; ; attempts++) {
+            try {
+                return attempt.call();
+            } catch (Exception e) {
+                String sqlState = contentionState(e);
+                if (sqlState == null) {
+                    throw e;
+                }
+                if (attempts >= config.maxAttempts()) {
+                    throw exhausted(operation, "attempts", e);
+                }
+                if (!withdraw()) {
+                    throw exhausted(operation, "budget", e);
+                }
+                Counter.builder("unifor.contention.retries")
+                        .description("Transactions retried after failing on lock contention")
+                        .tag("operation", operation)
+                        .tag("sqlstate", sqlState)
+                        .register(registry)
+                        .increment();
+                pause(attempts, e);
+            }
+        }
+    }
+
+    /**
+     * SQLSTATE of the contention error in the cause chain of {@code failure}, or null when it is not contention.
+     */
+    public static String contentionState(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && CONTENTION_STATES.contains(sql.getSQLState())) {
+                return sql.getSQLState();
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    private void deposit() {
+        long refill = Math.round(config.budgetRatio() * UNIT);
+        long capacity = config.budgetCapacity() * UNIT;
+        budget.getAndUpdate(b -> Math.min(capacity, b + refill));
+    }
+
+    private boolean withdraw() {
+        return budget.getAndUpdate(b -> b >= UNIT ? b - UNIT : b) >= UNIT;
+    }
+
+    private void pause(int attempts, Exception failure) throws Exception {
+        long ceiling = Math.min(config.maxBackoff().toNanos(),
+                config.initialBackoff().toNanos() << Math.min(attempts - 1, 20));
+        long nanos = ceiling > 0 ? ThreadLocalRandom.current().nextLong(ceiling + 1) : 0;
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    private ServiceUnavailableException exhausted(String operation, String reason, Exception cause) {
+        Counter.builder("unifor.contention.exhausted")
+                .description("Calls that gave up on lock contention (503)")
+                .tag("operation", operation)
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+        var unavailable = new ServiceUnavailableException("CONTENTION",
+                "Muitas operações simultâneas sobre os mesmos dados; tente novamente em instantes", config.retryAfter());
+        unavailable.initCause(cause);
+        return unavailable;
+    }
+}
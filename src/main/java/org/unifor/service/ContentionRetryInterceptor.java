@@ -0,0 +1,36 @@
+package org.unifor.service;
+
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundInvoke;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+import jakarta.transaction.Status;
+import jakarta.transaction.TransactionManager;
+
+/**
+ * Binds {@link RetryOnContention} to {@link ContentionRetry}. Runs before the {@code @Transactional} interceptor
+ * (priority {@code PLATFORM_BEFORE + 200}), so a retry starts a new transaction.
+ */
+@RetryOnContention
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE + 100)
+public class ContentionRetryInterceptor {
+
+    private final ContentionRetry retry;
+    private final TransactionManager transactionManager;
+
+    public ContentionRetryInterceptor(ContentionRetry retry, TransactionManager transactionManager) {
+        this.retry = retry;
+        this.transactionManager = transactionManager;
+    }
+
+    @AroundInvoke
+    Object retry(InvocationContext context) throws Exception {
+        if (transactionManager.getStatus() != Status.STATUS_NO_TRANSACTION) {
+            // Part of the caller's transaction: an aborted transaction cannot be retried from here
+            return context.proceed();
+        }
+        String operation = context.getMethod().getDeclaringClass().getSimpleName() + "." + context.getMethod().getName();
+        return retry.call(operation, context::proceed);
+    }
+}
@@ -0,0 +1,9 @@
+package org.unifor.service;
+
+/**
+ * CDI event fired inside coordinator transactions that change a matrix or its classes
+ * (activation, class create/update/soft delete). Observers that cache matrix data listen for it
+ * after a successful commit. {@code matrixClassId} is null for changes of the matrix itself.
+ */
+public record MatrixChanged(Long matrixId, Long matrixClassId) {
+}
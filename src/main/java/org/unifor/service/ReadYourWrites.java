@@ -0,0 +1,45 @@
+package org.unifor.service;
+
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.unifor.repository.ReadFrom;
+import org.unifor.security.UserPrincipal;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Users (by e-mail, as in the token) who wrote within the last {@code quarkus.cache.caffeine."recent-writers".expire-after-write}; their
+ * replica reads go to the primary ({@link #readFrom}). A student listing their enrollments right after enrolling thus
+ * sees the new one even while the replica lags. The window should exceed the replica's expected lag.
+ * <p>
+ * Write services mark the user when the write starts, before its transaction can commit.
+ * <p>
+ * The marks live in this node's memory. With several nodes, a read served by a node other than the one that took
+ * the write can miss it while the replica lags: route each user to one node (sticky sessions) for the guarantee
+ * to hold across nodes.
+ */
+@ApplicationScoped
+public class ReadYourWrites {
+
+    public static final String CACHE_NAME = "recent-writers";
+
+    private final Cache writers;
+
+    public ReadYourWrites(@CacheName(CACHE_NAME) Cache cache) {
+        this.writers = cache;
+    }
+
+    public void wrote(String email) {
+        writers.as(CaffeineCache.class).put(email, CompletableFuture.completedFuture(Boolean.TRUE));
+    }
+
+    /**
+     * Where the user's reads that the replica can serve should go: the primary within the window after one of
+     * their writes on this node, otherwise the replica.
+     */
+    public ReadFrom readFrom(UserPrincipal user) {
+        return writers.as(CaffeineCache.class).getIfPresent(user.email()) != null ? ReadFrom.PRIMARY : ReadFrom.REPLICA;
+    }
+}
@@ -0,0 +1,134 @@
+package org.unifor.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.panache.common.Sort;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import org.unifor.config.ReferenceDataConfig;
+import org.unifor.dto.response.*;
+import org.unifor.repository.CourseRepository;
+import org.unifor.repository.ProfessorRepository;
+import org.unifor.repository.SubjectRepository;
+import org.unifor.repository.TimeSlotRepository;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Reference data (subjects, professors, time slots, courses) held as pre-serialized JSON with a strong ETag
+ * (SHA-256 of the body). Reads between reloads touch neither the database nor the JSON mapper.
+ * <p>
+ * The data is reloaded on read once older than {@code unifor.reference.refresh-interval}, or after
+ * {@link #invalidate()}. Unchanged content hashes to the same ETag, so clients keep getting 304 across reloads.
+ */
+@ApplicationScoped
+public class ReferenceDataCache {
+
+    /**
+     * Serialized response body and its ETag value (hex SHA-256, unquoted). The body must not be modified.
+     */
+    public record CachedJson(byte[] body, String etag) {}
+
+    public record Snapshot(CachedJson subjects, CachedJson professors, CachedJson timeSlots,
+                           CachedJson courses, CachedJson bundle, long loadedAtNanos) {}
+
+    private final SubjectRepository subjectRepository;
+    private final ProfessorRepository professorRepository;
+    private final TimeSlotRepository timeSlotRepository;
+    private final CourseRepository courseRepository;
+    private final ObjectMapper objectMapper;
+    private final long refreshIntervalNanos;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private volatile Snapshot snapshot;
+
+    public ReferenceDataCache(SubjectRepository subjectRepository,
+                              ProfessorRepository professorRepository,
+                              TimeSlotRepository timeSlotRepository,
+                              CourseRepository courseRepository,
+                              ObjectMapper objectMapper,
+                              ReferenceDataConfig config) {
+        this.subjectRepository = subjectRepository;
+        this.professorRepository = professorRepository;
+        this.timeSlotRepository = timeSlotRepository;
+        this.courseRepository = courseRepository;
+        this.objectMapper = objectMapper;
+        this.refreshIntervalNanos = config.refreshInterval().toNanos();
+    }
+
+    public Snapshot current() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        reloadLock.lock();
+        try {
+            current = snapshot;
+            if (isFresh(current)) {
+                return current;
+            }
+            current = QuarkusTransaction.joiningExisting().call(this::load);
+            snapshot = current;
+            return current;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Forces a reload on the next read, e.g. after reference tables were changed.
+     */
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    /** Reference data has no change events: only a full flush of the {@link CacheInvalidationBus} reloads it. */
+    void onRemoteChange(@Observes CacheInvalidation invalidation) {
+        if (invalidation.type() == CacheInvalidation.Type.ALL) {
+            invalidate();
+        }
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null && System.nanoTime() - current.loadedAtNanos() < refreshIntervalNanos;
+    }
+
+    private Snapshot load() {
+        long loadedAt = System.nanoTime();
+        Sort byId = Sort.by("id");
+        List<SubjectDto> subjects = subjectRepository.listAll(byId).stream()
+                .map(s -> new SubjectDto(s.id, s.name))
+                .toList();
+        List<ProfessorDto> professors = professorRepository.listAll(byId).stream()
+                .map(p -> new ProfessorDto(p.id, p.name))
+                .toList();
+        List<TimeSlotDto> timeSlots = timeSlotRepository.listAll(byId).stream()
+                .map(t -> new TimeSlotDto(t.id, t.dayOfWeek, t.startTime, t.endTime, t.code))
+                .toList();
+        List<CourseDto> courses = courseRepository.listAll(byId).stream()
+                .map(c -> new CourseDto(c.id, c.name))
+                .toList();
+        return new Snapshot(
+                serialize(subjects),
+                serialize(professors),
+                serialize(timeSlots),
+                serialize(courses),
+                serialize(new ReferenceDataBundleResponse(subjects, professors, timeSlots, courses)),
+                loadedAt
+        );
+    }
+
+    private CachedJson serialize(Object value) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(value);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return new CachedJson(body, HexFormat.of().formatHex(digest));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Falha ao serializar dados de referência", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.unifor.service;
+
+import jakarta.interceptor.InterceptorBinding;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retries the annotated transactional method when it fails on lock contention (lock timeout, deadlock,
+ * serialization failure), with jittered exponential backoff within a retry budget; gives up with 503 and
+ * Retry-After. See {@link ContentionRetry}.
+ * <p>
+ * The retry runs outside {@code @Transactional}, so each attempt gets a fresh transaction. The method must
+ * therefore own its transaction: when called inside an existing one, it runs once and contention failures
+ * propagate to the caller.
+ */
+@InterceptorBinding
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnContention {
+}
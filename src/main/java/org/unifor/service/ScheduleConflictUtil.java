@@ -2,18 +2,69 @@ package org.unifor.service;
 
 import org.unifor.entity.TimeSlot;
 
+import java.time.LocalTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * Pure utility for schedule conflict detection (PRD 7.2).
- * Two time slots overlap if: same day AND [start1, end1) overlaps [start2, end2).
- * Overlap: start1 &lt; end2 AND start2 &lt; end1.
+ * Two time slots overlap if: a common day AND [start1, end1) overlaps [start2, end2).
+ * Overlap: start1 &lt; end2 AND start2 &lt; end1. A row of a meeting pattern (e.g. M24AB) meets on every day
+ * of the pattern ({@link TimeSlotPattern#of}), so two rows of M24AB overlap whatever their own day.
+ * <p>
+ * Checks go through {@link ScheduleMask} bitmaps (encoded once per distinct slot); the pairwise
+ * comparison only runs when a mask cannot decide (unknown day code or times off the 10-minute grid).
+ * Day codes are compared exactly, as in the SQL conflict checks.
  */
 public final class ScheduleConflictUtil {
 
+    private static final int MASK_CACHE_LIMIT = 4096;
+    private static final Map<SlotKey, Optional<ScheduleMask>> MASKS = new ConcurrentHashMap<>();
+
     private ScheduleConflictUtil() {
     }
 
     public static boolean overlaps(TimeSlot a, TimeSlot b) {
-        if (!a.dayOfWeek.equals(b.dayOfWeek)) return false;
+        ScheduleMask maskA = mask(a);
+        ScheduleMask maskB = mask(b);
+        if (maskA != null && maskB != null) {
+            if (!maskA.intersects(maskB)) return false;
+            if (maskA.isExact() && maskB.isExact()) return true;
+        }
+        return overlapsPairwise(a, b);
+    }
+
+    /**
+     * Reference pairwise implementation, used when the masks cannot decide.
+     */
+    static boolean overlapsPairwise(TimeSlot a, TimeSlot b) {
+        if (Collections.disjoint(days(a), days(b))) return false;
         return a.startTime.isBefore(b.endTime) && b.startTime.isBefore(a.endTime);
     }
+
+    private static List<String> days(TimeSlot slot) {
+        TimeSlotPattern pattern = TimeSlotPattern.of(slot);
+        return pattern != null ? pattern.days() : List.of(slot.dayOfWeek);
+    }
+
+    /**
+     * Mask of a time slot, cached by (day, start, end, code). Null when the slot cannot be encoded.
+     */
+    public static ScheduleMask mask(TimeSlot slot) {
+        var key = new SlotKey(slot.dayOfWeek, slot.startTime, slot.endTime, slot.code);
+        Optional<ScheduleMask> cached = MASKS.get(key);
+        if (cached != null) {
+            return cached.orElse(null);
+        }
+        ScheduleMask mask = ScheduleMask.of(slot);
+        if (MASKS.size() < MASK_CACHE_LIMIT) {
+            MASKS.put(key, Optional.ofNullable(mask));
+        }
+        return mask;
+    }
+
+    private record SlotKey(String dayOfWeek, LocalTime startTime, LocalTime endTime, String code) {}
 }
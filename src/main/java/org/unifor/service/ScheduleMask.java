@@ -0,0 +1,135 @@
+package org.unifor.service;
+
+import org.unifor.entity.TimeSlot;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Weekly occupancy bitmap: 7 days x 144 ten-minute buckets (1008 bits in 16 longs).
+ * A bucket is set when the slot [start, end) touches it, so the mask over-approximates:
+ * disjoint masks never conflict. When every start/end falls on a bucket boundary the mask
+ * is {@link #isExact() exact} and intersecting masks always conflict (PRD 7.2).
+ * Immutable; {@link #or} returns a new mask.
+ */
+public final class ScheduleMask {
+
+    static final int BUCKET_MINUTES = 10;
+    static final int BUCKETS_PER_DAY = 24 * 60 / BUCKET_MINUTES;
+    private static final int WORDS = (7 * BUCKETS_PER_DAY + 63) / 64;
+
+    public static final ScheduleMask EMPTY = new ScheduleMask(new long[WORDS], true);
+
+    /** Day codes used in time_slots.day_of_week. */
+    private static final Map<String, Integer> DAY_INDEX = Map.of(
+            "SEG", 0, "TER", 1, "QUA", 2, "QUI", 3, "SEX", 4, "SAB", 5, "DOM", 6);
+
+    private final long[] words;
+    private final boolean exact;
+
+    private ScheduleMask(long[] words, boolean exact) {
+        this.words = words;
+        this.exact = exact;
+    }
+
+    /**
+     * Encodes a time slot row. A row of a meeting pattern (see {@link TimeSlotPattern#of}) is encoded as the
+     * whole pattern, so e.g. any M24AB row occupies SEG, QUA and SEX. Returns null when the day is unknown or
+     * the interval is empty/overnight; callers then fall back to {@link ScheduleConflictUtil#overlaps}.
+     */
+    public static ScheduleMask of(TimeSlot slot) {
+        TimeSlotPattern pattern = TimeSlotPattern.of(slot);
+        if (pattern != null) {
+            return of(pattern);
+        }
+        return of(slot.dayOfWeek, slot.startTime, slot.endTime);
+    }
+
+    public static ScheduleMask of(String dayOfWeek, LocalTime start, LocalTime end) {
+        Integer day = dayIndex(dayOfWeek);
+        if (day == null || !start.isBefore(end)) {
+            return null;
+        }
+        long[] words = new long[WORDS];
+        boolean exact = setInterval(words, day, start, end);
+        return new ScheduleMask(words, exact);
+    }
+
+    /**
+     * Encodes a meeting pattern code (PRD Appendix C, e.g. M24AB, N35CD) as one multi-day mask.
+     * Returns null when the code is not a valid pattern.
+     */
+    public static ScheduleMask ofPattern(String code) {
+        TimeSlotPattern pattern = TimeSlotPattern.parse(code);
+        return pattern == null ? null : of(pattern);
+    }
+
+    private static ScheduleMask of(TimeSlotPattern pattern) {
+        long[] words = new long[WORDS];
+        boolean exact = true;
+        for (String day : pattern.days()) {
+            exact &= setInterval(words, dayIndex(day), pattern.start(), pattern.end());
+        }
+        return new ScheduleMask(words, exact);
+    }
+
+    static Integer dayIndex(String dayOfWeek) {
+        return dayOfWeek == null ? null : DAY_INDEX.get(dayOfWeek);
+    }
+
+    private static boolean setInterval(long[] words, int day, LocalTime start, LocalTime end) {
+        int bucketSeconds = BUCKET_MINUTES * 60;
+        int startSecond = start.toSecondOfDay();
+        int endSecond = end.toSecondOfDay() + (end.getNano() > 0 ? 1 : 0);
+        boolean exact = start.getNano() == 0 && end.getNano() == 0
+                && startSecond % bucketSeconds == 0 && endSecond % bucketSeconds == 0;
+        int from = day * BUCKETS_PER_DAY + startSecond / bucketSeconds;
+        int to = day * BUCKETS_PER_DAY + (endSecond + bucketSeconds - 1) / bucketSeconds;
+        for (int bit = from; bit < to; bit++) {
+            words[bit >>> 6] |= 1L << bit;
+        }
+        return exact;
+    }
+
+    public boolean intersects(ScheduleMask other) {
+        for (int i = 0; i < WORDS; i++) {
+            if ((words[i] & other.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public ScheduleMask or(ScheduleMask other) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] | other.words[i];
+        }
+        return new ScheduleMask(result, exact && other.exact);
+    }
+
+    /** True when the mask represents its slots exactly, so an intersection is a real conflict. */
+    public boolean isExact() {
+        return exact;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof ScheduleMask other && exact == other.exact && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(words) + Boolean.hashCode(exact);
+    }
+}
@@ -0,0 +1,57 @@
+package org.unifor.service;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import org.unifor.entity.MatrixClass;
+import org.unifor.repository.MatrixClassRepository;
+
+/**
+ * Seat counters of a class (CC-01, CC-02). Classes with {@code seatBuckets == 1} keep their count in
+ * matrix_classes.enrolled_count; classes with more buckets spread it across matrix_class_seat_buckets
+ * so concurrent enrollments in a hot class do not all update the same row.
+ * Bucketed classes always reserve through their buckets, whatever the seat mode, so counters never drift.
+ */
+@ApplicationScoped
+public class SeatInventory {
+
+    private final MatrixClassRepository matrixClassRepository;
+
+    public SeatInventory(MatrixClassRepository matrixClassRepository) {
+        this.matrixClassRepository = matrixClassRepository;
+    }
+
+    public static boolean isBucketed(MatrixClass mc) {
+        return mc.seatBuckets != null && mc.seatBuckets > 1;
+    }
+
+    /**
+     * Creates the seat buckets of a newly persisted class (no-op for unbucketed classes).
+     */
+    public void initialize(MatrixClass mc) {
+        if (isBucketed(mc)) {
+            matrixClassRepository.flush();
+            matrixClassRepository.createSeatBuckets(mc.id, mc.maxStudents, mc.seatBuckets);
+        }
+    }
+
+    /**
+     * Reserves one seat for the student. Bucketed classes start at a bucket selected by hashing the
+     * student id and fall back to the other buckets when it is full.
+     *
+     * @return false when the class is full (or was soft-deleted meanwhile)
+     */
+    public boolean reserve(MatrixClass mc, Long studentId) {
+        if (!isBucketed(mc)) {
+            return matrixClassRepository.reserveSeat(mc.id);
+        }
+        int startBucket = Math.floorMod(Long.hashCode(studentId * 0x9E3779B97F4A7C15L), mc.seatBuckets);
+        return matrixClassRepository.reserveBucketSeat(mc.id, mc.seatBuckets, startBucket);
+    }
+
+    public long enrolledCount(MatrixClass mc) {
+        return matrixClassRepository.countReservedSeats(mc.id);
+    }
+
+    public int availableSeats(MatrixClass mc) {
+        return (int) (mc.maxStudents - enrolledCount(mc));
+    }
+}
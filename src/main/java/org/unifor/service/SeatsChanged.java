@@ -0,0 +1,10 @@
+package org.unifor.service;
+
+import java.util.Collection;
+
+/**
+ * CDI event fired inside enrollment transactions with the classes that had seats reserved. Observers that
+ * publish seat counts listen for it after a successful commit.
+ */
+public record SeatsChanged(Collection<Long> matrixClassIds) {
+}
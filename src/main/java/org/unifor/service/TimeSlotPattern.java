@@ -0,0 +1,73 @@
+package org.unifor.service;
+
+import org.unifor.entity.TimeSlot;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Meeting pattern encoded in time_slots.code (PRD Appendix C): turn (M/T/N), days and block.
+ * Days use the Unifor digits 2=SEG .. 7=SAB; "24" is the short form of "246" (SEG, QUA, SEX).
+ * Example: M24AB = Manhã, SEG/QUA/SEX, 07:30-09:10.
+ * <p>
+ * time_slots keeps one row per meeting day; a class on any row of a pattern meets on all of its days,
+ * so the conflict checks treat the pattern as one unit (see {@link ScheduleMask#of(TimeSlot)}).
+ */
+public record TimeSlotPattern(char turn, List<String> days, String block, LocalTime start, LocalTime end) {
+
+    private static final String[] DAY_BY_DIGIT = {null, null, "SEG", "TER", "QUA", "QUI", "SEX", "SAB"};
+
+    private static final Map<String, LocalTime[]> BLOCKS = Map.of(
+            "MAB", times("07:30", "09:10"), "MCD", times("09:30", "11:10"), "MEF", times("11:20", "13:00"),
+            "TAB", times("13:30", "15:10"), "TCD", times("15:30", "17:10"), "TEF", times("17:20", "19:00"),
+            "NAB", times("19:00", "20:40"), "NCD", times("21:00", "22:40")
+    );
+
+    /**
+     * Parses a pattern code. Returns null when the code does not follow Appendix C.
+     */
+    public static TimeSlotPattern parse(String code) {
+        if (code == null || code.length() < 4) {
+            return null;
+        }
+        String normalized = code.trim().toUpperCase();
+        char turn = normalized.charAt(0);
+        String block = normalized.substring(normalized.length() - 2);
+        LocalTime[] times = BLOCKS.get(turn + block);
+        String digits = normalized.substring(1, normalized.length() - 2);
+        if (times == null || digits.isEmpty()) {
+            return null;
+        }
+        if (digits.equals("24")) {
+            digits = "246";
+        }
+        List<String> days = new ArrayList<>();
+        for (char c : digits.toCharArray()) {
+            int digit = c - '0';
+            if (digit < 2 || digit >= DAY_BY_DIGIT.length || days.contains(DAY_BY_DIGIT[digit])) {
+                return null;
+            }
+            days.add(DAY_BY_DIGIT[digit]);
+        }
+        return new TimeSlotPattern(turn, List.copyOf(days), block, times[0], times[1]);
+    }
+
+    /**
+     * Pattern of a time slot row: its code parsed, provided the row is one of the pattern's meetings (a pattern
+     * day, the block's times). Null for rows without a code, with an invalid one, or that disagree with it.
+     */
+    public static TimeSlotPattern of(TimeSlot slot) {
+        TimeSlotPattern pattern = parse(slot.code);
+        if (pattern == null || !pattern.days().contains(slot.dayOfWeek)
+                || !pattern.start().equals(slot.startTime) || !pattern.end().equals(slot.endTime)) {
+            return null;
+        }
+        return pattern;
+    }
+
+    private static LocalTime[] times(String start, String end) {
+        return new LocalTime[]{LocalTime.parse(start), LocalTime.parse(end)};
+    }
+}
@@ -0,0 +1,57 @@
+package org.unifor.service;
+
+import org.unifor.entity.TimeSlot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A student's weekly timetable: the time slots of their classes OR-ed into one {@link ScheduleMask},
+ * so checking a candidate slot is a handful of AND operations instead of a scan of every enrollment.
+ */
+public final class Timetable {
+
+    private final List<TimeSlot> slots;
+    private final ScheduleMask mask;
+
+    private Timetable(List<TimeSlot> slots, ScheduleMask mask) {
+        this.slots = slots;
+        this.mask = mask;
+    }
+
+    public static Timetable of(Collection<TimeSlot> slots) {
+        ScheduleMask mask = ScheduleMask.EMPTY;
+        for (TimeSlot slot : slots) {
+            ScheduleMask slotMask = ScheduleConflictUtil.mask(slot);
+            if (slotMask == null) {
+                mask = null;
+                break;
+            }
+            mask = mask.or(slotMask);
+        }
+        return new Timetable(List.copyOf(slots), mask);
+    }
+
+    /**
+     * This timetable plus one more slot (the receiver is left unchanged).
+     */
+    public Timetable with(TimeSlot slot) {
+        ScheduleMask slotMask = ScheduleConflictUtil.mask(slot);
+        List<TimeSlot> grown = new ArrayList<>(slots);
+        grown.add(slot);
+        return new Timetable(List.copyOf(grown), mask == null || slotMask == null ? null : mask.or(slotMask));
+    }
+
+    /**
+     * True when the candidate overlaps any slot of the timetable (PRD 7.2).
+     */
+    public boolean conflictsWith(TimeSlot candidate) {
+        ScheduleMask candidateMask = ScheduleConflictUtil.mask(candidate);
+        if (candidateMask != null && mask != null) {
+            if (!candidateMask.intersects(mask)) return false;
+            if (candidateMask.isExact() && mask.isExact()) return true;
+        }
+        return slots.stream().anyMatch(slot -> ScheduleConflictUtil.overlaps(candidate, slot));
+    }
+}
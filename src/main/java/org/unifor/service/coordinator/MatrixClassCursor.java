@@ -0,0 +1,52 @@
+package org.unifor.service.coordinator;
+
+import org.unifor.exception.ValidationException;
+import org.unifor.repository.MatrixClassSearch.Keyset;
+import org.unifor.repository.MatrixClassSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor: Base64url of {@code sort|direction|value|id}. The sort is embedded so a cursor
+ * cannot be replayed against a different order.
+ */
+final class MatrixClassCursor {
+
+    private MatrixClassCursor() {
+    }
+
+    static String encode(MatrixClassSort sort, boolean descending, Keyset keyset) {
+        String value = keyset.value() == null ? "" : keyset.value().toString();
+        String raw = sort.param() + "|" + (descending ? "d" : "a") + "|" + value + "|" + keyset.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Keyset decode(String cursor, MatrixClassSort sort, boolean descending) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4
+                    || !parts[0].equals(sort.param())
+                    || !parts[1].equals(descending ? "d" : "a")) {
+                throw invalid();
+            }
+            Long id = Long.valueOf(parts[3]);
+            Object value = switch (sort) {
+                case ID -> null;
+                case MAX_STUDENTS -> Integer.valueOf(parts[2]);
+                case CREATED_AT -> Instant.parse(parts[2]);
+            };
+            return new Keyset(value, id);
+        } catch (ValidationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw invalid();
+        }
+    }
+
+    private static ValidationException invalid() {
+        return new ValidationException("Cursor inválido para esta ordenação");
+    }
+}
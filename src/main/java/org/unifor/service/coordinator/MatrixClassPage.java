@@ -0,0 +1,12 @@
+package org.unifor.service.coordinator;
+
+import org.unifor.repository.MatrixClassListRow;
+
+import java.util.List;
+
+/**
+ * A page of matrix classes. {@code total} counts every class matching the filters;
+ * {@code nextCursor} is null on the last page.
+ */
+public record MatrixClassPage(List<MatrixClassListRow> items, long total, String nextCursor) {
+}
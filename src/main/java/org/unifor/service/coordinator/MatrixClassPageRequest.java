@@ -0,0 +1,21 @@
+package org.unifor.service.coordinator;
+
+/**
+ * Paging parameters for listing matrix classes, as received from the API.
+ *
+ * @param sort   {@code id}, {@code maxStudents} or {@code createdAt}; a leading {@code -} sorts descending.
+ *               Null means {@code id}.
+ * @param cursor {@code nextCursor} of the previous page, or null for the first page
+ * @param limit  page size, at most {@link #MAX_LIMIT}. Null lists every matching class on one page when no
+ *               {@code cursor} is given (clients that do not page get the whole list), and means
+ *               {@link #DEFAULT_LIMIT} when continuing from a cursor.
+ */
+public record MatrixClassPageRequest(String sort, String cursor, Integer limit) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 200;
+
+    public static MatrixClassPageRequest firstPage() {
+        return new MatrixClassPageRequest(null, null, DEFAULT_LIMIT);
+    }
+}
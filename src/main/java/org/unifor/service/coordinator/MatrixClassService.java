@@ -1,16 +1,24 @@
 package org.unifor.service.coordinator;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
+import org.unifor.config.EnrollmentConfig;
 import org.unifor.dto.request.CreateMatrixClassRequest;
 import org.unifor.dto.request.UpdateMatrixClassRequest;
 import org.unifor.entity.*;
 import org.unifor.exception.ConflictException;
 import org.unifor.exception.ForbiddenException;
 import org.unifor.exception.NotFoundException;
+import org.unifor.exception.PreconditionFailedException;
 import org.unifor.exception.ValidationException;
 import org.unifor.repository.*;
+import org.unifor.security.UserPrincipal;
+import org.unifor.service.MatrixChanged;
+import org.unifor.service.ReadYourWrites;
 import org.unifor.service.ScheduleConflictUtil;
+import org.unifor.service.SeatInventory;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -30,6 +38,10 @@ public class MatrixClassService {
     private final TimeSlotRepository timeSlotRepository;
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final SeatInventory seatInventory;
+    private final EnrollmentConfig enrollmentConfig;
+    private final Event<MatrixChanged> matrixChanged;
+    private final ReadYourWrites readYourWrites;
 
     public MatrixClassService(MatrixService matrixService,
                               MatrixClassRepository matrixClassRepository,
@@ -37,7 +49,11 @@ public class MatrixClassService {
                               ProfessorRepository professorRepository,
                               TimeSlotRepository timeSlotRepository,
                               CourseRepository courseRepository,
-                              EnrollmentRepository enrollmentRepository) {
+                              EnrollmentRepository enrollmentRepository,
+                              SeatInventory seatInventory,
+                              EnrollmentConfig enrollmentConfig,
+                              Event<MatrixChanged> matrixChanged,
+                              ReadYourWrites readYourWrites) {
         this.matrixService = matrixService;
         this.matrixClassRepository = matrixClassRepository;
         this.subjectRepository = subjectRepository;
@@ -45,10 +61,15 @@ public class MatrixClassService {
         this.timeSlotRepository = timeSlotRepository;
         this.courseRepository = courseRepository;
         this.enrollmentRepository = enrollmentRepository;
+        this.seatInventory = seatInventory;
+        this.enrollmentConfig = enrollmentConfig;
+        this.matrixChanged = matrixChanged;
+        this.readYourWrites = readYourWrites;
     }
 
     @Transactional
-    public MatrixClass create(CreateMatrixClassRequest request, Long matrixId, User coordinator) {
+    public MatrixClass create(CreateMatrixClassRequest request, Long matrixId, UserPrincipal coordinator) {
+        readYourWrites.wrote(coordinator.email());
         CurriculumMatrix matrix = matrixService.getByIdAndCoordinator(matrixId, coordinator);
 
         Subject subject = subjectRepository.findById(request.subjectId());
@@ -64,6 +85,12 @@ public class MatrixClassService {
             throw new ValidationException("Horário não encontrado");
         }
 
+        int seatBuckets = request.seatBuckets() != null ? request.seatBuckets() : 1;
+        if (seatBuckets > request.maxStudents() || seatBuckets > enrollmentConfig.maxSeatBuckets()) {
+            throw new ValidationException("Número de grupos de vagas deve ser no máximo "
+                    + Math.min(request.maxStudents(), enrollmentConfig.maxSeatBuckets()));
+        }
+
         long duplicateCount = matrixClassRepository.count(
                 "matrix = ?1 and subject = ?2 and timeSlot = ?3",
                 matrix, subject, timeSlot
@@ -84,45 +111,78 @@ public class MatrixClassService {
 
         var matrixClass = new MatrixClass(matrix, subject, professor, timeSlot, request.maxStudents());
         matrixClass.authorizedCourses = authorizedCourses;
+        matrixClass.seatBuckets = seatBuckets;
         matrixClass.persist();
+        seatInventory.initialize(matrixClass);
+        matrixChanged.fire(new MatrixChanged(matrix.id, matrixClass.id));
         return matrixClass;
     }
 
-    public List<MatrixClass> list(Long matrixId, User coordinator, MatrixClassFilter filter) {
-        CurriculumMatrix matrix = matrixService.getByIdAndCoordinator(matrixId, coordinator);
-
-        List<MatrixClass> classes = matrixClassRepository.findByMatrix(matrix);
-
-        return classes.stream()
-                .filter(mc -> filterByPeriodOfDay(mc, filter.periodOfDay()))
-                .filter(mc -> filterByAuthorizedCourse(mc, filter.authorizedCourseId()))
-                .filter(mc -> filterByMaxStudents(mc, filter.maxStudentsMin(), filter.maxStudentsMax()))
-                .collect(Collectors.toList());
-    }
-
-    private boolean filterByPeriodOfDay(MatrixClass mc, java.util.Optional<PeriodOfDay> periodOfDay) {
-        if (periodOfDay.isEmpty()) return true;
-        return periodOfDay.get().contains(mc.timeSlot.startTime);
-    }
+    /**
+     * Lists a page of the matrix's classes. Filters, sort and keyset pagination all run in SQL
+     * (see {@link MatrixClassRepository#search}). Without {@code limit} and {@code cursor} every matching
+     * class is returned, so clients that do not page are never truncated.
+     */
+    public MatrixClassPage list(Long matrixId, UserPrincipal coordinator, MatrixClassFilter filter,
+                                MatrixClassPageRequest page) {
+        matrixService.checkAccess(matrixId, coordinator);
 
-    private boolean filterByAuthorizedCourse(MatrixClass mc, java.util.Optional<Long> authorizedCourseId) {
-        if (authorizedCourseId.isEmpty()) return true;
-        return mc.authorizedCourses.stream()
-                .anyMatch(c -> c.id.equals(authorizedCourseId.get()));
-    }
+        boolean descending = page.sort() != null && page.sort().startsWith("-");
+        String sortParam = page.sort() == null ? MatrixClassSort.ID.param()
+                : descending ? page.sort().substring(1) : page.sort();
+        MatrixClassSort sort = MatrixClassSort.fromParam(sortParam);
+        if (sort == null) {
+            throw new ValidationException("Ordenação inválida: " + page.sort()
+                    + " (use id, maxStudents ou createdAt, com - para decrescente)");
+        }
+        Integer limit = page.limit() != null ? page.limit()
+                : page.cursor() != null ? Integer.valueOf(MatrixClassPageRequest.DEFAULT_LIMIT)
+                : null;
+        if (limit != null && (limit < 1 || limit > MatrixClassPageRequest.MAX_LIMIT)) {
+            throw new ValidationException("Limite deve estar entre 1 e " + MatrixClassPageRequest.MAX_LIMIT);
+        }
+        MatrixClassSearch.Keyset after = page.cursor() == null
+                ? null
+                : MatrixClassCursor.decode(page.cursor(), sort, descending);
 
-    private boolean filterByMaxStudents(MatrixClass mc,
-                                        java.util.Optional<Integer> min,
-                                        java.util.Optional<Integer> max) {
-        if (min.isPresent() && mc.maxStudents < min.get()) return false;
-        if (max.isPresent() && mc.maxStudents > max.get()) return false;
-        return true;
+        var search = new MatrixClassSearch(
+                matrixId,
+                filter.periodOfDay().map(PeriodOfDay::start).orElse(null),
+                filter.periodOfDay().map(PeriodOfDay::endOrNull).orElse(null),
+                filter.authorizedCourseId().orElse(null),
+                filter.maxStudentsMin().orElse(null),
+                filter.maxStudentsMax().orElse(null),
+                filter.includeDeleted(),
+                sort,
+                descending,
+                after,
+                limit
+        );
+        KeysetPage<MatrixClassListRow> result = matrixClassRepository.search(search, readYourWrites.readFrom(coordinator));
+        String nextCursor = result.next() == null
+                ? null
+                : MatrixClassCursor.encode(sort, descending, result.next());
+        return new MatrixClassPage(result.items(), result.total(), nextCursor);
     }
 
+    /**
+     * Updates professor, time slot and authorized courses (ED-01 to ED-06).
+     * <p>
+     * Optimistic: nothing is locked while the request is validated. With {@code expectedVersion} (the If-Match
+     * of the request) a class changed since the coordinator read it fails with 412 at once. The change is then
+     * flushed as {@code UPDATE ... WHERE version = ?}, which fails with 412 if another edit committed meanwhile,
+     * and only from there holds the class row until commit. The checks against enrollments run after the flush,
+     * so they see every enrollment that held the row before, and enrollments that lock the row wait for this one.
+     *
+     * @param expectedVersion version the client read, or null to skip that check
+     */
     @Transactional
-    public MatrixClass update(Long classId, UpdateMatrixClassRequest request, Long matrixId, User coordinator) {
+    public MatrixClass update(Long classId, UpdateMatrixClassRequest request, Long matrixId, UserPrincipal coordinator,
+                              Long expectedVersion) {
+        readYourWrites.wrote(coordinator.email());
         CurriculumMatrix matrix = matrixService.getByIdAndCoordinator(matrixId, coordinator);
         MatrixClass matrixClass = getMatrixClassByIdAndMatrix(classId, matrix);
+        checkVersion(matrixClass, expectedVersion);
 
         Professor professor = professorRepository.findById(request.professorId());
         if (professor == null) {
@@ -139,26 +199,7 @@ public class MatrixClassService {
                 .map(c -> c.id)
                 .filter(id -> !newCourseIds.contains(id))
                 .collect(Collectors.toList());
-
-        if (!removedCourseIds.isEmpty()) {
-            for (Long removedCourseId : removedCourseIds) {
-                long count = enrollmentRepository.count(
-                        "matrixClass = ?1 and student.course.id = ?2",
-                        matrixClass, removedCourseId
-                );
-                if (count > 0) {
-                    throw new ConflictException("CONFLICT_INVALIDATE_ENROLLMENTS",
-                            "Não é possível remover cursos autorizados: existem matrículas de alunos desses cursos");
-                }
-            }
-        }
-
-        if (!newTimeSlot.id.equals(matrixClass.timeSlot.id)) {
-            if (wouldCauseScheduleConflict(matrixClass, newTimeSlot)) {
-                throw new ConflictException("CONFLICT_SCHEDULE_CONFLICT",
-                        "Alterar horário causaria conflito de agenda para alunos já matriculados");
-            }
-        }
+        boolean timeSlotChanged = !newTimeSlot.id.equals(matrixClass.timeSlot.id);
 
         List<Course> authorizedCourses = new ArrayList<>();
         for (Long courseId : newCourseIds) {
@@ -173,47 +214,113 @@ public class MatrixClassService {
         matrixClass.timeSlot = newTimeSlot;
         matrixClass.authorizedCourses = authorizedCourses;
         matrixClass.updatedAt = java.time.Instant.now();
+        flushVersioned();
+
+        for (Long removedCourseId : removedCourseIds) {
+            long count = enrollmentRepository.count(
+                    "matrixClass = ?1 and student.course.id = ?2",
+                    matrixClass, removedCourseId
+            );
+            if (count > 0) {
+                throw new ConflictException("CONFLICT_INVALIDATE_ENROLLMENTS",
+                        "Não é possível remover cursos autorizados: existem matrículas de alunos desses cursos");
+            }
+        }
+
+        if (timeSlotChanged && wouldCauseScheduleConflict(matrixClass, newTimeSlot)) {
+            throw new ConflictException("CONFLICT_SCHEDULE_CONFLICT",
+                    "Alterar horário causaria conflito de agenda para alunos já matriculados");
+        }
+        matrixChanged.fire(new MatrixChanged(matrix.id, matrixClass.id));
 
         return matrixClass;
     }
 
     private boolean wouldCauseScheduleConflict(MatrixClass matrixClass, TimeSlot newTimeSlot) {
-        List<Enrollment> enrollments = enrollmentRepository.find("matrixClass", matrixClass).list();
-        for (Enrollment enr : enrollments) {
-            List<Enrollment> otherEnrollments = enrollmentRepository.find(
-                    "student = ?1 and matrixClass != ?2",
-                    enr.student, matrixClass
-            ).list();
-            for (Enrollment other : otherEnrollments) {
-                if (ScheduleConflictUtil.overlaps(newTimeSlot, other.matrixClass.timeSlot)) {
-                    return true;
-                }
-            }
+        return !scheduleConflicts(matrixClass, newTimeSlot).isEmpty();
+    }
+
+    /**
+     * Enrolled students' other classes that overlap the time slot. The query narrows them to overlapping times;
+     * days, meeting patterns included, are compared here as in the enrollment checks ({@link ScheduleConflictUtil}).
+     */
+    private List<ScheduleConflictRow> scheduleConflicts(MatrixClass matrixClass, TimeSlot timeSlot) {
+        return enrollmentRepository.findTimeOverlaps(matrixClass.id, timeSlot.id).stream()
+                .filter(row -> ScheduleConflictUtil.overlaps(timeSlot,
+                        new TimeSlot(row.dayOfWeek(), row.startTime(), row.endTime(), row.timeSlotCode())))
+                .toList();
+    }
+
+    /**
+     * Preview of moving the class to another time slot: the enrolled students whose other classes would
+     * overlap it, with those classes, as checked by {@link #update}. Empty when the slot is the current one.
+     */
+    public List<ScheduleConflictRow> timeSlotImpact(Long classId, Long matrixId, Long timeSlotId,
+                                                    UserPrincipal coordinator) {
+        if (timeSlotId == null) {
+            throw new ValidationException("ID do horário é obrigatório");
         }
-        return false;
+        MatrixClass matrixClass = getByIdAndCoordinator(classId, matrixId, coordinator);
+        TimeSlot timeSlot = timeSlotRepository.findById(timeSlotId);
+        if (timeSlot == null) {
+            throw new ValidationException("Horário não encontrado");
+        }
+        if (timeSlotId.equals(matrixClass.timeSlot.id)) {
+            return List.of();
+        }
+        return scheduleConflicts(matrixClass, timeSlot);
     }
 
+    /**
+     * Soft-deletes the class (DL-01 to DL-04). Versioned and ordered like {@link #update}: the enrollment
+     * check runs once the row is held.
+     *
+     * @param expectedVersion version the client read, or null to skip that check
+     */
     @Transactional
-    public void softDelete(Long classId, Long matrixId, User coordinator) {
+    public void softDelete(Long classId, Long matrixId, UserPrincipal coordinator, Long expectedVersion) {
+        readYourWrites.wrote(coordinator.email());
         CurriculumMatrix matrix = matrixService.getByIdAndCoordinator(matrixId, coordinator);
         MatrixClass matrixClass = getMatrixClassByIdAndMatrix(classId, matrix);
+        checkVersion(matrixClass, expectedVersion);
+
+        matrixClass.softDelete();
+        flushVersioned();
 
         long enrollmentCount = enrollmentRepository.countByMatrixClass(matrixClass);
         if (enrollmentCount > 0) {
             throw new ConflictException("CONFLICT_HAS_ENROLLMENTS",
                     "Não é possível excluir: existem alunos matriculados nesta turma");
         }
-
-        matrixClass.softDelete();
+        matrixChanged.fire(new MatrixChanged(matrix.id, matrixClass.id));
     }
 
-    public MatrixClass getByIdAndCoordinator(Long classId, Long matrixId, User coordinator) {
+    public MatrixClass getByIdAndCoordinator(Long classId, Long matrixId, UserPrincipal coordinator) {
         CurriculumMatrix matrix = matrixService.getByIdAndCoordinator(matrixId, coordinator);
         return getMatrixClassByIdAndMatrix(classId, matrix);
     }
 
+    private static void checkVersion(MatrixClass matrixClass, Long expectedVersion) {
+        if (expectedVersion != null && expectedVersion != matrixClass.version) {
+            throw staleClass();
+        }
+    }
+
+    /** Writes the pending change; the version check of the UPDATE fails if another edit committed first. */
+    private void flushVersioned() {
+        try {
+            matrixClassRepository.flush();
+        } catch (OptimisticLockException e) {
+            throw staleClass();
+        }
+    }
+
+    private static PreconditionFailedException staleClass() {
+        return new PreconditionFailedException("A turma foi alterada desde a última leitura. Recarregue e tente novamente");
+    }
+
     private MatrixClass getMatrixClassByIdAndMatrix(Long classId, CurriculumMatrix matrix) {
-        MatrixClass matrixClass = matrixClassRepository.findById(classId);
+        MatrixClass matrixClass = matrixClassRepository.findByIdWithDetails(classId);
         if (matrixClass == null) {
             throw new NotFoundException("Turma não encontrada");
         }
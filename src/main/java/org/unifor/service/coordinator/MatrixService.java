@@ -1,12 +1,20 @@
 package org.unifor.service.coordinator;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.persistence.OptimisticLockException;
 import jakarta.transaction.Transactional;
 import org.unifor.entity.CurriculumMatrix;
 import org.unifor.entity.User;
 import org.unifor.exception.ForbiddenException;
 import org.unifor.exception.NotFoundException;
+import org.unifor.exception.PreconditionFailedException;
 import org.unifor.repository.CurriculumMatrixRepository;
+import org.unifor.repository.MatrixSummaryRow;
+import org.unifor.repository.UserRepository;
+import org.unifor.security.UserPrincipal;
+import org.unifor.service.MatrixChanged;
+import org.unifor.service.ReadYourWrites;
 
 import java.util.List;
 
@@ -18,47 +26,79 @@ import java.util.List;
 public class MatrixService {
 
     private final CurriculumMatrixRepository matrixRepository;
+    private final UserRepository userRepository;
+    private final Event<MatrixChanged> matrixChanged;
+    private final ReadYourWrites readYourWrites;
 
-    public MatrixService(CurriculumMatrixRepository matrixRepository) {
+    public MatrixService(CurriculumMatrixRepository matrixRepository, UserRepository userRepository,
+                         Event<MatrixChanged> matrixChanged, ReadYourWrites readYourWrites) {
         this.matrixRepository = matrixRepository;
+        this.userRepository = userRepository;
+        this.matrixChanged = matrixChanged;
+        this.readYourWrites = readYourWrites;
     }
 
     @Transactional
-    public CurriculumMatrix create(String name, User coordinator) {
-        var matrix = new CurriculumMatrix(name.trim(), coordinator);
+    public CurriculumMatrix create(String name, UserPrincipal coordinator) {
+        readYourWrites.wrote(coordinator.email());
+        User coordinatorRef = userRepository.getEntityManager().getReference(User.class, coordinator.id());
+        var matrix = new CurriculumMatrix(name.trim(), coordinatorRef);
         matrix.active = false;
         matrix.persist();
         return matrix;
     }
 
-    public List<CurriculumMatrix> listByCoordinator(User coordinator) {
-        return matrixRepository.findByCoordinator(coordinator);
+    public List<MatrixSummaryRow> listByCoordinator(UserPrincipal coordinator) {
+        return matrixRepository.findSummariesByCoordinatorId(coordinator.id(), readYourWrites.readFrom(coordinator));
     }
 
     /**
      * Returns the matrix if found and coordinator owns it. Throws otherwise.
      */
-    public CurriculumMatrix getByIdAndCoordinator(Long matrixId, User coordinator) {
+    public CurriculumMatrix getByIdAndCoordinator(Long matrixId, UserPrincipal coordinator) {
         CurriculumMatrix matrix = matrixRepository.findById(matrixId);
         if (matrix == null) {
             throw new NotFoundException("Matriz não encontrada");
         }
-        if (!matrix.coordinator.id.equals(coordinator.id)) {
+        checkOwner(matrix.coordinator.id, coordinator);
+        return matrix;
+    }
+
+    /**
+     * Same checks as {@link #getByIdAndCoordinator} for read paths that only need the matrix id,
+     * without loading the matrix.
+     */
+    public void checkAccess(Long matrixId, UserPrincipal coordinator) {
+        Long coordinatorId = matrixRepository.findCoordinatorId(matrixId)
+                .orElseThrow(() -> new NotFoundException("Matriz não encontrada"));
+        checkOwner(coordinatorId, coordinator);
+    }
+
+    private static void checkOwner(Long coordinatorId, UserPrincipal coordinator) {
+        if (!coordinatorId.equals(coordinator.id())) {
             throw new ForbiddenException("Acesso negado: matriz pertence a outro coordenador");
         }
-        return matrix;
     }
 
     /**
      * Activates the matrix. Deactivates all other matrices first (at most one active).
+     * Two activations racing on the same active matrix both update it; the version check lets only one commit,
+     * the other fails with 412.
      */
     @Transactional
-    public void activate(Long matrixId, User coordinator) {
+    public void activate(Long matrixId, UserPrincipal coordinator) {
+        readYourWrites.wrote(coordinator.email());
         CurriculumMatrix matrix = getByIdAndCoordinator(matrixId, coordinator);
 
         for (CurriculumMatrix active : matrixRepository.findAllActive()) {
             active.active = false;
         }
         matrix.active = true;
+        try {
+            matrixRepository.flush();
+        } catch (OptimisticLockException e) {
+            throw new PreconditionFailedException("A matriz ativa foi alterada por outra requisição. Tente novamente");
+        }
+        matrixChanged.fire(new MatrixChanged(matrix.id, null));
     }
 }
@@ -18,6 +18,16 @@ public enum PeriodOfDay {
         this.end = end;
     }
 
+    /** Inclusive lower bound of start_time. */
+    public LocalTime start() {
+        return start;
+    }
+
+    /** Exclusive upper bound of start_time; null for EVENING, which runs to the end of the day. */
+    public LocalTime endOrNull() {
+        return end == LocalTime.MAX ? null : end;
+    }
+
     public boolean contains(LocalTime time) {
         return !time.isBefore(start) && (end == LocalTime.MAX || time.isBefore(end));
     }
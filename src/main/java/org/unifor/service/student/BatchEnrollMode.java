@@ -0,0 +1,17 @@
+package org.unifor.service.student;
+
+/**
+ * What {@link EnrollmentService#enrollBatch} does when some classes of the batch cannot be enrolled.
+ */
+public enum BatchEnrollMode {
+
+    /**
+     * Any rejected class rejects the whole batch: nothing is enrolled.
+     */
+    ALL_OR_NOTHING,
+
+    /**
+     * Classes that pass every check are enrolled; the others are reported with their conflict code.
+     */
+    PARTIAL
+}
@@ -0,0 +1,42 @@
+package org.unifor.service.student;
+
+import org.unifor.entity.Enrollment;
+import org.unifor.repository.EnrollmentRow;
+import org.unifor.exception.UniforException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Result of one class of a multi-class enrollment. {@code code} is {@link #ENROLLED} (with the new enrollment),
+ * one of the conflict codes of the single enrollment ({@code CONFLICT_SCHEDULE}, {@code CONFLICT_NO_SEATS}, ...),
+ * {@code NOT_FOUND}, or {@link #NOT_ENROLLED} for a valid class left out because the batch was rejected.
+ */
+public record BatchEnrollOutcome(Long matrixClassId, String code, String message, EnrollmentRow enrollment) {
+
+    public static final String ENROLLED = "ENROLLED";
+    public static final String NOT_ENROLLED = "NOT_ENROLLED";
+
+    static BatchEnrollOutcome enrolled(Enrollment enrollment) {
+        return new BatchEnrollOutcome(enrollment.matrixClass.id, ENROLLED, "Matrícula realizada",
+                EnrollmentRow.of(enrollment));
+    }
+
+    static BatchEnrollOutcome rejected(Long matrixClassId, UniforException reason) {
+        return new BatchEnrollOutcome(matrixClassId, reason.getErrorCode(), reason.getMessage(), null);
+    }
+
+    static BatchEnrollOutcome notEnrolled(Long matrixClassId) {
+        return new BatchEnrollOutcome(matrixClassId, NOT_ENROLLED,
+                "Matrícula não realizada: outra turma do lote foi rejeitada", null);
+    }
+
+    /** Error-response details entry (no enrollment: a rejected batch enrolls nothing). */
+    Map<String, Object> toDetails() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("matrixClassId", matrixClassId);
+        details.put("code", code);
+        details.put("message", message);
+        return details;
+    }
+}
@@ -0,0 +1,382 @@
+package org.unifor.service.student;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.unifor.config.AdmissionConfig;
+import org.unifor.dto.response.EnrollmentResponse;
+import org.unifor.dto.response.ErrorResponse;
+import org.unifor.exception.NotFoundException;
+import org.unifor.exception.ServiceUnavailableException;
+import org.unifor.exception.UniforException;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Waiting room in front of enroll. An enrollment runs only while it holds a permit of its class
+ * ({@code per-class-permits}) and a global one ({@code global-permits}), so a registration rush cannot park
+ * every request thread and connection on the same class row lock.
+ * <p>
+ * A request that gets both permits within {@code admission-wait} runs at once. Otherwise it becomes an
+ * {@link EnrollmentTicket} in its class's line, and the student polls the ticket. Whenever permits free up,
+ * the oldest ticket whose class has a free permit takes them and only then goes to a worker, so a hot class
+ * whose permits are all taken holds back its own line but neither the workers nor the tickets of other
+ * classes. While tickets are waiting, new requests queue behind them instead of trying the fast path. A full
+ * queue ({@code queue-capacity}) answers 503.
+ * <p>
+ * Nothing is kept for idle classes: a class line is dropped as soon as no request holds or waits for it.
+ * Every 30 seconds, tickets queued longer than {@code queue-timeout} are rejected with {@code QUEUE_TIMEOUT}
+ * and finished tickets older than {@code ticket-ttl} are dropped.
+ * <p>
+ * Metrics: {@code unifor.admission.queue.depth}, {@code unifor.admission.in.flight},
+ * {@code unifor.admission.wait} (timer tagged {@code path=immediate|queued}; its count is the admission
+ * rate), {@code unifor.admission.rejected} and {@code unifor.admission.expired}.
+ */
+@ApplicationScoped
+public class EnrollmentAdmission {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    /**
+     * Result of {@link #submit}: the enrollment when it ran at once, otherwise the ticket to poll.
+     */
+    public record Admission(EnrollmentResponse enrollment, EnrollmentTicket ticket) {}
+
+    private record Queued(EnrollmentTicket ticket, String key, ClassLine line, Supplier<EnrollmentResponse> enroll,
+                          long arrival) {}
+
+    /** Permits and waiting tickets of one class. The tickets are guarded by {@link #lines}. */
+    private static final class ClassLine {
+        final Long matrixClassId;
+        final Semaphore permits;
+        final ArrayDeque<Queued> waiting = new ArrayDeque<>();
+        /** Requests running in or queued for the class; only changed inside {@link #classLines} compute calls. */
+        int users;
+
+        ClassLine(Long matrixClassId, int permits) {
+            this.matrixClassId = matrixClassId;
+            this.permits = new Semaphore(permits, true);
+        }
+
+        long head() {
+            return waiting.getFirst().ticket().sequence;
+        }
+    }
+
+    private final AdmissionConfig config;
+    private final Semaphore globalPermits;
+    /** Lines of the classes with requests running or queued; see {@link #join} and {@link #leave}. */
+    private final Map<Long, ClassLine> classLines = new ConcurrentHashMap<>();
+    /** Classes with waiting tickets, oldest first ticket first. */
+    private final PriorityQueue<ClassLine> lines = new PriorityQueue<>(Comparator.comparingLong(ClassLine::head));
+    private final Map<String, EnrollmentTicket> tickets = new ConcurrentHashMap<>();
+    /** Queued tickets by student and class: a student resubmitting while queued keeps their place. */
+    private final Map<String, EnrollmentTicket> queuedByRequest = new ConcurrentHashMap<>();
+    private final ExecutorService workers;
+    private final ScheduledExecutorService sweeper;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong admittedFromQueue = new AtomicLong();
+    private final Timer immediateWait;
+    private final Timer queuedWait;
+    private final Counter rejected;
+    private final Counter expired;
+
+    public EnrollmentAdmission(AdmissionConfig config, MeterRegistry registry) {
+        this.config = config;
+        this.globalPermits = new Semaphore(config.globalPermits(), true);
+        this.workers = Executors.newFixedThreadPool(config.globalPermits(),
+                Thread.ofPlatform().name("enrollment-admission-", 1).daemon(true).factory());
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("enrollment-admission-sweeper").daemon(true).factory());
+        sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_INTERVAL_NANOS, SWEEP_INTERVAL_NANOS, TimeUnit.NANOSECONDS);
+        Gauge.builder("unifor.admission.queue.depth", waiting, AtomicInteger::get)
+                .description("Enroll requests waiting for admission")
+                .register(registry);
+        Gauge.builder("unifor.admission.in.flight", globalPermits,
+                        permits -> config.globalPermits() - permits.availablePermits())
+                .description("Enrollments currently running")
+                .register(registry);
+        this.immediateWait = waitTimer(registry, "immediate");
+        this.queuedWait = waitTimer(registry, "queued");
+        this.rejected = Counter.builder("unifor.admission.rejected")
+                .description("Enroll requests refused because the queue was full")
+                .register(registry);
+        this.expired = Counter.builder("unifor.admission.expired")
+                .description("Queued enroll requests rejected after waiting longer than queue-timeout")
+                .register(registry);
+    }
+
+    /**
+     * Runs {@code enroll} now if permits can be had within {@code admission-wait}; otherwise queues it and
+     * returns its ticket.
+     *
+     * @throws ServiceUnavailableException when the queue is full
+     */
+    public Admission submit(Long matrixClassId, Long studentId, Supplier<EnrollmentResponse> enroll) {
+        if (!config.enabled()) {
+            return new Admission(enroll.get(), null);
+        }
+        ClassLine line = join(matrixClassId);
+        long arrival = System.nanoTime();
+        if (waiting.get() == 0 && tryAcquire(line.permits, arrival + config.admissionWait().toNanos())) {
+            immediateWait.record(System.nanoTime() - arrival, TimeUnit.NANOSECONDS);
+            try {
+                return new Admission(enroll.get(), null);
+            } finally {
+                release(line.permits);
+                leave(line);
+            }
+        }
+        return new Admission(null, enqueue(matrixClassId, studentId, line, enroll, arrival));
+    }
+
+    /**
+     * The student's ticket.
+     *
+     * @throws NotFoundException if the ticket does not exist, has expired or belongs to another student
+     */
+    public EnrollmentTicket getTicket(String ticketId, Long studentId) {
+        EnrollmentTicket ticket = tickets.get(ticketId);
+        if (ticket == null || !ticket.studentId().equals(studentId)) {
+            throw new NotFoundException("Solicitação de matrícula não encontrada");
+        }
+        return ticket;
+    }
+
+    /**
+     * Approximate number of tickets ahead of this one, counting itself; null once it left the queue.
+     * Tickets of different classes can be admitted out of order, so this is a hint for the client.
+     */
+    public Long position(EnrollmentTicket ticket) {
+        if (ticket.status() != EnrollmentTicket.Status.QUEUED) {
+            return null;
+        }
+        return Math.max(1, ticket.sequence - admittedFromQueue.get());
+    }
+
+    /**
+     * Rejects tickets queued longer than {@code queue-timeout} and drops finished tickets older than
+     * {@code ticket-ttl}. Runs every 30 seconds.
+     */
+    void sweep() {
+        long queuedBefore = System.nanoTime() - config.queueTimeout().toNanos();
+        List<Queued> timedOut = new ArrayList<>();
+        synchronized (lines) {
+            for (ClassLine line : List.copyOf(lines)) {
+                if (line.waiting.stream().noneMatch(queued -> queued.arrival() - queuedBefore < 0)) {
+                    continue;
+                }
+                // The head of the line may change, so take it out of the priority queue meanwhile
+                lines.remove(line);
+                for (Iterator<Queued> it = line.waiting.iterator(); it.hasNext(); ) {
+                    Queued queued = it.next();
+                    if (queued.arrival() - queuedBefore < 0) {
+                        it.remove();
+                        timedOut.add(queued);
+                    }
+                }
+                if (!line.waiting.isEmpty()) {
+                    lines.add(line);
+                }
+            }
+        }
+        for (Queued queued : timedOut) {
+            waiting.decrementAndGet();
+            expired.increment();
+            queuedByRequest.remove(queued.key(), queued.ticket());
+            queued.ticket().reject(new ErrorResponse("QUEUE_TIMEOUT",
+                    "Tempo de espera na fila esgotado. Tente matricular-se novamente"));
+            leave(queued.line());
+        }
+
+        Instant cutoff = Instant.now().minus(config.ticketTtl());
+        tickets.values().removeIf(t -> t.finishedAt() != null && t.finishedAt().isBefore(cutoff));
+    }
+
+    /** Number of classes with a line; lines of idle classes are dropped. */
+    int classLineCount() {
+        return classLines.size();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sweeper.shutdownNow();
+        workers.shutdownNow();
+        List<Queued> dropped = new ArrayList<>();
+        synchronized (lines) {
+            for (ClassLine line : lines) {
+                dropped.addAll(line.waiting);
+                line.waiting.clear();
+            }
+            lines.clear();
+        }
+        dropped.forEach(this::rejectOnShutdown);
+    }
+
+    /**
+     * Queues the request, which holds a {@link #join} of {@code line}. A new ticket keeps it until it finishes;
+     * otherwise (resubmission, full queue) it is given back here.
+     */
+    private EnrollmentTicket enqueue(Long matrixClassId, Long studentId, ClassLine line,
+                                     Supplier<EnrollmentResponse> enroll, long arrival) {
+        var created = new ArrayList<Queued>(1);
+        try {
+            EnrollmentTicket ticket = queuedByRequest.computeIfAbsent(studentId + ":" + matrixClassId, key -> {
+                if (waiting.get() >= config.queueCapacity()) {
+                    rejected.increment();
+                    throw new ServiceUnavailableException("QUEUE_FULL",
+                            "Fila de matrícula cheia. Tente novamente em instantes", config.retryAfter());
+                }
+                waiting.incrementAndGet();
+                var issuedTicket = new EnrollmentTicket(UUID.randomUUID().toString(), studentId, matrixClassId,
+                        issued.incrementAndGet());
+                tickets.put(issuedTicket.id(), issuedTicket);
+                created.add(new Queued(issuedTicket, key, line, enroll, arrival));
+                return issuedTicket;
+            });
+            if (!created.isEmpty()) {
+                synchronized (lines) {
+                    line.waiting.add(created.getFirst());
+                    if (line.waiting.size() == 1) {
+                        lines.add(line);
+                    }
+                }
+                dispatch();
+            }
+            return ticket;
+        } finally {
+            if (created.isEmpty()) {
+                leave(line);
+            }
+        }
+    }
+
+    /** The class's line, created if needed, counting the caller as a user until {@link #leave}. */
+    private ClassLine join(Long matrixClassId) {
+        return classLines.compute(matrixClassId, (id, line) -> {
+            ClassLine joined = line != null ? line : new ClassLine(id, config.perClassPermits());
+            joined.users++;
+            return joined;
+        });
+    }
+
+    /** Gives back a {@link #join}; the last user drops the line, so idle classes keep nothing in memory. */
+    private void leave(ClassLine line) {
+        classLines.computeIfPresent(line.matrixClassId, (id, current) -> --current.users == 0 ? null : current);
+    }
+
+    /**
+     * Starts waiting tickets while permits allow: each time the oldest first ticket of a class whose class
+     * permit is free, once a global permit is free too. Classes without a free permit keep their place.
+     */
+    private void dispatch() {
+        synchronized (lines) {
+            List<ClassLine> full = new ArrayList<>();
+            ClassLine line;
+            while ((line = lines.peek()) != null) {
+                if (!line.permits.tryAcquire()) {
+                    full.add(lines.poll());
+                    continue;
+                }
+                if (!globalPermits.tryAcquire()) {
+                    line.permits.release();
+                    break;
+                }
+                lines.poll();
+                Queued next = line.waiting.removeFirst();
+                if (!line.waiting.isEmpty()) {
+                    lines.add(line);
+                }
+                start(next);
+            }
+            lines.addAll(full);
+        }
+    }
+
+    /** Hands an admitted ticket, which holds both permits, to a worker. */
+    private void start(Queued queued) {
+        waiting.decrementAndGet();
+        admittedFromQueue.incrementAndGet();
+        queuedWait.record(System.nanoTime() - queued.arrival(), TimeUnit.NANOSECONDS);
+        try {
+            workers.execute(() -> runAdmitted(queued));
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the permits are not needed anymore
+            rejectOnShutdown(queued);
+        }
+    }
+
+    private void rejectOnShutdown(Queued queued) {
+        queuedByRequest.remove(queued.key(), queued.ticket());
+        queued.ticket().reject(new ErrorResponse("QUEUE_SHUTDOWN", "Servidor reiniciando. Tente matricular-se novamente"));
+        leave(queued.line());
+    }
+
+    private void runAdmitted(Queued queued) {
+        EnrollmentTicket ticket = queued.ticket();
+        try {
+            ticket.complete(queued.enroll().get());
+        } catch (UniforException e) {
+            ticket.reject(new ErrorResponse(e.getErrorCode(), e.getMessage(), e.getDetails()));
+        } catch (RuntimeException e) {
+            ticket.reject(new ErrorResponse("INTERNAL_ERROR", "Não foi possível processar a matrícula"));
+        } finally {
+            queuedByRequest.remove(queued.key(), ticket);
+            release(queued.line().permits);
+            leave(queued.line());
+        }
+    }
+
+    private boolean tryAcquire(Semaphore classPermit, long deadline) {
+        try {
+            if (!classPermit.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+            if (globalPermits.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return true;
+            }
+            classPermit.release();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void release(Semaphore classPermit) {
+        globalPermits.release();
+        classPermit.release();
+        if (waiting.get() > 0) {
+            dispatch();
+        }
+    }
+
+    private static Timer waitTimer(MeterRegistry registry, String path) {
+        return Timer.builder("unifor.admission.wait")
+                .description("Time from arrival to admission of an enroll request")
+                .tag("path", path)
+                .register(registry);
+    }
+}
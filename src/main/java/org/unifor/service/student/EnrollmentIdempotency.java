@@ -0,0 +1,248 @@
+package org.unifor.service.student;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.cache.CaffeineCache;
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.narayana.jta.QuarkusTransactionException;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.persistence.PersistenceException;
+import org.jboss.logging.Logger;
+import org.unifor.config.IdempotencyConfig;
+import org.unifor.dto.response.EnrollmentResponse;
+import org.unifor.dto.response.ErrorResponse;
+import org.unifor.exception.ConflictException;
+import org.unifor.exception.NotFoundException;
+import org.unifor.exception.UniforException;
+import org.unifor.exception.ValidationException;
+import org.unifor.repository.IdempotencyKeyRepository;
+import org.unifor.repository.IdempotencyKeyRow;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for enroll (POST /api/student/enrollments). The first outcome of a key (201 with the
+ * enrollment, or 404/409 with the error) is stored per student and key for {@code ttl}, and retries are
+ * answered from it without admission, class row lock or validation.
+ * <p>
+ * Outcomes are stored when the enrollment finishes, also for requests answered with a ticket (202): a retry
+ * while the ticket is queued gets the same ticket from {@link EnrollmentAdmission}, a retry after it finished
+ * gets its outcome. 503 and unexpected errors are not stored, so a retry runs again.
+ * <p>
+ * Stored outcomes live in {@code enrollment_idempotency_keys}, fronted by the
+ * {@code quarkus.cache.caffeine."idempotency-keys"} cache. Duplicates that arrive on the same node while the
+ * first is running wait for it instead of running too. Duplicates running at once on two nodes both run; the
+ * second one's outcome (already enrolled) is returned to it but not stored.
+ * <p>
+ * Metrics: {@code unifor.idempotency.replayed{source=memory|store}}, {@code unifor.idempotency.collapsed} and
+ * {@code unifor.idempotency.store.failures{operation=save|cleanup}} (each failure is also logged at WARN).
+ */
+@ApplicationScoped
+public class EnrollmentIdempotency {
+
+    public static final String HEADER = "Idempotency-Key";
+    /** Set to {@code true} on responses answered from a stored outcome. */
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    public static final String CACHE_NAME = "idempotency-keys";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final int CLEANUP_BATCH = 1000;
+    private static final Logger LOG = Logger.getLogger(EnrollmentIdempotency.class);
+
+    private final IdempotencyKeyRepository repository;
+    private final IdempotencyConfig config;
+    private final ObjectMapper objectMapper;
+    private final CaffeineCache stored;
+    /** Requests running per student and key; duplicates wait for them. */
+    private final Map<String, CompletableFuture<Void>> running = new ConcurrentHashMap<>();
+    private final Counter memoryReplays;
+    private final Counter storeReplays;
+    private final Counter collapsed;
+    private final Counter saveFailures;
+    private final Counter cleanupFailures;
+    private ScheduledExecutorService cleanup;
+
+    public EnrollmentIdempotency(IdempotencyKeyRepository repository,
+                                 IdempotencyConfig config,
+                                 ObjectMapper objectMapper,
+                                 @CacheName(CACHE_NAME) Cache cache,
+                                 MeterRegistry registry) {
+        this.repository = repository;
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.stored = cache.as(CaffeineCache.class);
+        this.memoryReplays = replayCounter(registry, "memory");
+        this.storeReplays = replayCounter(registry, "store");
+        this.collapsed = Counter.builder("unifor.idempotency.collapsed")
+                .description("Duplicate enroll requests that waited for the running one instead of running")
+                .register(registry);
+        this.saveFailures = failureCounter(registry, "save");
+        this.cleanupFailures = failureCounter(registry, "cleanup");
+    }
+
+    void start(@Observes StartupEvent event) {
+        cleanup = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("idempotency-cleanup").daemon(true).factory());
+        long interval = config.cleanupInterval().toNanos();
+        cleanup.scheduleWithFixedDelay(this::deleteExpired,
+                interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (cleanup != null) {
+            cleanup.shutdownNow();
+        }
+    }
+
+    /**
+     * Answers with {@code replay} when the key has a stored outcome; otherwise runs {@code request}, after any
+     * duplicate already running on this node. {@code request} should store its outcome through
+     * {@link #recording}.
+     *
+     * @throws ValidationException if the key is blank or longer than 255 characters
+     * @throws ConflictException   if the key was used for another class
+     */
+    public <T> T execute(Long studentId, String key, Long matrixClassId,
+                         Function<IdempotencyKeyRow, T> replay, Supplier<T> request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency-Key deve ter de 1 a " + MAX_KEY_LENGTH + " caracteres");
+        }
+        String id = studentId + ":" + key;
+        IdempotencyKeyRow cached = cached(id);
+        if (cached != null) {
+            memoryReplays.increment();
+            return replay(cached, matrixClassId, replay);
+        }
+        while (true) {
+            CompletableFuture<Void> mine = new CompletableFuture<>();
+            CompletableFuture<Void> other = running.putIfAbsent(id, mine);
+            if (other != null) {
+                collapsed.increment();
+                // Whatever it ended with, look again: a stored outcome is replayed, otherwise this one runs
+                other.join();
+                continue;
+            }
+            try {
+                IdempotencyKeyRow found = find(id, studentId, key);
+                if (found != null) {
+                    return replay(found, matrixClassId, replay);
+                }
+                return request.get();
+            } finally {
+                running.remove(id, mine);
+                mine.complete(null);
+            }
+        }
+    }
+
+    /**
+     * {@code enroll}, storing its outcome under the key when it finishes: the enrollment (201) or a
+     * not-found/conflict error. Storing runs in its own transaction after the enrollment committed; if it
+     * fails, a retry simply runs again.
+     */
+    public Supplier<EnrollmentResponse> recording(Long studentId, String key, Long matrixClassId,
+                                                  Supplier<EnrollmentResponse> enroll) {
+        return () -> {
+            EnrollmentResponse enrollment;
+            try {
+                enrollment = enroll.get();
+            } catch (ConflictException e) {
+                store(studentId, key, matrixClassId, 409, error(e));
+                throw e;
+            } catch (NotFoundException e) {
+                store(studentId, key, matrixClassId, 404, error(e));
+                throw e;
+            }
+            store(studentId, key, matrixClassId, 201, enrollment);
+            return enrollment;
+        };
+    }
+
+    private IdempotencyKeyRow find(String id, Long studentId, String key) {
+        IdempotencyKeyRow cached = cached(id);
+        if (cached != null) {
+            memoryReplays.increment();
+            return cached;
+        }
+        IdempotencyKeyRow found = QuarkusTransaction.requiringNew()
+                .call(() -> repository.find(studentId, key, config.ttl()).orElse(null));
+        if (found != null) {
+            storeReplays.increment();
+            stored.put(id, CompletableFuture.completedFuture(found));
+        }
+        return found;
+    }
+
+    private IdempotencyKeyRow cached(String id) {
+        CompletableFuture<Object> hit = stored.getIfPresent(id);
+        return hit != null ? (IdempotencyKeyRow) hit.join() : null;
+    }
+
+    private void store(Long studentId, String key, Long matrixClassId, int status, Object body) {
+        try {
+            var row = new IdempotencyKeyRow(matrixClassId, status, objectMapper.writeValueAsString(body));
+            if (QuarkusTransaction.requiringNew().call(() -> repository.save(studentId, key, row, config.ttl()))) {
+                stored.put(studentId + ":" + key, CompletableFuture.completedFuture(row));
+            }
+        } catch (JsonProcessingException | PersistenceException | QuarkusTransactionException e) {
+            // Not stored: a retry runs the enrollment again and gets its live outcome
+            saveFailures.increment();
+            LOG.warnf(e, "Idempotency-Key outcome of student %d not stored", studentId);
+        }
+    }
+
+    private void deleteExpired() {
+        try {
+            int deleted;
+            do {
+                deleted = QuarkusTransaction.requiringNew()
+                        .call(() -> repository.deleteExpired(config.ttl(), CLEANUP_BATCH));
+            } while (deleted == CLEANUP_BATCH);
+        } catch (PersistenceException | QuarkusTransactionException e) {
+            // Retried at the next interval; expired entries are ignored meanwhile
+            cleanupFailures.increment();
+            LOG.warn("Expired Idempotency-Key outcomes not deleted; retrying at the next interval", e);
+        }
+    }
+
+    private static <T> T replay(IdempotencyKeyRow row, Long matrixClassId, Function<IdempotencyKeyRow, T> replay) {
+        if (!row.matrixClassId().equals(matrixClassId)) {
+            throw new ConflictException("CONFLICT_IDEMPOTENCY_KEY_REUSED",
+                    "Idempotency-Key já usada em uma matrícula de outra turma");
+        }
+        return replay.apply(row);
+    }
+
+    private static ErrorResponse error(UniforException e) {
+        return new ErrorResponse(e.getErrorCode(), e.getMessage(), e.getDetails());
+    }
+
+    private static Counter failureCounter(MeterRegistry registry, String operation) {
+        return Counter.builder("unifor.idempotency.store.failures")
+                .description("Idempotency-Key outcomes that could not be stored, or cleanups that failed")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    private static Counter replayCounter(MeterRegistry registry, String source) {
+        return Counter.builder("unifor.idempotency.replayed")
+                .description("Enroll requests answered from a stored Idempotency-Key outcome")
+                .tag("source", source)
+                .register(registry);
+    }
+}
@@ -0,0 +1,97 @@
+package org.unifor.service.student;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.unifor.exception.ConflictException;
+import org.unifor.exception.UniforException;
+import org.unifor.service.ContentionRetry;
+
+import java.util.function.Supplier;
+
+/**
+ * Enrollment meters, served with the rest of the registry at {@code /q/metrics}:
+ * <ul>
+ *   <li>{@code unifor.enrollment.enroll}: timer of {@link EnrollmentService#enroll} and
+ *       {@link EnrollmentService#enrollBatch}, tagged {@code mode=single|batch} and {@code outcome} (ENROLLED,
+ *       the error code, CONTENTION for an attempt that failed on a row lock, or ERROR). Measured per attempt
+ *       inside the transaction, so commit time is only in the endpoint's {@code http.server.requests}.</li>
+ *   <li>{@code unifor.enrollment.list.available}: timer of {@link EnrollmentService#listAvailable}.</li>
+ *   <li>{@code unifor.enrollment.lock.wait}: time taken by the SELECT FOR UPDATE on the class rows in
+ *       PESSIMISTIC seat mode, tagged {@code mode=single|batch}; under contention this is the row lock wait.</li>
+ *   <li>{@code unifor.enrollment.conflicts}: rejected enrollments by conflict code ({@code CONFLICT_NO_SEATS},
+ *       {@code CONFLICT_SCHEDULE}, ...); each rejected class of a batch counts once.</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class EnrollmentMetrics {
+
+    static final String ENROLL = "unifor.enrollment.enroll";
+    static final String LIST_AVAILABLE = "unifor.enrollment.list.available";
+    static final String LOCK_WAIT = "unifor.enrollment.lock.wait";
+    static final String CONFLICTS = "unifor.enrollment.conflicts";
+
+    private final MeterRegistry registry;
+    private final Timer listAvailable;
+
+    public EnrollmentMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.listAvailable = Timer.builder(LIST_AVAILABLE)
+                .description("Time to list the classes a student can enroll in")
+                .register(registry);
+    }
+
+    /**
+     * Runs {@code enroll}, recording its time with the outcome, and counts the conflict it was rejected with.
+     */
+    <T> T enroll(String mode, Supplier<T> enroll) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "ERROR";
+        try {
+            T result = enroll.get();
+            outcome = BatchEnrollOutcome.ENROLLED;
+            return result;
+        } catch (UniforException e) {
+            outcome = e.getErrorCode();
+            if ("single".equals(mode)) {
+                conflict(e);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            if (ContentionRetry.contentionState(e) != null) {
+                outcome = "CONTENTION";
+            }
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(ENROLL)
+                    .description("Time to validate and persist an enrollment")
+                    .tag("mode", mode)
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    <T> T listAvailable(Supplier<T> list) {
+        return listAvailable.record(list);
+    }
+
+    <T> T lockWait(String mode, Supplier<T> lock) {
+        return Timer.builder(LOCK_WAIT)
+                .description("Time to lock the class rows of an enrollment (SELECT FOR UPDATE)")
+                .tag("mode", mode)
+                .register(registry)
+                .record(lock);
+    }
+
+    /** Counts {@code rejection} when it is a conflict; other errors (not found, validation) are not counted. */
+    void conflict(UniforException rejection) {
+        if (rejection instanceof ConflictException) {
+            Counter.builder(CONFLICTS)
+                    .description("Enrollments rejected by a business conflict")
+                    .tag("code", rejection.getErrorCode())
+                    .register(registry)
+                    .increment();
+        }
+    }
+}
@@ -1,18 +1,35 @@
 package org.unifor.service.student;
 
 import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.persistence.PersistenceException;
 import jakarta.transaction.Transactional;
+import org.hibernate.exception.ConstraintViolationException;
+import org.unifor.config.EnrollmentConfig;
 import org.unifor.entity.*;
 import org.unifor.exception.ConflictException;
 import org.unifor.exception.NotFoundException;
+import org.unifor.exception.UniforException;
+import org.unifor.exception.ValidationException;
+import org.unifor.repository.AvailableClassRepository;
+import org.unifor.repository.AvailableClassRow;
 import org.unifor.repository.CurriculumMatrixRepository;
+import org.unifor.repository.EnrolledSlotRow;
 import org.unifor.repository.EnrollmentRepository;
+import org.unifor.repository.EnrollmentRow;
 import org.unifor.repository.MatrixClassRepository;
-import org.unifor.service.ScheduleConflictUtil;
+import org.unifor.repository.ReadFrom;
+import org.unifor.repository.UserRepository;
+import org.unifor.security.UserPrincipal;
+import org.unifor.service.ActiveMatrixCatalog;
+import org.unifor.service.ActiveMatrixSnapshot;
+import org.unifor.service.ReadYourWrites;
+import org.unifor.service.RetryOnContention;
+import org.unifor.service.SeatInventory;
+import org.unifor.service.SeatsChanged;
+import org.unifor.service.Timetable;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.*;
 
 /**
  * Student service for enrollments. Enforces VE-01 to VE-03, EN-01 to EN-08.
@@ -22,67 +39,115 @@ public class EnrollmentService {
 
     private final EnrollmentRepository enrollmentRepository;
     private final MatrixClassRepository matrixClassRepository;
+    private final UserRepository userRepository;
     private final CurriculumMatrixRepository curriculumMatrixRepository;
+    private final AvailableClassRepository availableClassRepository;
+    private final ActiveMatrixCatalog activeMatrixCatalog;
+    private final SeatInventory seatInventory;
+    private final EnrollmentConfig config;
+    private final EnrollmentMetrics metrics;
+    private final ReadYourWrites readYourWrites;
+    private final StudentLocks studentLocks;
+    private final Event<SeatsChanged> seatsChanged;
 
     public EnrollmentService(EnrollmentRepository enrollmentRepository,
                              MatrixClassRepository matrixClassRepository,
-                             CurriculumMatrixRepository curriculumMatrixRepository) {
+                             UserRepository userRepository,
+                             CurriculumMatrixRepository curriculumMatrixRepository,
+                             AvailableClassRepository availableClassRepository,
+                             ActiveMatrixCatalog activeMatrixCatalog,
+                             SeatInventory seatInventory,
+                             EnrollmentConfig config,
+                             EnrollmentMetrics metrics,
+                             ReadYourWrites readYourWrites,
+                             StudentLocks studentLocks,
+                             Event<SeatsChanged> seatsChanged) {
         this.enrollmentRepository = enrollmentRepository;
         this.matrixClassRepository = matrixClassRepository;
+        this.userRepository = userRepository;
         this.curriculumMatrixRepository = curriculumMatrixRepository;
+        this.availableClassRepository = availableClassRepository;
+        this.activeMatrixCatalog = activeMatrixCatalog;
+        this.seatInventory = seatInventory;
+        this.config = config;
+        this.metrics = metrics;
+        this.readYourWrites = readYourWrites;
+        this.studentLocks = studentLocks;
+        this.seatsChanged = seatsChanged;
     }
 
     /**
      * Lists student's enrollments in active (non-soft-deleted) classes only (VE-03).
      */
-    public List<Enrollment> listEnrolled(User student) {
-        List<Enrollment> enrollments = enrollmentRepository.findByStudent(student);
-        return enrollments.stream()
-                .filter(e -> e.matrixClass != null) // exclude soft-deleted classes
-                .collect(Collectors.toList());
+    public List<EnrollmentRow> listEnrolled(UserPrincipal student) {
+        return enrollmentRepository.findRowsByStudentId(student.id(), readYourWrites.readFrom(student));
     }
 
     /**
      * Lists classes the student can enroll in. From active matrix only.
      * Filters: authorized for course, available seats, no schedule conflict, not already enrolled, not same subject (EN-08).
+     * Class metadata comes from the {@link ActiveMatrixCatalog}; the student's enrollments and the seat counts
+     * of the remaining candidates are read live, one query each.
      */
-    public List<MatrixClass> listAvailable(User student, Optional<Long> matrixId, Optional<Long> subjectId) {
-        CurriculumMatrix activeMatrix = curriculumMatrixRepository.findActive();
-        if (activeMatrix == null) {
+    public List<AvailableClassRow> listAvailable(UserPrincipal student, Optional<Long> matrixId, Optional<Long> subjectId) {
+        return metrics.listAvailable(() -> findAvailable(student, matrixId, subjectId));
+    }
+
+    private List<AvailableClassRow> findAvailable(UserPrincipal student, Optional<Long> matrixId, Optional<Long> subjectId) {
+        if (student.courseId() == null) {
             return List.of();
         }
-
-        if (matrixId.isPresent() && !activeMatrix.id.equals(matrixId.get())) {
+        ActiveMatrixSnapshot catalog = activeMatrixCatalog.current();
+        if (catalog.matrixId() == null || matrixId.filter(id -> !id.equals(catalog.matrixId())).isPresent()) {
+            return List.of();
+        }
+        int[] authorized = catalog.classesForCourse(student.courseId());
+        if (authorized.length == 0) {
             return List.of();
         }
 
-        List<MatrixClass> classes = matrixClassRepository.findByMatrix(activeMatrix);
-        List<Enrollment> studentEnrollments = enrollmentRepository.findByStudent(student);
-
-        return classes.stream()
-                .filter(mc -> subjectId.isEmpty() || mc.subject.id.equals(subjectId.get()))
-                .filter(mc -> isAuthorizedForStudentCourse(mc, student))
-                .filter(mc -> hasAvailableSeats(mc))
-                .filter(mc -> !isAlreadyEnrolled(mc, studentEnrollments))
-                .filter(mc -> !hasSameSubjectEnrollment(mc, studentEnrollments))
-                .filter(mc -> !hasScheduleConflict(mc, studentEnrollments))
-                .collect(Collectors.toList());
-    }
+        ReadFrom from = readYourWrites.readFrom(student);
+        List<EnrolledSlotRow> enrolled = availableClassRepository.findEnrolledSlots(student.id(), from);
+        Set<Long> enrolledClassIds = new HashSet<>();
+        Set<Long> enrolledSubjectIds = new HashSet<>();
+        List<TimeSlot> enrolledSlots = new ArrayList<>();
+        for (EnrolledSlotRow row : enrolled) {
+            enrolledClassIds.add(row.matrixClassId());
+            enrolledSubjectIds.add(row.subjectId());
+            enrolledSlots.add(new TimeSlot(row.dayOfWeek(), row.startTime(), row.endTime(), row.timeSlotCode()));
+        }
+        Timetable timetable = Timetable.of(enrolledSlots);
 
-    private boolean isAuthorizedForStudentCourse(MatrixClass mc, User student) {
-        if (student.course == null) return false;
-        return mc.authorizedCourses.stream()
-                .anyMatch(c -> c.id.equals(student.course.id));
-    }
+        List<Integer> candidates = new ArrayList<>();
+        for (int position : authorized) {
+            long subject = catalog.subjectId(position);
+            if (subjectId.isPresent() && subjectId.get() != subject) continue;
+            if (enrolledClassIds.contains(catalog.id(position))) continue;
+            if (enrolledSubjectIds.contains(subject)) continue;
+            if (catalog.conflictsWith(position, timetable)) continue;
+            candidates.add(position);
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
 
-    private boolean hasAvailableSeats(MatrixClass mc) {
-        long count = enrollmentRepository.countByMatrixClass(mc);
-        return count < mc.maxStudents;
+        Map<Long, Long> reservedSeats = availableClassRepository.findReservedSeats(
+                candidates.stream().map(catalog::id).toList(), from);
+        List<AvailableClassRow> available = new ArrayList<>();
+        for (int position : candidates) {
+            Long reserved = reservedSeats.get(catalog.id(position));
+            // Missing: the class was soft-deleted after the snapshot was built
+            if (reserved != null && reserved < catalog.maxStudents(position)) {
+                available.add(catalog.toRow(position, reserved));
+            }
+        }
+        return available;
     }
 
-    private boolean isAlreadyEnrolled(MatrixClass mc, List<Enrollment> studentEnrollments) {
-        return studentEnrollments.stream()
-                .anyMatch(e -> e.matrixClass.id.equals(mc.id));
+    private boolean isAuthorizedForStudentCourse(MatrixClass mc, UserPrincipal student) {
+        if (student.courseId() == null) return false;
+        return mc.authorizedCourses.stream()
+                .anyMatch(c -> c.id.equals(student.courseId()));
     }
 
     private boolean hasSameSubjectEnrollment(MatrixClass mc, List<Enrollment> studentEnrollments) {
@@ -91,59 +156,283 @@ public class EnrollmentService {
     }
 
     private boolean hasScheduleConflict(MatrixClass mc, List<Enrollment> studentEnrollments) {
-        TimeSlot candidateSlot = mc.timeSlot;
-        return studentEnrollments.stream()
+        Timetable timetable = Timetable.of(studentEnrollments.stream()
                 .filter(e -> e.matrixClass != null)
-                .anyMatch(e -> ScheduleConflictUtil.overlaps(candidateSlot, e.matrixClass.timeSlot));
+                .map(e -> e.matrixClass.timeSlot)
+                .toList());
+        return timetable.conflictsWith(mc.timeSlot);
     }
 
     /**
      * Enrolls student in a class. Validates EN-01 to EN-08.
      * <p>
-     * Concurrency (Phase 5, CC-01, CC-02, CC-03): Uses SELECT FOR UPDATE (PESSIMISTIC_WRITE)
-     * on the MatrixClass row. Lock is acquired first, then seat check, conflict check,
-     * and duplicate-subject check run in the same transaction. Isolation level:
-     * PostgreSQL default READ COMMITTED. Lock is held until commit, preventing overbooking.
+     * Concurrency (Phase 5, CC-01, CC-02, CC-03) depends on {@code unifor.enrollment.seat-mode}:
+     * <ul>
+     *   <li>PESSIMISTIC: SELECT FOR UPDATE (PESSIMISTIC_WRITE) on the MatrixClass row first, then seat check,
+     *       conflict check and duplicate-subject check in the same transaction. Lock is held until commit.</li>
+     *   <li>COUNTER: validations run without a lock; the seat is reserved last by a conditional UPDATE on
+     *       enrolled_count, so the row is locked only between that UPDATE and commit.</li>
+     * </ul>
+     * Classes with seat buckets reserve from a bucket row instead of enrolled_count (see {@link SeatInventory});
+     * in COUNTER mode they never lock the class row at all.
+     * Isolation level: PostgreSQL default READ COMMITTED. Seat counters are maintained in both modes.
+     * <p>
+     * In both modes the student is locked first (see {@link #lockStudent}), so concurrent enrollments of one
+     * student in different classes check the subject (EN-08) and schedule rules one after the other.
+     * <p>
+     * Row locks are waited for at most {@code unifor.enrollment.lock-timeout}; an attempt that times out (or
+     * deadlocks) is retried in a new transaction by {@link RetryOnContention}, and answered with 503 once the
+     * retries are spent. The transaction starts here, so the enrollment is returned as a row.
+     * The class is announced with {@link SeatsChanged} once the enrollment commits.
      */
+    @RetryOnContention
     @Transactional
-    public Enrollment enroll(Long matrixClassId, User student) {
-        MatrixClass matrixClass = matrixClassRepository.findByIdForUpdate(matrixClassId);
+    public EnrollmentRow enroll(Long matrixClassId, UserPrincipal student) {
+        readYourWrites.wrote(student.email());
+        EnrollmentRow enrollment = metrics.enroll("single", () -> EnrollmentRow.of(enrollOne(matrixClassId, student)));
+        seatsChanged.fire(new SeatsChanged(List.of(matrixClassId)));
+        return enrollment;
+    }
+
+    private Enrollment enrollOne(Long matrixClassId, UserPrincipal student) {
+        lockStudent(student);
+        boolean pessimistic = config.seatMode() == SeatAccountingMode.PESSIMISTIC;
+        MatrixClass matrixClass = pessimistic
+                ? metrics.lockWait("single", () -> matrixClassRepository.findByIdForUpdate(matrixClassId))
+                : matrixClassRepository.findById(matrixClassId);
         if (matrixClass == null) {
             throw new NotFoundException("Turma não encontrada");
         }
 
         CurriculumMatrix activeMatrix = curriculumMatrixRepository.findActive();
         if (activeMatrix == null || !matrixClass.matrix.id.equals(activeMatrix.id)) {
-            throw new ConflictException("CONFLICT_MATRIX_INACTIVE", "Turma não está na matriz ativa");
+            throw matrixInactive();
         }
 
         if (!isAuthorizedForStudentCourse(matrixClass, student)) {
-            throw new ConflictException("CONFLICT_UNAUTHORIZED_COURSE",
-                    "Turma não autorizada para o curso do estudante");
+            throw unauthorizedCourse();
         }
 
-        long enrollmentCount = enrollmentRepository.countByMatrixClass(matrixClass);
-        if (enrollmentCount >= matrixClass.maxStudents) {
-            throw new ConflictException("CONFLICT_NO_SEATS", "Não há vagas disponíveis nesta turma");
+        if (pessimistic) {
+            long enrollmentCount = enrollmentRepository.countByMatrixClass(matrixClass);
+            if (enrollmentCount >= matrixClass.maxStudents) {
+                throw noSeats();
+            }
         }
 
-        if (enrollmentRepository.existsByMatrixClassAndStudent(matrixClass, student)) {
-            throw new ConflictException("CONFLICT_ALREADY_ENROLLED", "Estudante já matriculado nesta turma");
+        if (enrollmentRepository.existsByMatrixClassAndStudentId(matrixClass, student.id())) {
+            throw alreadyEnrolled();
         }
 
-        List<Enrollment> studentEnrollments = enrollmentRepository.findByStudent(student);
+        List<Enrollment> studentEnrollments = enrollmentRepository.findByStudentId(student.id());
         if (hasSameSubjectEnrollment(matrixClass, studentEnrollments)) {
-            throw new ConflictException("CONFLICT_DUPLICATE_SUBJECT",
-                    "Estudante já matriculado nesta disciplina em outra turma");
+            throw duplicateSubject();
         }
 
         if (hasScheduleConflict(matrixClass, studentEnrollments)) {
-            throw new ConflictException("CONFLICT_SCHEDULE",
-                    "Conflito de horário com outra disciplina matriculada");
+            throw scheduleConflict();
         }
 
-        var enrollment = new Enrollment(matrixClass, student);
+        if (!seatInventory.reserve(matrixClass, student.id())) {
+            throw noSeats();
+        }
+
+        User studentRef = userRepository.getEntityManager().getReference(User.class, student.id());
+        var enrollment = new Enrollment(matrixClass, studentRef);
         enrollment.persist();
+        try {
+            enrollmentRepository.flush();
+        } catch (PersistenceException e) {
+            // COUNTER mode: a concurrent request of the same student won the UNIQUE (matrix_class_id, student_id) race
+            if (e.getCause() instanceof ConstraintViolationException) {
+                throw alreadyEnrolled();
+            }
+            throw e;
+        }
         return enrollment;
     }
+
+    /**
+     * Enrolls the student in several classes in one transaction (EN-01 to EN-08 for each class).
+     * <p>
+     * Every class is checked in one pass, in request order, against a single read of the student's enrollments
+     * and against the classes accepted earlier in the same batch (schedule and subject conflicts). Seats are then
+     * reserved in ascending class id order; in PESSIMISTIC seat mode the class rows are first locked with one
+     * {@code SELECT ... ORDER BY id FOR UPDATE}. Taking row locks in a global order means two concurrent batches
+     * never wait on each other in a cycle; the student lock is taken before all of them, as in {@link #enroll}.
+     * The enrollments are inserted with a single flush, batched by JDBC
+     * ({@code quarkus.hibernate-orm.jdbc.statement-batch-size}).
+     * <p>
+     * With {@link BatchEnrollMode#ALL_OR_NOTHING} the first rejected class rejects the batch; with
+     * {@link BatchEnrollMode#PARTIAL} the accepted classes are enrolled and the others reported. When nothing
+     * is enrolled the call fails with {@code CONFLICT_BATCH_REJECTED}, listing the outcome of every class in
+     * the error details; the transaction is rolled back.
+     *
+     * Lock waits are bounded and retried like {@link #enroll}; the enrolled classes are announced like there.
+     *
+     * @return one outcome per requested class, in request order
+     */
+    @RetryOnContention
+    @Transactional
+    public List<BatchEnrollOutcome> enrollBatch(List<Long> matrixClassIds, BatchEnrollMode mode, UserPrincipal student) {
+        readYourWrites.wrote(student.email());
+        List<BatchEnrollOutcome> outcomes = metrics.enroll("batch", () -> enrollAll(matrixClassIds, mode, student));
+        seatsChanged.fire(new SeatsChanged(outcomes.stream()
+                .filter(outcome -> outcome.enrollment() != null)
+                .map(BatchEnrollOutcome::matrixClassId)
+                .toList()));
+        return outcomes;
+    }
+
+    private List<BatchEnrollOutcome> enrollAll(List<Long> matrixClassIds, BatchEnrollMode mode, UserPrincipal student) {
+        if (new HashSet<>(matrixClassIds).size() != matrixClassIds.size()) {
+            throw new ValidationException("Turma repetida na lista de matrículas");
+        }
+        lockStudent(student);
+        List<Long> lockOrder = matrixClassIds.stream().sorted().toList();
+        if (config.seatMode() == SeatAccountingMode.PESSIMISTIC) {
+            metrics.lockWait("batch", () -> matrixClassRepository.lockInIdOrder(lockOrder));
+        }
+        Map<Long, MatrixClass> classes = new HashMap<>();
+        for (MatrixClass mc : matrixClassRepository.findForEnrollment(lockOrder)) {
+            classes.put(mc.id, mc);
+        }
+        CurriculumMatrix activeMatrix = curriculumMatrixRepository.findActive();
+
+        Set<Long> enrolledClassIds = new HashSet<>();
+        Set<Long> subjectIds = new HashSet<>();
+        List<TimeSlot> enrolledSlots = new ArrayList<>();
+        for (EnrolledSlotRow row : availableClassRepository.findEnrolledSlots(student.id(), ReadFrom.PRIMARY)) {
+            enrolledClassIds.add(row.matrixClassId());
+            subjectIds.add(row.subjectId());
+            enrolledSlots.add(new TimeSlot(row.dayOfWeek(), row.startTime(), row.endTime(), row.timeSlotCode()));
+        }
+        Timetable timetable = Timetable.of(enrolledSlots);
+
+        Map<Long, BatchEnrollOutcome> outcomes = new LinkedHashMap<>();
+        List<MatrixClass> accepted = new ArrayList<>();
+        for (Long id : matrixClassIds) {
+            MatrixClass mc = classes.get(id);
+            UniforException rejection = null;
+            if (mc == null) {
+                rejection = new NotFoundException("Turma não encontrada");
+            } else if (activeMatrix == null || !mc.matrix.id.equals(activeMatrix.id)) {
+                rejection = matrixInactive();
+            } else if (!isAuthorizedForStudentCourse(mc, student)) {
+                rejection = unauthorizedCourse();
+            } else if (enrolledClassIds.contains(id)) {
+                rejection = alreadyEnrolled();
+            } else if (subjectIds.contains(mc.subject.id)) {
+                rejection = duplicateSubject();
+            } else if (timetable.conflictsWith(mc.timeSlot)) {
+                rejection = scheduleConflict();
+            }
+            if (rejection != null) {
+                metrics.conflict(rejection);
+                outcomes.put(id, BatchEnrollOutcome.rejected(id, rejection));
+                continue;
+            }
+            outcomes.put(id, null);
+            accepted.add(mc);
+            subjectIds.add(mc.subject.id);
+            timetable = timetable.with(mc.timeSlot);
+        }
+        if (mode == BatchEnrollMode.ALL_OR_NOTHING && accepted.size() < matrixClassIds.size()) {
+            throw batchRejected(outcomes);
+        }
+
+        accepted.sort(Comparator.comparing(mc -> mc.id));
+        List<MatrixClass> reserved = new ArrayList<>();
+        for (MatrixClass mc : accepted) {
+            if (seatInventory.reserve(mc, student.id())) {
+                reserved.add(mc);
+                continue;
+            }
+            ConflictException noSeats = noSeats();
+            metrics.conflict(noSeats);
+            outcomes.put(mc.id, BatchEnrollOutcome.rejected(mc.id, noSeats));
+            if (mode == BatchEnrollMode.ALL_OR_NOTHING) {
+                throw batchRejected(outcomes);
+            }
+        }
+        if (reserved.isEmpty()) {
+            throw batchRejected(outcomes);
+        }
+
+        // Persisted after every seat reservation: those native UPDATEs would flush pending inserts one by one
+        User studentRef = userRepository.getEntityManager().getReference(User.class, student.id());
+        List<Enrollment> enrollments = new ArrayList<>();
+        for (MatrixClass mc : reserved) {
+            var enrollment = new Enrollment(mc, studentRef);
+            enrollment.persist();
+            enrollments.add(enrollment);
+        }
+        try {
+            enrollmentRepository.flush();
+        } catch (PersistenceException e) {
+            // A concurrent request of the same student enrolled in one of the classes first
+            if (e.getCause() instanceof ConstraintViolationException) {
+                throw alreadyEnrolled();
+            }
+            throw e;
+        }
+        for (Enrollment enrollment : enrollments) {
+            outcomes.put(enrollment.matrixClass.id, BatchEnrollOutcome.enrolled(enrollment));
+        }
+        return List.copyOf(outcomes.values());
+    }
+
+    /**
+     * Enters the student's critical section, before any class row is locked: the in-process stripe
+     * ({@link StudentLocks}), then the lock timeout of the transaction, then the student's advisory lock.
+     * Same-node duplicates thus wait without a connection, and every enrollment takes its locks in the same order.
+     */
+    private void lockStudent(UserPrincipal student) {
+        studentLocks.lock(student.id());
+        applyLockTimeout();
+        userRepository.lockStudent(student.id());
+    }
+
+    private void applyLockTimeout() {
+        if (!config.lockTimeout().isZero()) {
+            matrixClassRepository.setLockTimeout(config.lockTimeout());
+        }
+    }
+
+    /**
+     * Nothing enrolled: the outcome of every class goes to the error details. Accepted classes that were
+     * not enrolled because of another class (no outcome yet) are reported as {@link BatchEnrollOutcome#NOT_ENROLLED}.
+     */
+    private static ConflictException batchRejected(Map<Long, BatchEnrollOutcome> outcomes) {
+        List<Map<String, Object>> details = new ArrayList<>();
+        outcomes.forEach((id, outcome) -> details.add(outcome == null
+                ? BatchEnrollOutcome.notEnrolled(id).toDetails()
+                : outcome.toDetails()));
+        return new ConflictException("CONFLICT_BATCH_REJECTED", "Nenhuma matrícula do lote foi realizada",
+                Map.of("outcomes", details));
+    }
+
+    private static ConflictException matrixInactive() {
+        return new ConflictException("CONFLICT_MATRIX_INACTIVE", "Turma não está na matriz ativa");
+    }
+
+    private static ConflictException unauthorizedCourse() {
+        return new ConflictException("CONFLICT_UNAUTHORIZED_COURSE", "Turma não autorizada para o curso do estudante");
+    }
+
+    private static ConflictException duplicateSubject() {
+        return new ConflictException("CONFLICT_DUPLICATE_SUBJECT", "Estudante já matriculado nesta disciplina em outra turma");
+    }
+
+    private static ConflictException scheduleConflict() {
+        return new ConflictException("CONFLICT_SCHEDULE", "Conflito de horário com outra disciplina matriculada");
+    }
+
+    private static ConflictException noSeats() {
+        return new ConflictException("CONFLICT_NO_SEATS", "Não há vagas disponíveis nesta turma");
+    }
+
+    private static ConflictException alreadyEnrolled() {
+        return new ConflictException("CONFLICT_ALREADY_ENROLLED", "Estudante já matriculado nesta turma");
+    }
 }
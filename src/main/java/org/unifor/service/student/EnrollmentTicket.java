@@ -0,0 +1,83 @@
+package org.unifor.service.student;
+
+import org.unifor.dto.response.EnrollmentResponse;
+import org.unifor.dto.response.ErrorResponse;
+
+import java.time.Instant;
+
+/**
+ * An enroll request that could not be admitted at once (see {@link EnrollmentAdmission}). Polled by the
+ * student until it leaves {@link Status#QUEUED}.
+ */
+public final class EnrollmentTicket {
+
+    public enum Status {
+        /** Waiting for an admission permit. */
+        QUEUED,
+        /** Enrollment created; {@link #enrollment()} is set. */
+        ENROLLED,
+        /** Enrollment refused (no seats, conflict, ...); {@link #error()} is set. */
+        REJECTED
+    }
+
+    private final String id;
+    private final Long studentId;
+    private final Long matrixClassId;
+    /** Arrival order among queued tickets; the queue position is derived from it. */
+    final long sequence;
+
+    private volatile Status status = Status.QUEUED;
+    private volatile EnrollmentResponse enrollment;
+    private volatile ErrorResponse error;
+    private volatile Instant finishedAt;
+
+    EnrollmentTicket(String id, Long studentId, Long matrixClassId, long sequence) {
+        this.id = id;
+        this.studentId = studentId;
+        this.matrixClassId = matrixClassId;
+        this.sequence = sequence;
+    }
+
+    public String id() {
+        return id;
+    }
+
+    public Long studentId() {
+        return studentId;
+    }
+
+    public Long matrixClassId() {
+        return matrixClassId;
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public EnrollmentResponse enrollment() {
+        return enrollment;
+    }
+
+    public ErrorResponse error() {
+        return error;
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    void complete(EnrollmentResponse enrollment) {
+        this.enrollment = enrollment;
+        finish(Status.ENROLLED);
+    }
+
+    void reject(ErrorResponse error) {
+        this.error = error;
+        finish(Status.REJECTED);
+    }
+
+    private void finish(Status status) {
+        this.finishedAt = Instant.now();
+        this.status = status;
+    }
+}
@@ -0,0 +1,19 @@
+package org.unifor.service.student;
+
+/**
+ * How {@link EnrollmentService#enroll} guarantees that a class is never overbooked (CC-01, CC-02).
+ */
+public enum SeatAccountingMode {
+
+    /**
+     * SELECT FOR UPDATE on the class row, then COUNT(*) of enrollments. The row lock is held
+     * for the whole validation sequence (original Phase 5 strategy).
+     */
+    PESSIMISTIC,
+
+    /**
+     * Validations run without locking; the seat is reserved at the end by a single conditional
+     * UPDATE on matrix_classes.enrolled_count. The row lock is only held from that UPDATE to commit.
+     */
+    COUNTER
+}
@@ -0,0 +1,210 @@
+package org.unifor.service.student;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.subscription.MultiEmitter;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.event.TransactionPhase;
+import org.unifor.config.AvailabilityStreamConfig;
+import org.unifor.repository.AvailableClassRepository;
+import org.unifor.repository.ReadFrom;
+import org.unifor.service.ActiveMatrixCatalog;
+import org.unifor.service.ActiveMatrixSnapshot;
+import org.unifor.service.CacheInvalidation;
+import org.unifor.service.MatrixChanged;
+import org.unifor.service.SeatsChanged;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Available seats of the active matrix's classes, pushed to subscribers as they change
+ * (GET /api/student/classes/availability/stream).
+ * <p>
+ * Committed enrollments ({@link SeatsChanged}) only mark their classes; every {@code interval} one thread
+ * reads the live seat counts of the marked classes in a single query and pushes the ones that changed since
+ * the last push. A class therefore gets at most one update per interval, and the query cost depends on the
+ * enrollment rate, not on the number of subscribers. A committed {@link MatrixChanged} (activation, class
+ * create/update/soft delete) rereads every class; classes that left the active matrix are pushed with 0 seats.
+ * Both also arrive from other nodes through the {@link org.unifor.service.CacheInvalidationBus}.
+ * <p>
+ * A new subscriber first gets the seats of every class, then the changes. Subscribers hold no thread: each has
+ * a bounded buffer ({@code subscriber-buffer}), and one that falls behind it is failed (and unsubscribed)
+ * instead of slowing the others down or growing without bound. With no subscribers nothing is queried.
+ * <p>
+ * Subscribers and the last pushed seats are only touched on the feed thread, so they need no locking.
+ */
+@ApplicationScoped
+public class SeatAvailabilityFeed {
+
+    /**
+     * Available seats of a class; 0 also for a class that left the active matrix.
+     */
+    public record Seats(long classId, int availableSeats) {}
+
+    private final ActiveMatrixCatalog activeMatrixCatalog;
+    private final AvailableClassRepository availableClassRepository;
+    private final int subscriberBuffer;
+    private final ScheduledExecutorService feed;
+    /** Classes with a committed enrollment since the last push. */
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean matrixChanged = new AtomicBoolean();
+
+    // Feed thread only
+    private final List<MultiEmitter<? super Seats>> subscribers = new ArrayList<>();
+    private final Map<Long, Integer> capacity = new HashMap<>();
+    private final Map<Long, Integer> published = new HashMap<>();
+    private boolean loaded;
+
+    public SeatAvailabilityFeed(ActiveMatrixCatalog activeMatrixCatalog,
+                                AvailableClassRepository availableClassRepository,
+                                AvailabilityStreamConfig config) {
+        this.activeMatrixCatalog = activeMatrixCatalog;
+        this.availableClassRepository = availableClassRepository;
+        this.subscriberBuffer = config.subscriberBuffer();
+        this.feed = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("seat-availability-feed").daemon(true).factory());
+        long interval = config.interval().toNanos();
+        feed.scheduleWithFixedDelay(this::pushChanges,
+                interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Seats of every class of the active matrix, then each change, until the subscriber cancels. Fails when
+     * the subscriber falls more than {@code subscriber-buffer} updates behind.
+     */
+    public Multi<Seats> subscribe() {
+        return Multi.createFrom().<Seats>emitter(
+                        emitter -> feed.execute(() -> register(emitter)))
+                // Exactly sized, unlike the emitter's own buffer; overflow fails with BackPressureFailure
+                .onOverflow().buffer(subscriberBuffer);
+    }
+
+    void onSeatsChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) SeatsChanged event) {
+        changed.addAll(event.matrixClassIds());
+    }
+
+    void onMatrixChanged(@Observes(during = TransactionPhase.AFTER_SUCCESS) MatrixChanged event) {
+        matrixChanged.set(true);
+    }
+
+    /** Enrollments and matrix changes committed on another node. */
+    void onRemoteChange(@Observes CacheInvalidation invalidation) {
+        if (invalidation.type() == CacheInvalidation.Type.SEATS) {
+            changed.add(invalidation.matrixClassId());
+        } else {
+            matrixChanged.set(true);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        feed.execute(() -> subscribers.forEach(MultiEmitter::complete));
+        feed.shutdown();
+    }
+
+    private void register(MultiEmitter<? super Seats> emitter) {
+        if (!loaded) {
+            try {
+                pushChanges(true);
+            } catch (RuntimeException e) {
+                emitter.fail(e);
+                return;
+            }
+        }
+        subscribers.add(emitter);
+        // Runs after this task, so the emitter is removed even if the snapshot below overflows its buffer
+        emitter.onTermination(() -> onFeedThread(() -> subscribers.remove(emitter)));
+        published.forEach((id, seats) -> emitter.emit(new Seats(id, seats)));
+    }
+
+    private void pushChanges() {
+        if (subscribers.isEmpty()) {
+            // Nobody to push to: stop tracking; the next subscriber starts from a full read
+            loaded = false;
+            published.clear();
+            changed.clear();
+            return;
+        }
+        try {
+            pushChanges(!loaded || matrixChanged.getAndSet(false));
+        } catch (RuntimeException e) {
+            // The marks taken by this attempt are lost: reread everything on the next one
+            matrixChanged.set(true);
+        }
+    }
+
+    private void pushChanges(boolean all) {
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> it = changed.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        if (!all && ids.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> seats = QuarkusTransaction.requiringNew().call(() -> all ? readAll() : read(ids));
+        seats.forEach((id, available) -> {
+            if (!available.equals(published.put(id, available))) {
+                push(new Seats(id, available));
+            }
+        });
+        if (all) {
+            for (Iterator<Long> it = published.keySet().iterator(); it.hasNext(); ) {
+                Long id = it.next();
+                if (!seats.containsKey(id)) {
+                    it.remove();
+                    push(new Seats(id, 0));
+                }
+            }
+        }
+        loaded = true;
+    }
+
+    private Map<Long, Integer> readAll() {
+        ActiveMatrixSnapshot catalog = activeMatrixCatalog.current();
+        capacity.clear();
+        for (int position = 0; position < catalog.size(); position++) {
+            capacity.put(catalog.id(position), catalog.maxStudents(position));
+        }
+        return availableSeats(capacity.keySet());
+    }
+
+    /** Seats of the {@code ids} in the active matrix; classes of other matrices are ignored. */
+    private Map<Long, Integer> read(List<Long> ids) {
+        List<Long> tracked = ids.stream().filter(capacity::containsKey).toList();
+        Map<Long, Integer> seats = availableSeats(tracked);
+        // Missing: soft-deleted after the last full read; its MatrixChanged rereads everything
+        tracked.forEach(id -> seats.putIfAbsent(id, 0));
+        return seats;
+    }
+
+    /** Available seats of the classes that are not soft-deleted, from their live reserved seats. */
+    private Map<Long, Integer> availableSeats(Collection<Long> ids) {
+        Map<Long, Integer> seats = new HashMap<>();
+        availableClassRepository.findReservedSeats(ids, ReadFrom.PRIMARY).forEach((id, reserved) ->
+                seats.put(id, (int) Math.max(0, capacity.get(id) - reserved)));
+        return seats;
+    }
+
+    private void onFeedThread(Runnable task) {
+        try {
+            feed.execute(task);
+        } catch (RejectedExecutionException e) {
+            // Shut down: subscribers are no longer tracked
+        }
+    }
+
+    private void push(Seats update) {
+        for (MultiEmitter<? super Seats> subscriber : subscribers) {
+            subscriber.emit(update);
+        }
+    }
+}
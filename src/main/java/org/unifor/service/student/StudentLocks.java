@@ -0,0 +1,82 @@
+package org.unifor.service.student;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.persistence.LockTimeoutException;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.unifor.config.EnrollmentConfig;
+
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process layer of the per-student critical section of enrollments: one of {@code student-lock-stripes}
+ * semaphores, chosen by student id, held until the current transaction completes. A second enrollment of the
+ * same student on this node waits here, before its transaction takes a connection; the advisory lock taken
+ * next ({@code UserRepository#lockStudent}) serializes the nodes. Students sharing a stripe wait for each other
+ * too, which only costs time.
+ * <p>
+ * The wait is bounded by {@code unifor.enrollment.lock-timeout} and fails like a Postgres lock timeout
+ * (SQLSTATE 55P03), so {@link org.unifor.service.RetryOnContention} retries it.
+ */
+@ApplicationScoped
+public class StudentLocks {
+
+    private final EnrollmentConfig config;
+    private final TransactionSynchronizationRegistry transactions;
+    private final Semaphore[] stripes;
+
+    public StudentLocks(EnrollmentConfig config, TransactionSynchronizationRegistry transactions) {
+        this.config = config;
+        this.transactions = transactions;
+        this.stripes = new Semaphore[config.studentLockStripes()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Semaphore(1);
+        }
+    }
+
+    /**
+     * Takes the student's stripe for the rest of the current transaction; a no-op when this transaction
+     * already holds it.
+     *
+     * @throws LockTimeoutException when the stripe is not free within the lock timeout
+     */
+    public void lock(Long studentId) {
+        Semaphore stripe = stripes[Math.floorMod(Long.hashCode(studentId), stripes.length)];
+        if (transactions.getResource(stripe) != null) {
+            return;
+        }
+        acquire(stripe);
+        try {
+            transactions.putResource(stripe, Boolean.TRUE);
+            transactions.registerInterposedSynchronization(new Synchronization() {
+                @Override
+                public void beforeCompletion() {
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    stripe.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            stripe.release();
+            throw e;
+        }
+    }
+
+    private void acquire(Semaphore stripe) {
+        try {
+            if (config.lockTimeout().isZero()) {
+                stripe.acquire();
+            } else if (!stripe.tryAcquire(config.lockTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                String message = "Outra matrícula do estudante está em andamento";
+                throw new LockTimeoutException(message, new SQLException(message, "55P03"));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
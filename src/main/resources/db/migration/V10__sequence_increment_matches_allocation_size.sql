@@ -0,0 +1,12 @@
+-- Hibernate allocates ids in blocks of 50 (default allocationSize of @GeneratedValue): each nextval
+-- starts a block of 50 ids. With INCREMENT BY 1 consecutive blocks overlapped, so after 50 inserts
+-- (or under concurrent enrollment) new rows reused ids and failed with duplicate key on *_pkey.
+-- Inserts through the column default just consume a whole block.
+ALTER SEQUENCE subjects_seq INCREMENT BY 50;
+ALTER SEQUENCE professors_seq INCREMENT BY 50;
+ALTER SEQUENCE time_slots_seq INCREMENT BY 50;
+ALTER SEQUENCE courses_seq INCREMENT BY 50;
+ALTER SEQUENCE users_seq INCREMENT BY 50;
+ALTER SEQUENCE curriculum_matrices_seq INCREMENT BY 50;
+ALTER SEQUENCE matrix_classes_seq INCREMENT BY 50;
+ALTER SEQUENCE enrollments_seq INCREMENT BY 50;
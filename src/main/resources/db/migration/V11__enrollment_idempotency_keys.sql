@@ -0,0 +1,14 @@
+-- First response of an enroll request sent with an Idempotency-Key, replayed to retries of the same key.
+-- Rows older than unifor.idempotency.ttl are ignored and deleted by the cleanup task.
+
+CREATE TABLE enrollment_idempotency_keys (
+    student_id BIGINT NOT NULL REFERENCES users(id),
+    idempotency_key VARCHAR(255) NOT NULL,
+    matrix_class_id BIGINT NOT NULL,
+    status INTEGER NOT NULL,
+    body TEXT NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+    PRIMARY KEY (student_id, idempotency_key)
+);
+
+CREATE INDEX idx_enrollment_idempotency_keys_created_at ON enrollment_idempotency_keys(created_at);
@@ -0,0 +1,5 @@
+-- Optimistic locking (JPA @Version): coordinator edits check the version they read instead of locking the row.
+-- Seat reservations update enrolled_count with native SQL and leave the version alone.
+
+ALTER TABLE curriculum_matrices ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE matrix_classes ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,12 @@
+-- Seat counter for SeatAccountingMode.COUNTER: enroll reserves a seat with a single conditional UPDATE
+-- instead of SELECT FOR UPDATE + COUNT(*). Maintained by the application in every seat mode.
+
+ALTER TABLE matrix_classes ADD COLUMN enrolled_count INTEGER NOT NULL DEFAULT 0;
+
+-- Backfill from existing enrollments
+UPDATE matrix_classes mc
+SET enrolled_count = (SELECT COUNT(*) FROM enrollments e WHERE e.matrix_class_id = mc.id);
+
+-- Last line of defence against overbooking, whatever the seat mode
+ALTER TABLE matrix_classes
+    ADD CONSTRAINT chk_matrix_classes_enrolled_count CHECK (enrolled_count >= 0 AND enrolled_count <= max_students);
@@ -0,0 +1,16 @@
+-- Seat buckets for hot classes: max_students split across N sub-rows so concurrent enrollments
+-- in the same class update different rows. Opt-in per class (seat_buckets > 1); N = 1 keeps
+-- using matrix_classes.enrolled_count.
+
+ALTER TABLE matrix_classes ADD COLUMN seat_buckets INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE matrix_classes
+    ADD CONSTRAINT chk_matrix_classes_seat_buckets CHECK (seat_buckets >= 1 AND seat_buckets <= max_students);
+
+CREATE TABLE matrix_class_seat_buckets (
+    matrix_class_id BIGINT NOT NULL REFERENCES matrix_classes(id),
+    bucket_no INTEGER NOT NULL,
+    capacity INTEGER NOT NULL CHECK (capacity > 0),
+    enrolled_count INTEGER NOT NULL DEFAULT 0,
+    PRIMARY KEY (matrix_class_id, bucket_no),
+    CHECK (enrolled_count >= 0 AND enrolled_count <= capacity)
+);
@@ -0,0 +1,17 @@
+-- Coordinator class listing (VM-01 to VM-03): filters and keyset pagination run in SQL.
+-- Each sort key is paired with id as tie-breaker; (matrix_id, <key>, id) serves both the
+-- ORDER BY ... LIMIT and the row comparison (key, id) > (:value, :id) of the next page.
+CREATE INDEX idx_matrix_classes_matrix_id_id ON matrix_classes(matrix_id, id);
+CREATE INDEX idx_matrix_classes_matrix_id_max_students ON matrix_classes(matrix_id, max_students, id);
+CREATE INDEX idx_matrix_classes_matrix_id_created_at ON matrix_classes(matrix_id, created_at, id);
+
+-- The (matrix_id, id) index supersedes the single-column one
+DROP INDEX IF EXISTS idx_matrix_classes_matrix_id;
+
+-- authorizedCourseId filter: EXISTS (... WHERE matrix_class_id = mc.id AND course_id = ?) is served by the
+-- primary key (matrix_class_id, course_id); this one covers lookups by course first
+CREATE INDEX idx_matrix_class_authorized_courses_course_id
+    ON matrix_class_authorized_courses(course_id, matrix_class_id);
+
+-- periodOfDay filter: start_time range on time_slots
+CREATE INDEX idx_time_slots_start_time ON time_slots(start_time);
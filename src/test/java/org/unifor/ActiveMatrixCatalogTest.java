@@ -0,0 +1,133 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.*;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * Student reads of available classes go through the active matrix catalog: warm reads skip the
+ * catalog queries, and coordinator changes are visible as soon as they commit.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ActiveMatrixCatalogTest {
+
+    private static final String STUDENT = "rafael.pereira@unifor.br";
+
+    private static Long matrixId;
+    private static Long firstClassId;
+    private static Long secondClassId;
+    private static long coldStatements;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createAndActivateMatrix() {
+        matrixId = createMatrix("Matriz Catalogo");
+
+        firstClassId = createClass(matrixId, 9, 1, 37, "[4]", 10);
+
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void listAvailable_afterActivation_showsNewMatrix() {
+        var statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+                .when()
+                .get("/api/student/classes/available")
+                .then()
+                .statusCode(200)
+                .body("items.id", contains(firstClassId.intValue()))
+                .body("items[0].professor.id", equalTo(1))
+                .body("items[0].availableSeats", equalTo(10));
+        coldStatements = statistics.getPrepareStatementCount();
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void listAvailable_warmCatalog_skipsCatalogQueries() {
+        var statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+                .when()
+                .get("/api/student/classes/available")
+                .then()
+                .statusCode(200)
+                .body("items.id", contains(firstClassId.intValue()));
+        assertTrue(statistics.getPrepareStatementCount() < coldStatements,
+                "Warm catalog must not reload the active matrix");
+    }
+
+    @Order(4)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void coordinatorChanges_updateAndCreate() {
+        given()
+                .contentType(ContentType.JSON)
+                .pathParam("matrixId", matrixId)
+                .pathParam("classId", firstClassId)
+                .body("{\"timeSlotId\":37,\"professorId\":2,\"authorizedCourseIds\":[4]}")
+                .when()
+                .put("/api/coordinator/matrices/{matrixId}/classes/{classId}")
+                .then()
+                .statusCode(200);
+
+        secondClassId = createClass(matrixId, 10, 1, 38, "[4]", 10);
+    }
+
+    @Order(5)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void listAvailable_afterCommit_reflectsChanges() {
+        given()
+                .when()
+                .get("/api/student/classes/available")
+                .then()
+                .statusCode(200)
+                .body("items.id", contains(firstClassId.intValue(), secondClassId.intValue()))
+                .body("items[0].professor.id", equalTo(2));
+    }
+
+    @Order(6)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void coordinatorChanges_softDelete() {
+        given()
+                .pathParam("matrixId", matrixId)
+                .pathParam("classId", secondClassId)
+                .when()
+                .delete("/api/coordinator/matrices/{matrixId}/classes/{classId}")
+                .then()
+                .statusCode(204);
+    }
+
+    @Order(7)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void listAvailable_afterSoftDelete_hidesClass() {
+        given()
+                .when()
+                .get("/api/student/classes/available")
+                .then()
+                .statusCode(200)
+                .body("items.id", contains(firstClassId.intValue()));
+    }
+}
@@ -0,0 +1,152 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * Enroll admission queue, enabled, with one permit per class and no admission wait.
+ * Validation criteria:
+ * - Concurrent enrolls in one class answer 201 (admitted) or 202 (ticket); queued tickets finish ENROLLED or
+ *   REJECTED and the seats are still never overbooked
+ * - A ticket is only visible to its student
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestProfile(AdmissionQueueTest.SingleClassPermitProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AdmissionQueueTest {
+
+    public static class SingleClassPermitProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "unifor.admission.enabled", "true",
+                    "unifor.admission.per-class-permits", "1",
+                    "unifor.admission.admission-wait", "0s");
+        }
+    }
+
+    private static final String[] STUDENT_EMAILS = {
+            "lucas.ferreira@unifor.br",
+            "beatriz.rodrigues@unifor.br",
+            "rafael.pereira@unifor.br",
+            "juliana.martins@unifor.br",
+            "gabriel.costa@unifor.br"
+    };
+
+    private static Long matrixClassId;
+    /** Queued tickets by owner email. */
+    private static final Map<String, String> ticketOwners = new ConcurrentHashMap<>();
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createMatrixAndClassWithFourSeats() {
+        Long matrixId = createMatrix("Matriz Fila de Admissao");
+
+        matrixClassId = createClass(matrixId, 15, 1, 8, "[1,2,4,6]", 4);
+
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = "lucas.ferreira@unifor.br", roles = "student")
+    void concurrentEnroll_queuedTicketsFinish_andSeatsAreNotOverbooked() throws Exception {
+        int n = STUDENT_EMAILS.length;
+        var barrier = new CyclicBarrier(n);
+        var executor = Executors.newFixedThreadPool(n);
+        try {
+            List<Future<Response>> futures = new ArrayList<>();
+            for (String email : STUDENT_EMAILS) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return enroll(email, matrixClassId);
+                }));
+            }
+
+            int enrolled = 0;
+            int noSeats = 0;
+            for (int i = 0; i < n; i++) {
+                Response response = futures.get(i).get(10, TimeUnit.SECONDS);
+                switch (response.getStatusCode()) {
+                    case 201 -> enrolled++;
+                    case 409 -> noSeats++;
+                    case 202 -> {
+                        assertNotNull(response.getHeader("Retry-After"));
+                        String ticketId = response.path("ticketId");
+                        ticketOwners.put(ticketId, STUDENT_EMAILS[i]);
+                        String status = awaitTicket(STUDENT_EMAILS[i], ticketId);
+                        if (status.equals("ENROLLED")) enrolled++;
+                        else noSeats++;
+                    }
+                    default -> fail("Expected 201, 202 or 409, got: " + response.getStatusCode());
+                }
+            }
+
+            assertEquals(4, enrolled, "Exactly 4 enrollments must succeed, admitted or queued");
+            assertEquals(1, noSeats);
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(15, TimeUnit.SECONDS));
+        }
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = "lucas.ferreira@unifor.br", roles = "student")
+    void ticket_unknownOrOtherStudentsTicket_returns404() {
+        ticketOwners.forEach((ticketId, owner) -> {
+            if (!owner.equals("lucas.ferreira@unifor.br")) {
+                given()
+                        .when()
+                        .get("/api/student/enrollments/tickets/{ticketId}", ticketId)
+                        .then()
+                        .statusCode(404);
+            }
+        });
+        given()
+                .when()
+                .get("/api/student/enrollments/tickets/{ticketId}", "no-such-ticket")
+                .then()
+                .statusCode(404)
+                .body("code", equalTo("NOT_FOUND"));
+    }
+
+    private String awaitTicket(String email, String ticketId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Response ticket = given()
+                    .header("X-Test-User-Email", email)
+                    .when()
+                    .get("/api/student/enrollments/tickets/{ticketId}", ticketId);
+            assertEquals(200, ticket.getStatusCode(), ticket.asString());
+            String status = ticket.path("status");
+            if (!status.equals("QUEUED")) {
+                if (status.equals("REJECTED")) {
+                    assertEquals("CONFLICT_NO_SEATS", ticket.path("error.code"));
+                } else {
+                    assertEquals(matrixClassId.intValue(), (int) ticket.path("enrollment.matrixClassId"));
+                }
+                return status;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Ticket " + ticketId + " still queued");
+    }
+}
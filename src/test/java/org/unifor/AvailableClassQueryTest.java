@@ -0,0 +1,91 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.*;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * GET /api/student/classes/available runs a constant number of SQL statements,
+ * whatever the number of classes in the active matrix (single-query availability engine).
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class AvailableClassQueryTest {
+
+    private static Long matrixId;
+    private static long statementsWithOneClass;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createActiveMatrixWithOneClass() {
+        matrixId = createMatrix("Matriz Availability Engine");
+
+        createClass(matrixId, 1, 3, 21, "[6]", 30);
+
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = "juliana.martins@unifor.br", roles = "student")
+    void listAvailable_oneClass_countStatements() {
+        statementsWithOneClass = countStatementsOfListAvailable();
+        assertTrue(statementsWithOneClass > 0);
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_growMatrixToTwelveClasses() {
+        for (int subjectId = 2; subjectId <= 12; subjectId++) {
+            createClass(matrixId, subjectId, 3, subjectId + 20, "[6]", 30);
+        }
+    }
+
+    @Order(4)
+    @Test
+    @TestSecurity(user = "juliana.martins@unifor.br", roles = "student")
+    void listAvailable_twelveClasses_sameStatementCount() {
+        given()
+                .when()
+                .get("/api/student/classes/available")
+                .then()
+                .statusCode(200)
+                .body("items.size()", greaterThanOrEqualTo(2))
+                .body("items[0].availableSeats", equalTo(30))
+                .body("items[0].authorizedForStudentCourse", equalTo(true));
+
+        assertEquals(statementsWithOneClass, countStatementsOfListAvailable(),
+                "Statement count must not grow with the number of classes");
+    }
+
+    private long countStatementsOfListAvailable() {
+        // Warm-up: the first call after a matrix change rebuilds the active matrix catalog and loads the principal.
+        given()
+                .when()
+                .get("/api/student/classes/available")
+                .then()
+                .statusCode(200);
+        var statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+                .when()
+                .get("/api/student/classes/available")
+                .then()
+                .statusCode(200);
+        return statistics.getPrepareStatementCount();
+    }
+}
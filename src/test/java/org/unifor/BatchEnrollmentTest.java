@@ -0,0 +1,192 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * Multi-class enrollment (POST /api/student/enrollments/batch).
+ * Validation criteria:
+ * - ALL_OR_NOTHING: any rejected class rejects the whole batch, nothing is enrolled
+ * - PARTIAL: accepted classes are enrolled, every class gets its own outcome
+ * - Conflicts inside the batch (same slot, same subject) are detected like conflicts with existing enrollments
+ * - Concurrent batches over the same classes in opposite orders finish without deadlock or overbooking
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class BatchEnrollmentTest {
+
+    private static final String STUDENT = "juliana.martins@unifor.br";
+    private static final String OTHER_STUDENT = "rafael.pereira@unifor.br";
+
+    private static Long matrixId;
+    private static Long algorithmsMonday;
+    private static Long dataStructuresMonday;
+    private static Long algorithmsWednesday;
+    private static Long restrictedFriday;
+    private static List<Long> sharedClasses;
+    private static Long singleSeatClass;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createMatrixWithClasses() {
+        matrixId = createMatrix("Matriz Matricula em Lote");
+
+        algorithmsMonday = createClass(matrixId, 1, 3, 16, "[4,6]", 10);
+        dataStructuresMonday = createClass(matrixId, 2, 3, 16, "[4,6]", 10);
+        algorithmsWednesday = createClass(matrixId, 1, 3, 17, "[4,6]", 10);
+        restrictedFriday = createClass(matrixId, 3, 3, 18, "[1]", 10);
+        // T35CD, T24EF and T35EF: no common meeting day or time, so one student can hold all three
+        sharedClasses = List.of(createClass(matrixId, 5, 3, 24, "[4,6]", 10),
+                createClass(matrixId, 6, 3, 26, "[4,6]", 10));
+        singleSeatClass = createClass(matrixId, 7, 3, 29, "[4,6]", 1);
+
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void allOrNothing_scheduleConflictInsideBatch_enrollsNothing() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(batch(List.of(algorithmsMonday, dataStructuresMonday), null))
+                .when()
+                .post("/api/student/enrollments/batch")
+                .then()
+                .statusCode(409)
+                .body("code", equalTo("CONFLICT_BATCH_REJECTED"))
+                .body("details.outcomes.code", contains("NOT_ENROLLED", "CONFLICT_SCHEDULE"));
+
+        given()
+                .when()
+                .get("/api/student/enrollments")
+                .then()
+                .statusCode(200)
+                .body("matrixClassId", not(hasItem(algorithmsMonday.intValue())));
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void partial_enrollsAcceptedClasses_andReportsEachRejection() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(batch(List.of(algorithmsMonday, dataStructuresMonday, algorithmsWednesday, restrictedFriday, 999999L),
+                        "PARTIAL"))
+                .when()
+                .post("/api/student/enrollments/batch")
+                .then()
+                .statusCode(201)
+                .body("enrolled", equalTo(1))
+                .body("items.code", contains("ENROLLED", "CONFLICT_SCHEDULE", "CONFLICT_DUPLICATE_SUBJECT",
+                        "CONFLICT_UNAUTHORIZED_COURSE", "NOT_FOUND"))
+                .body("items[0].enrollment.matrixClassId", equalTo(algorithmsMonday.intValue()));
+    }
+
+    @Order(4)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void allOrNothing_alreadyEnrolledClass_isRejected() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(batch(List.of(algorithmsMonday), "ALL_OR_NOTHING"))
+                .when()
+                .post("/api/student/enrollments/batch")
+                .then()
+                .statusCode(409)
+                .body("details.outcomes[0].code", equalTo("CONFLICT_ALREADY_ENROLLED"));
+    }
+
+    @Order(5)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void repeatedClassId_returns400() {
+        given()
+                .contentType(ContentType.JSON)
+                .body(batch(List.of(algorithmsWednesday, algorithmsWednesday), "PARTIAL"))
+                .when()
+                .post("/api/student/enrollments/batch")
+                .then()
+                .statusCode(400);
+    }
+
+    /**
+     * Two students submit the same three classes in opposite orders; the last class has a single seat.
+     * Locks are taken in ascending id order, so both requests complete: one gets every class, the other
+     * everything but the single seat.
+     */
+    @Order(6)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void concurrentBatches_oppositeOrders_completeWithoutDeadlock() throws Exception {
+        var ascending = new ArrayList<>(sharedClasses);
+        ascending.add(singleSeatClass);
+        var descending = new ArrayList<>(ascending);
+        Collections.reverse(descending);
+
+        var barrier = new CyclicBarrier(2);
+        var executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Response> first = executor.submit(() -> postBatch(STUDENT, ascending, barrier));
+            Future<Response> second = executor.submit(() -> postBatch(OTHER_STUDENT, descending, barrier));
+            Response a = first.get(10, TimeUnit.SECONDS);
+            Response b = second.get(10, TimeUnit.SECONDS);
+
+            assertEquals(201, a.getStatusCode(), a.asString());
+            assertEquals(201, b.getStatusCode(), b.asString());
+            int enrolledA = a.path("enrolled");
+            int enrolledB = b.path("enrolled");
+            assertEquals(5, enrolledA + enrolledB, "Single-seat class must be granted exactly once");
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(15, TimeUnit.SECONDS));
+        }
+    }
+
+    @Order(7)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void afterConcurrentBatches_seatCountsMatchEnrollments() {
+        var classes = given()
+                .pathParam("matrixId", matrixId)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(200)
+                .extract().body().jsonPath();
+        for (Long id : sharedClasses) {
+            assertEquals(2, classes.getInt("items.find { it.id == " + id + " }.currentEnrollments"));
+        }
+        assertEquals(1, classes.getInt("items.find { it.id == " + singleSeatClass + " }.currentEnrollments"));
+    }
+
+    private Response postBatch(String email, List<Long> ids, CyclicBarrier barrier) throws Exception {
+        barrier.await();
+        return given()
+                .header("X-Test-User-Email", email)
+                .contentType(ContentType.JSON)
+                .body(batch(ids, "PARTIAL"))
+                .when()
+                .post("/api/student/enrollments/batch");
+    }
+
+    private static String batch(List<Long> ids, String mode) {
+        return "{\"matrixClassIds\":" + ids + (mode != null ? ",\"mode\":\"" + mode + "\"" : "") + "}";
+    }
+}
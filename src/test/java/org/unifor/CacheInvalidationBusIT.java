@@ -0,0 +1,286 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import io.restassured.specification.RequestSpecification;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.Config;
+import org.eclipse.microprofile.config.ConfigProvider;
+import org.junit.jupiter.api.*;
+
+import javax.sql.DataSource;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * Two nodes on one database: this test's application (node A) and the packaged application started as a second
+ * process (node B, {@code target/quarkus-app}, so it runs with {@code mvn verify -DskipITs=false}). Node B
+ * checks tokens signed by the test against a local public key. Both nodes keep the active matrix catalog for
+ * an hour, so only the invalidation bus can refresh it.
+ * Validation criteria:
+ * - A class created and activated on node A is offered by node B
+ * - A class updated on node B shows the new professor on node A
+ * - After the bus connections are killed, a change made meanwhile still reaches node B: it reconnects and
+ *   flushes its caches
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestProfile(CacheInvalidationBusIT.TwoNodeProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CacheInvalidationBusIT {
+
+    public static class TwoNodeProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "unifor.cache-bus.enabled", "true",
+                    "unifor.cache-bus.reconnect-delay", "200ms",
+                    "unifor.catalog.max-staleness", "1h");
+        }
+    }
+
+    private static final Path PACKAGED_APP = Path.of("target", "quarkus-app", "quarkus-run.jar");
+    private static final Duration WAIT = Duration.ofSeconds(20);
+    private static final String GABRIEL = "gabriel.costa@unifor.br";
+    private static final String CARMEN = "carmen.lima@unifor.br";
+
+    private static SecondNode nodeB;
+    private static Long matrixId;
+    private static Long matrixClassId;
+
+    @Inject
+    DataSource dataSource;
+
+    @AfterAll
+    static void stopSecondNode() {
+        if (nodeB != null) {
+            nodeB.stop();
+        }
+    }
+
+    @Order(1)
+    @Test
+    void secondNode_startsAndListens() throws Exception {
+        assertTrue(Files.exists(PACKAGED_APP), "Package the application first (mvn verify -DskipITs=false)");
+        nodeB = SecondNode.start(ConfigProvider.getConfig());
+
+        await("node B listening", () -> nodeB.connectFlushes() >= 1);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = CARMEN, roles = "coordinator")
+    void classActivatedOnNodeA_isOfferedByNodeB() throws Exception {
+        // Node B caches the catalog before the change
+        nodeB.as(GABRIEL, "student").get("/api/student/classes/available").then().statusCode(200);
+
+        matrixId = createMatrix("Matriz Dois Nós");
+        matrixClassId = createClass(matrixId, 12, 2, 34);
+        activate(matrixId);
+
+        await("class offered by node B", () -> professorOnNodeB() == 2);
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = GABRIEL, roles = "student")
+    void classUpdatedOnNodeB_showsOnNodeA() throws Exception {
+        assertEquals(2, professorOnNodeA());
+
+        updateProfessor(nodeB.as(CARMEN, "coordinator"), 1).statusCode(200);
+
+        await("update visible on node A", () -> professorOnNodeA() == 1);
+    }
+
+    @Order(4)
+    @Test
+    @TestSecurity(user = CARMEN, roles = "coordinator")
+    void changeWhileDisconnected_reachesNodeBThroughFlush() throws Exception {
+        assertEquals(1, professorOnNodeB());
+        double flushes = nodeB.connectFlushes();
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("SELECT pg_terminate_backend(pid) FROM pg_stat_activity "
+                    + "WHERE application_name = 'unifor-cache-bus'");
+        }
+        updateProfessor(given(), 2).statusCode(200);
+
+        await("node B reconnected", () -> nodeB.connectFlushes() > flushes);
+        await("change visible on node B", () -> professorOnNodeB() == 2);
+    }
+
+    private ValidatableResponse updateProfessor(RequestSpecification request, int professorId) {
+        return request
+                .contentType(ContentType.JSON)
+                .pathParam("matrixId", matrixId)
+                .pathParam("classId", matrixClassId)
+                .body("{\"timeSlotId\":34,\"professorId\":" + professorId + ",\"authorizedCourseIds\":[1,2,3,4,5,6]}")
+                .when()
+                .put("/api/coordinator/matrices/{matrixId}/classes/{classId}")
+                .then();
+    }
+
+    private int professorOnNodeA() {
+        return professor(given());
+    }
+
+    private int professorOnNodeB() {
+        return professor(nodeB.as(GABRIEL, "student"));
+    }
+
+    /** Professor of the class in the student's available classes; 0 while the class is not offered. */
+    private static int professor(RequestSpecification request) {
+        List<Integer> professors = request
+                .when()
+                .get("/api/student/classes/available")
+                .then()
+                .statusCode(200)
+                .extract().body().path("items.findAll { it.id == " + matrixClassId + " }.professor.id");
+        return professors.isEmpty() ? 0 : professors.get(0);
+    }
+
+    private static void await(String what, Check check) throws Exception {
+        long deadline = System.nanoTime() + WAIT.toNanos();
+        while (!check.holds()) {
+            if (System.nanoTime() > deadline) {
+                fail("Timed out waiting for " + what + " (node B log: " + SecondNode.LOG + ")");
+            }
+            Thread.sleep(100);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Check {
+        boolean holds() throws Exception;
+    }
+
+    /** The packaged application in its own process, on the same database as this test's application. */
+    private static final class SecondNode {
+
+        static final Path LOG = Path.of("target", "cache-bus-second-node.log");
+        private static final Pattern CONNECT_FLUSHES =
+                Pattern.compile("unifor_cache_bus_flushes_total\\{reason=\"connect\"\\} ([0-9.E]+)");
+
+        private final Process process;
+        private final int port;
+        private final KeyPair keys;
+
+        private SecondNode(Process process, int port, KeyPair keys) {
+            this.process = process;
+            this.port = port;
+            this.keys = keys;
+        }
+
+        static SecondNode start(Config config) throws Exception {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+            generator.initialize(2048);
+            KeyPair keys = generator.generateKeyPair();
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            List<String> command = new ArrayList<>();
+            command.add(ProcessHandle.current().info().command().orElse("java"));
+            command.add("-Dquarkus.http.port=" + port);
+            command.add("-Dquarkus.datasource.jdbc.url=" + config.getValue("quarkus.datasource.jdbc.url", String.class));
+            command.add("-Dquarkus.datasource.username=" + config.getValue("quarkus.datasource.username", String.class));
+            command.add("-Dquarkus.datasource.password=" + config.getValue("quarkus.datasource.password", String.class));
+            // Node A already migrated the schema
+            command.add("-Dquarkus.flyway.migrate-at-start=false");
+            command.add("-Dquarkus.oidc.auth-server-url=");
+            command.add("-Dquarkus.oidc.public-key=" + Base64.getEncoder().encodeToString(keys.getPublic().getEncoded()));
+            command.add("-Dunifor.cache-bus.enabled=true");
+            command.add("-Dunifor.cache-bus.reconnect-delay=200ms");
+            command.add("-Dunifor.catalog.max-staleness=1h");
+            command.add("-jar");
+            command.add(PACKAGED_APP.toString());
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(LOG.toFile())
+                    .start();
+            SecondNode node = new SecondNode(process, port, keys);
+            await("node B started", () -> {
+                if (!process.isAlive()) {
+                    fail("Node B exited, see " + LOG);
+                }
+                try {
+                    return node.anonymous().get("/api/health").statusCode() == 200;
+                } catch (Exception e) {
+                    return false;
+                }
+            });
+            return node;
+        }
+
+        RequestSpecification anonymous() {
+            return given().baseUri("http://localhost").port(port);
+        }
+
+        RequestSpecification as(String email, String role) {
+            return anonymous().header("Authorization", "Bearer " + token(email, role));
+        }
+
+        double connectFlushes() {
+            Matcher matcher = CONNECT_FLUSHES.matcher(anonymous().get("/q/metrics").asString());
+            return matcher.find() ? Double.parseDouble(matcher.group(1)) : 0;
+        }
+
+        void stop() {
+            process.destroy();
+            try {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /** RS256 token with the claims the application reads: e-mail and roles ("groups"). */
+        private String token(String email, String role) {
+            long now = Instant.now().getEpochSecond();
+            String header = base64Url("{\"alg\":\"RS256\",\"typ\":\"JWT\"}");
+            String claims = base64Url("{\"sub\":\"" + email + "\",\"email\":\"" + email + "\",\"groups\":[\"" + role
+                    + "\"],\"iat\":" + now + ",\"exp\":" + (now + 600) + "}");
+            try {
+                Signature signature = Signature.getInstance("SHA256withRSA");
+                signature.initSign(keys.getPrivate());
+                signature.update((header + "." + claims).getBytes(StandardCharsets.US_ASCII));
+                return header + "." + claims + "." + Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private static String base64Url(String json) {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.unifor;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.*;
+import org.unifor.security.UserPrincipalCache;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The current user is resolved once and then served from the current-users cache (AC-05).
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class CurrentUserCacheTest {
+
+    private static final String STUDENT = "gabriel.costa@unifor.br";
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    UserPrincipalCache userPrincipalCache;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void cachedUser_skipsUserLookup() {
+        userPrincipalCache.invalidate(STUDENT);
+        long cold = countStatementsOfListEnrollments();
+        double hitsBefore = cacheGets("hit");
+        long warm = countStatementsOfListEnrollments();
+
+        assertEquals(cold - 1, warm, "Second request must not query users");
+        assertEquals(hitsBefore + 1, cacheGets("hit"));
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void invalidate_forcesLookup() {
+        long warm = countStatementsOfListEnrollments();
+        userPrincipalCache.invalidate(STUDENT);
+        assertEquals(warm + 1, countStatementsOfListEnrollments());
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = "nobody@unifor.br", roles = "student")
+    void unknownUser_isForbidden() {
+        given()
+                .when()
+                .get("/api/student/enrollments")
+                .then()
+                .statusCode(403);
+    }
+
+    private long countStatementsOfListEnrollments() {
+        var statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+                .when()
+                .get("/api/student/enrollments")
+                .then()
+                .statusCode(200);
+        return statistics.getPrepareStatementCount();
+    }
+
+    private double cacheGets(String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets")
+                .tag("cache", UserPrincipalCache.CACHE_NAME)
+                .tag("result", result)
+                .functionCounter();
+        assertNotNull(counter, "cache.gets metric for " + UserPrincipalCache.CACHE_NAME);
+        return counter.count();
+    }
+}
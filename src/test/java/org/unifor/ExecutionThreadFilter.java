@@ -0,0 +1,21 @@
+package org.unifor;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Test-only: reports whether the resource ran on a virtual thread in the {@code X-Test-Virtual-Thread} response
+ * header (response filters of blocking endpoints run on the thread that ran the method).
+ */
+@Provider
+public class ExecutionThreadFilter implements ContainerResponseFilter {
+
+    static final String HEADER = "X-Test-Virtual-Thread";
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        response.getHeaders().putSingle(HEADER, String.valueOf(Thread.currentThread().isVirtual()));
+    }
+}
@@ -0,0 +1,257 @@
+package org.unifor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.cache.Cache;
+import io.quarkus.cache.CacheName;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+import org.unifor.service.student.EnrollmentIdempotency;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.activate;
+import static org.unifor.TestFixtures.count;
+import static org.unifor.TestFixtures.createClass;
+import static org.unifor.TestFixtures.createMatrix;
+import static org.unifor.TestFixtures.lockClassRow;
+
+/**
+ * POST /api/student/enrollments with an Idempotency-Key (cleanup every second, 300ms lock timeout).
+ * Validation criteria:
+ * - A retry of the same key gets the first response (201, same enrollment), marked Idempotent-Replayed
+ * - A retry is answered while another transaction holds the class row, which a new enroll has to wait for
+ * - An error outcome (409) is replayed too; the same key for another class is refused
+ * - Concurrent duplicates create one enrollment and all get its response
+ * - Outcomes survive the in-memory cache; expired ones are deleted and the key runs again
+ * - An outcome the database refuses to store is counted, the enrollment still answers 201, and a retry runs again
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestProfile(IdempotencyKeyTest.IdempotencyProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class IdempotencyKeyTest {
+
+    public static class IdempotencyProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "unifor.idempotency.cleanup-interval", "1s",
+                    "unifor.enrollment.lock-timeout", "300ms",
+                    "unifor.contention.max-attempts", "2",
+                    "unifor.contention.max-backoff", "100ms");
+        }
+    }
+
+    private static final String GABRIEL = "gabriel.costa@unifor.br";
+    private static final String LUCAS = "lucas.ferreira@unifor.br";
+    private static final int DUPLICATES = 20;
+
+    private static Long classA;
+    private static Long classB;
+    private static String firstResponse;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    @CacheName(EnrollmentIdempotency.CACHE_NAME)
+    Cache stored;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createActiveMatrixWithTwoClasses() {
+        Long matrixId = createMatrix("Matriz Idempotência");
+        classA = createClass(matrixId, 12, 2, 34);
+        classB = createClass(matrixId, 15, 1, 39);
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = GABRIEL, roles = "student")
+    void retry_getsFirstResponse() {
+        Response first = enroll("key-1", classA);
+        first.then()
+                .statusCode(201)
+                .header(EnrollmentIdempotency.REPLAYED_HEADER, nullValue())
+                .body("matrixClassId", equalTo(classA.intValue()));
+        firstResponse = first.asString();
+
+        Response retry = enroll("key-1", classA);
+        retry.then()
+                .statusCode(201)
+                .header(EnrollmentIdempotency.REPLAYED_HEADER, "true");
+        assertEquals(firstResponse, retry.asString());
+
+        // Without a key the request runs as before
+        enroll(null, classA).then()
+                .statusCode(409)
+                .body("code", equalTo("CONFLICT_ALREADY_ENROLLED"));
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = GABRIEL, roles = "student")
+    void retry_classRowLocked_answeredWithoutLock() throws Exception {
+        try (Connection lock = lockClassRow(dataSource, classA)) {
+            enroll(null, classA).then()
+                    .statusCode(503)
+                    .body("code", equalTo("CONTENTION"));
+
+            Response retry = enroll("key-1", classA);
+            retry.then()
+                    .statusCode(201)
+                    .header(EnrollmentIdempotency.REPLAYED_HEADER, "true");
+            assertEquals(firstResponse, retry.asString());
+            lock.rollback();
+        }
+    }
+
+    @Order(4)
+    @Test
+    @TestSecurity(user = GABRIEL, roles = "student")
+    void errorOutcome_isReplayed_keyForOtherClass_isRefused() {
+        enroll("key-2", classA).then()
+                .statusCode(409)
+                .header(EnrollmentIdempotency.REPLAYED_HEADER, nullValue())
+                .body("code", equalTo("CONFLICT_ALREADY_ENROLLED"));
+        enroll("key-2", classA).then()
+                .statusCode(409)
+                .header(EnrollmentIdempotency.REPLAYED_HEADER, "true")
+                .body("code", equalTo("CONFLICT_ALREADY_ENROLLED"));
+
+        enroll("key-1", classB).then()
+                .statusCode(409)
+                .body("code", equalTo("CONFLICT_IDEMPOTENCY_KEY_REUSED"));
+        enroll("x".repeat(256), classB).then()
+                .statusCode(400)
+                .body("code", equalTo("VALIDATION_ERROR"));
+    }
+
+    @Order(5)
+    @Test
+    @TestSecurity(user = LUCAS, roles = "student")
+    void concurrentDuplicates_enrollOnce() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(DUPLICATES);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Response>> responses = new ArrayList<>();
+        try {
+            for (int i = 0; i < DUPLICATES; i++) {
+                responses.add(clients.submit(() -> {
+                    start.await();
+                    return enroll("key-3", classB);
+                }));
+            }
+            start.countDown();
+            List<String> bodies = new ArrayList<>();
+            for (Future<Response> response : responses) {
+                Response r = response.get(30, TimeUnit.SECONDS);
+                assertEquals(201, r.statusCode(), r.asString());
+                bodies.add(r.asString());
+            }
+            assertEquals(1, bodies.stream().distinct().count(), "Every duplicate must get the same enrollment");
+        } finally {
+            clients.shutdownNow();
+        }
+        assertEquals(1, count(dataSource, "SELECT count(*) FROM enrollments e JOIN users u ON u.id = e.student_id "
+                + "WHERE u.email = '" + LUCAS + "' AND e.matrix_class_id = " + classB));
+    }
+
+    @Order(6)
+    @Test
+    @TestSecurity(user = GABRIEL, roles = "student")
+    void storedOutcome_outlivesCache_untilExpired() throws Exception {
+        stored.invalidateAll().await().indefinitely();
+        Response fromStore = enroll("key-1", classA);
+        fromStore.then()
+                .statusCode(201)
+                .header(EnrollmentIdempotency.REPLAYED_HEADER, "true");
+        assertEquals(firstResponse, fromStore.asString());
+
+        execute("UPDATE enrollment_idempotency_keys SET created_at = now() - interval '2 days' "
+                + "WHERE idempotency_key = 'key-1'");
+        stored.invalidateAll().await().indefinitely();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+        while (count(dataSource,
+                "SELECT count(*) FROM enrollment_idempotency_keys WHERE idempotency_key = 'key-1'") > 0) {
+            assertTrue(System.nanoTime() < deadline, "Expired outcome was not deleted");
+            Thread.sleep(100);
+        }
+
+        enroll("key-1", classA).then()
+                .statusCode(409)
+                .header(EnrollmentIdempotency.REPLAYED_HEADER, nullValue())
+                .body("code", equalTo("CONFLICT_ALREADY_ENROLLED"));
+    }
+
+    @Order(7)
+    @Test
+    @TestSecurity(user = LUCAS, roles = "student")
+    void storeFailure_isCounted_andRetryRunsAgain() throws Exception {
+        double failures = storeFailures();
+        execute("CREATE FUNCTION refuse_idempotency_key() RETURNS trigger AS $$ "
+                + "BEGIN RAISE EXCEPTION 'idempotency store down'; END $$ LANGUAGE plpgsql");
+        execute("CREATE TRIGGER refuse_idempotency_key BEFORE INSERT ON enrollment_idempotency_keys "
+                + "FOR EACH ROW EXECUTE FUNCTION refuse_idempotency_key()");
+        try {
+            enroll("key-4", classA).then()
+                    .statusCode(201)
+                    .header(EnrollmentIdempotency.REPLAYED_HEADER, nullValue());
+        } finally {
+            execute("DROP TRIGGER refuse_idempotency_key ON enrollment_idempotency_keys");
+            execute("DROP FUNCTION refuse_idempotency_key()");
+        }
+        assertEquals(failures + 1, storeFailures());
+
+        enroll("key-4", classA).then()
+                .statusCode(409)
+                .header(EnrollmentIdempotency.REPLAYED_HEADER, nullValue())
+                .body("code", equalTo("CONFLICT_ALREADY_ENROLLED"));
+    }
+
+    private double storeFailures() {
+        return registry.counter("unifor.idempotency.store.failures", "operation", "save").count();
+    }
+
+    private static Response enroll(String key, Long matrixClassId) {
+        var request = given().contentType(ContentType.JSON);
+        if (key != null) {
+            request.header(EnrollmentIdempotency.HEADER, key);
+        }
+        return request
+                .body("{\"matrixClassId\":" + matrixClassId + "}")
+                .when()
+                .post("/api/student/enrollments");
+    }
+
+    private void execute(String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.executeUpdate();
+        }
+    }
+}
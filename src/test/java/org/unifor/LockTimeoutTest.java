@@ -0,0 +1,132 @@
+package org.unifor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.activate;
+import static org.unifor.TestFixtures.createClass;
+import static org.unifor.TestFixtures.createMatrix;
+import static org.unifor.TestFixtures.lockClassRow;
+
+/**
+ * Bounded row lock waits on enroll (lock-timeout 300ms, up to 3 attempts).
+ * Validation criteria:
+ * - While another transaction holds the class row, enroll does not hang: it retries and then answers
+ *   503 CONTENTION with Retry-After
+ * - A lock released while retrying lets a later attempt enroll (201)
+ * - Retries and give-ups are counted
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestProfile(LockTimeoutTest.ShortLockTimeoutProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class LockTimeoutTest {
+
+    public static class ShortLockTimeoutProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "unifor.enrollment.lock-timeout", "300ms",
+                    "unifor.contention.max-attempts", "3",
+                    "unifor.contention.max-backoff", "100ms",
+                    "unifor.contention.retry-after", "3s");
+        }
+    }
+
+    private static final String OPERATION = "EnrollmentService.enroll";
+
+    private static Long matrixClassId;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createActiveMatrixWithClass() {
+        Long matrixId = createMatrix("Matriz Lock Timeout");
+        matrixClassId = createClass(matrixId, 12, 2, 34);
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = "gabriel.costa@unifor.br", roles = "student")
+    void enroll_rowLockedThroughout_answers503AfterRetries() throws Exception {
+        double retries = count("unifor.contention.retries", "sqlstate", "55P03");
+        double exhausted = count("unifor.contention.exhausted", "reason", "attempts");
+
+        try (Connection lock = lockClassRow(dataSource, matrixClassId)) {
+            long began = System.nanoTime();
+            Response response = enroll();
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - began);
+
+            response.then()
+                    .statusCode(503)
+                    .header("Retry-After", "3")
+                    .body("code", equalTo("CONTENTION"));
+            assertTrue(elapsedMillis < 10_000, "Enroll must give up instead of waiting for the lock: " + elapsedMillis + "ms");
+            lock.rollback();
+        }
+
+        assertEquals(retries + 2, count("unifor.contention.retries", "sqlstate", "55P03"));
+        assertEquals(exhausted + 1, count("unifor.contention.exhausted", "reason", "attempts"));
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = "gabriel.costa@unifor.br", roles = "student")
+    void enroll_lockReleasedWhileRetrying_enrolls() throws Exception {
+        double retries = count("unifor.contention.retries", "sqlstate", "55P03");
+
+        Connection lock = lockClassRow(dataSource, matrixClassId);
+        CompletableFuture<Void> release = CompletableFuture.runAsync(() -> {
+            try (lock) {
+                Thread.sleep(800);
+                lock.rollback();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        enroll().then()
+                .statusCode(201)
+                .body("matrixClassId", equalTo(matrixClassId.intValue()));
+        release.get(10, TimeUnit.SECONDS);
+
+        assertTrue(count("unifor.contention.retries", "sqlstate", "55P03") > retries);
+    }
+
+    private Response enroll() {
+        return given()
+                .contentType(ContentType.JSON)
+                .body("{\"matrixClassId\":" + matrixClassId + "}")
+                .when()
+                .post("/api/student/enrollments");
+    }
+
+    private double count(String name, String tag, String value) {
+        Counter counter = registry.find(name).tags("operation", OPERATION, tag, value).counter();
+        return counter != null ? counter.count() : 0;
+    }
+}
@@ -0,0 +1,95 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.*;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.createClass;
+import static org.unifor.TestFixtures.createMatrix;
+
+/**
+ * GET /api/coordinator/matrices/{matrixId}/classes runs a constant number of SQL statements,
+ * whatever the number of classes in the page (subject, professor, time slot, authorized courses
+ * and seat counts are loaded with the page, not per row).
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+class MatrixClassListQueryTest {
+
+    private static Long matrixId;
+    private static long statementsWithOneClass;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Order(1)
+    @Test
+    void setup_createMatrixWithOneClass() {
+        matrixId = createMatrix("Matriz Listagem Fetch");
+
+        createClass(matrixId, 1, 2, 21, "[6,1]", 30, 1);
+    }
+
+    @Order(2)
+    @Test
+    void list_oneClass_countStatements() {
+        statementsWithOneClass = countStatementsOfList();
+        assertTrue(statementsWithOneClass > 0);
+    }
+
+    @Order(3)
+    @Test
+    void setup_growMatrixToTwelveClasses() {
+        for (int subjectId = 2; subjectId <= 12; subjectId++) {
+            createClass(matrixId, subjectId, 2, subjectId + 20, "[6,1]", 30, subjectId % 2 == 0 ? 3 : 1);
+        }
+    }
+
+    @Order(4)
+    @Test
+    void list_twelveClasses_sameStatementCount() {
+        given()
+                .pathParam("matrixId", matrixId)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(200)
+                .body("items", hasSize(12))
+                .body("items[0].subject.name", notNullValue())
+                .body("items[0].professor.name", notNullValue())
+                .body("items[0].timeSlot.startTime", notNullValue())
+                .body("items[0].authorizedCourses.id", contains(1, 6))
+                .body("items[1].seatBuckets", equalTo(3))
+                .body("items.currentEnrollments", everyItem(equalTo(0)));
+
+        assertEquals(statementsWithOneClass, countStatementsOfList(),
+                "Statement count must not grow with the number of classes");
+    }
+
+    private long countStatementsOfList() {
+        // Warm-up: resolves and caches the coordinator principal
+        given()
+                .pathParam("matrixId", matrixId)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(200);
+        var statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+                .pathParam("matrixId", matrixId)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(200);
+        return statistics.getPrepareStatementCount();
+    }
+}
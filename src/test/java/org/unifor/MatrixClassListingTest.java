@@ -0,0 +1,213 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+import org.unifor.service.coordinator.MatrixClassPageRequest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * Coordinator class listing: SQL filters, includeDeleted, sort and keyset pagination (VM-01 to VM-03).
+ * <p>
+ * Validation criteria:
+ * <ul>
+ *   <li>Without {@code limit} and {@code cursor} every class is returned, even past the default page size,
+ *       and {@code nextCursor} is null</li>
+ *   <li>A {@code cursor} without {@code limit} continues with pages of the default size</li>
+ * </ul>
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+@TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+class MatrixClassListingTest {
+
+    private static Long matrixId;
+    private static Long deletedClassId;
+
+    @Inject
+    DataSource dataSource;
+
+    @Order(1)
+    @Test
+    void setup_createMatrixWithFiveClasses() {
+        matrixId = createMatrix("Matriz Listagem");
+
+        // subject, time slot (1 = SEG 07:30, 16 = SEG 13:30, 31 = SEG 19:00), maxStudents
+        createClass(matrixId, 1, 1, 1, "[1]", 40);
+        createClass(matrixId, 2, 1, 16, "[1]", 20);
+        createClass(matrixId, 3, 1, 31, "[1]", 30);
+        createClass(matrixId, 4, 1, 2, "[1]", 20);
+        deletedClassId = createClass(matrixId, 5, 1, 17, "[1]", 50);
+
+        given()
+                .pathParam("matrixId", matrixId)
+                .pathParam("classId", deletedClassId)
+                .when()
+                .delete("/api/coordinator/matrices/{matrixId}/classes/{classId}")
+                .then()
+                .statusCode(204);
+    }
+
+    @Order(2)
+    @Test
+    void list_sortedDescendingByMaxStudents_pagesWithCursor() {
+        List<Integer> maxStudents = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            var request = given()
+                    .pathParam("matrixId", matrixId)
+                    .queryParam("sort", "-maxStudents")
+                    .queryParam("limit", 2);
+            if (cursor != null) {
+                request.queryParam("cursor", cursor);
+            }
+            var body = request
+                    .when()
+                    .get("/api/coordinator/matrices/{matrixId}/classes")
+                    .then()
+                    .statusCode(200)
+                    .body("total", equalTo(4))
+                    .body("items.size()", lessThanOrEqualTo(2))
+                    .extract().body().jsonPath();
+            maxStudents.addAll(body.getList("items.maxStudents", Integer.class));
+            ids.addAll(body.getList("items.id", Integer.class));
+            cursor = body.getString("nextCursor");
+            pages++;
+        } while (cursor != null && pages < 10);
+
+        assertEquals(2, pages);
+        assertEquals(List.of(40, 30, 20, 20), maxStudents);
+        assertTrue(ids.get(2) > ids.get(3), "Ties are ordered by id in the same direction");
+    }
+
+    @Order(3)
+    @Test
+    void list_filtersInSql_periodOfDayAndMaxStudents() {
+        given()
+                .pathParam("matrixId", matrixId)
+                .queryParam("periodOfDay", "AFTERNOON")
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(1))
+                .body("items.subject.id", contains(2))
+                .body("nextCursor", nullValue());
+
+        given()
+                .pathParam("matrixId", matrixId)
+                .queryParam("maxStudentsMin", 25)
+                .queryParam("maxStudentsMax", 40)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(2))
+                .body("items.maxStudents", contains(40, 30));
+    }
+
+    @Order(4)
+    @Test
+    void list_includeDeleted_returnsSoftDeletedClass() {
+        given()
+                .pathParam("matrixId", matrixId)
+                .queryParam("includeDeleted", true)
+                .queryParam("sort", "createdAt")
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(5))
+                .body("items[4].id", equalTo(deletedClassId.intValue()))
+                .body("items[4].deletedAt", notNullValue());
+    }
+
+    @Order(5)
+    @Test
+    void list_invalidSortOrCursor_returns400() {
+        given()
+                .pathParam("matrixId", matrixId)
+                .queryParam("sort", "name")
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(400)
+                .body("code", equalTo("VALIDATION_ERROR"));
+
+        String cursor = given()
+                .pathParam("matrixId", matrixId)
+                .queryParam("limit", 1)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(200)
+                .extract().body().path("nextCursor");
+        given()
+                .pathParam("matrixId", matrixId)
+                .queryParam("sort", "-id")
+                .queryParam("cursor", cursor)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(400);
+    }
+
+    @Order(6)
+    @Test
+    void list_withoutLimitOrCursor_returnsEveryClass() throws Exception {
+        Long largeMatrixId = createMatrix("Matriz Listagem Completa");
+        // 2 subjects x 30 time slots: more classes than the default page size
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "INSERT INTO matrix_classes (matrix_id, subject_id, professor_id, time_slot_id, max_students)"
+                             + " SELECT ?, s, 1, t, 30 FROM generate_series(1, 2) s, generate_series(1, 30) t")) {
+            statement.setLong(1, largeMatrixId);
+            assertEquals(60, statement.executeUpdate());
+        }
+        assertTrue(60 > MatrixClassPageRequest.DEFAULT_LIMIT);
+
+        given()
+                .pathParam("matrixId", largeMatrixId)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(200)
+                .body("total", equalTo(60))
+                .body("items.size()", equalTo(60))
+                .body("nextCursor", nullValue());
+
+        String cursor = given()
+                .pathParam("matrixId", largeMatrixId)
+                .queryParam("limit", 1)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(200)
+                .body("items.size()", equalTo(1))
+                .extract().body().path("nextCursor");
+        given()
+                .pathParam("matrixId", largeMatrixId)
+                .queryParam("cursor", cursor)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(200)
+                .body("items.size()", equalTo(MatrixClassPageRequest.DEFAULT_LIMIT))
+                .body("nextCursor", notNullValue());
+    }
+}
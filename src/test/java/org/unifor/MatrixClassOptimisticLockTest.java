@@ -0,0 +1,267 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.HttpHeaders;
+import org.junit.jupiter.api.*;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * Optimistic locking of PUT/DELETE /api/coordinator/matrices/{matrixId}/classes/{classId} (10s enroll lock timeout,
+ * so that enrolls wait for a held class row instead of failing).
+ * Validation criteria:
+ * - GET, POST and PUT return the class version as ETag; enrollments do not change it
+ * - A stale If-Match gets 412 PRECONDITION_FAILED on PUT and DELETE; the current one is accepted
+ * - Two edits from the same read, running at once, commit once; the other gets 412
+ * - An enroll that holds the class row first is seen by an edit removing the student's course (409)
+ * - Concurrent enrolls and edits: every enroll succeeds, edits succeed or get 412, and the version counts the edits
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestProfile(MatrixClassOptimisticLockTest.OptimisticLockProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class MatrixClassOptimisticLockTest {
+
+    public static class OptimisticLockProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("unifor.enrollment.lock-timeout", "10s");
+        }
+    }
+
+    private static final String COORDINATOR = "carmen.lima@unifor.br";
+    private static final String JULIANA = "juliana.martins@unifor.br";
+    private static final String[] STUDENTS = {
+            "lucas.ferreira@unifor.br",
+            "beatriz.rodrigues@unifor.br",
+            "rafael.pereira@unifor.br",
+            "gabriel.costa@unifor.br"
+    };
+    private static final int EDITS = 6;
+
+    private static Long matrixId;
+    private static Long classA;
+    private static Long classB;
+
+    @Inject
+    DataSource dataSource;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = COORDINATOR, roles = "coordinator")
+    void setup_createActiveMatrixWithTwoClasses() {
+        matrixId = createMatrix("Matriz Optimistic Lock");
+
+        Response created = postClass(matrixId, 12, 2, 34, "[1,2,4,6]", 10);
+        created.then()
+                .statusCode(201)
+                .header(HttpHeaders.ETAG, "\"0\"");
+        classA = Long.valueOf(created.body().path("id").toString());
+        classB = createClass(matrixId, 15, 1, 39, "[1,2,4,6]", 10);
+
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = COORDINATOR, roles = "coordinator")
+    void staleIfMatch_isRejected_currentIsAccepted() {
+        String etag = etag(classA);
+        assertEquals("\"0\"", etag);
+
+        update(classA, etag, 1, "[1,2,4,6]").then()
+                .statusCode(200)
+                .header(HttpHeaders.ETAG, "\"1\"");
+
+        update(classA, etag, 2, "[1,2,4,6]").then()
+                .statusCode(412)
+                .body("code", equalTo("PRECONDITION_FAILED"));
+        update(classA, "W/\"1\"", 2, "[1,2,4,6]").then()
+                .statusCode(412)
+                .body("code", equalTo("PRECONDITION_FAILED"));
+        delete(classA, etag).then()
+                .statusCode(412)
+                .body("code", equalTo("PRECONDITION_FAILED"));
+
+        update(classA, "\"1\"", 2, "[1,2,4,6]").then()
+                .statusCode(200)
+                .header(HttpHeaders.ETAG, "\"2\"");
+        // Without If-Match the edit applies to whatever version is current
+        update(classA, null, 2, "[1,2,4,6]").then()
+                .statusCode(200)
+                .header(HttpHeaders.ETAG, "\"3\"");
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = COORDINATOR, roles = {"coordinator", "student"})
+    void enrollment_doesNotChangeVersion() {
+        String before = etag(classB);
+        enroll(STUDENTS[0], classB).then().statusCode(201);
+        assertEquals(before, etag(classB));
+    }
+
+    @Order(4)
+    @Test
+    @TestSecurity(user = COORDINATOR, roles = "coordinator")
+    void concurrentEditsFromSameRead_oneCommits() throws Exception {
+        String etag = etag(classA);
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try (Connection lock = lockClassRow(dataSource, classA)) {
+            Future<Response> first = clients.submit(() -> update(classA, etag, 1, "[1,2,4,6]"));
+            Future<Response> second = clients.submit(() -> update(classA, etag, 2, "[1,2,4,6]"));
+            awaitLockWaiters(2);
+            lock.rollback();
+
+            List<Integer> statuses = new ArrayList<>(List.of(
+                    first.get(30, TimeUnit.SECONDS).statusCode(),
+                    second.get(30, TimeUnit.SECONDS).statusCode()));
+            statuses.sort(null);
+            assertEquals(List.of(200, 412), statuses);
+        } finally {
+            clients.shutdownNow();
+        }
+        assertEquals("\"" + (Long.parseLong(etag.replace("\"", "")) + 1) + "\"", etag(classA));
+    }
+
+    @Order(5)
+    @Test
+    @TestSecurity(user = COORDINATOR, roles = {"coordinator", "student"})
+    void enrollHoldingRowFirst_isSeenByCourseRemoval() throws Exception {
+        String etag = etag(classA);
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try (Connection lock = lockClassRow(dataSource, classA)) {
+            Future<Response> enroll = clients.submit(() -> enroll(JULIANA, classA));
+            awaitLockWaiters(1);
+            Future<Response> removeCourse = clients.submit(() -> update(classA, etag, 2, "[1,2,4]"));
+            awaitLockWaiters(2);
+            lock.rollback();
+
+            Response enrolled = enroll.get(30, TimeUnit.SECONDS);
+            assertEquals(201, enrolled.statusCode(), enrolled.asString());
+            removeCourse.get(30, TimeUnit.SECONDS).then()
+                    .statusCode(409)
+                    .body("code", equalTo("CONFLICT_INVALIDATE_ENROLLMENTS"));
+        } finally {
+            clients.shutdownNow();
+        }
+        assertEquals(etag, etag(classA));
+        delete(classA, etag).then()
+                .statusCode(409)
+                .body("code", equalTo("CONFLICT_HAS_ENROLLMENTS"));
+    }
+
+    @Order(6)
+    @Test
+    @TestSecurity(user = COORDINATOR, roles = {"coordinator", "student"})
+    void concurrentEnrollsAndEdits_enrollsSucceed_editsCommitOrFail412() throws Exception {
+        long initialVersion = Long.parseLong(etag(classB).replace("\"", ""));
+        ExecutorService clients = Executors.newFixedThreadPool(STUDENTS.length - 1 + EDITS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Response>> enrolls = new ArrayList<>();
+        List<Future<Response>> edits = new ArrayList<>();
+        try {
+            for (int i = 1; i < STUDENTS.length; i++) {
+                String student = STUDENTS[i];
+                enrolls.add(clients.submit(() -> {
+                    start.await();
+                    return enroll(student, classB);
+                }));
+            }
+            for (int i = 0; i < EDITS; i++) {
+                long professorId = 1 + i % 2;
+                edits.add(clients.submit(() -> {
+                    start.await();
+                    return update(classB, etag(classB), professorId, "[1,2,4,6]");
+                }));
+            }
+            start.countDown();
+
+            for (Future<Response> enroll : enrolls) {
+                Response r = enroll.get(30, TimeUnit.SECONDS);
+                assertEquals(201, r.statusCode(), r.asString());
+            }
+            int committed = 0;
+            for (Future<Response> edit : edits) {
+                Response r = edit.get(30, TimeUnit.SECONDS);
+                assertTrue(r.statusCode() == 200 || r.statusCode() == 412, r.asString());
+                if (r.statusCode() == 200) {
+                    committed++;
+                }
+            }
+            assertTrue(committed > 0, "At least one edit must commit");
+            assertEquals("\"" + (initialVersion + committed) + "\"", etag(classB));
+        } finally {
+            clients.shutdownNow();
+        }
+        assertEquals(STUDENTS.length,
+                count(dataSource, "SELECT count(*) FROM enrollments WHERE matrix_class_id = " + classB));
+        assertEquals(STUDENTS.length,
+                count(dataSource, "SELECT enrolled_count FROM matrix_classes WHERE id = " + classB));
+    }
+
+    private static String etag(Long classId) {
+        return given()
+                .pathParam("matrixId", matrixId)
+                .pathParam("classId", classId)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes/{classId}")
+                .then()
+                .statusCode(200)
+                .extract().header(HttpHeaders.ETAG);
+    }
+
+    private static Response update(Long classId, String ifMatch, long professorId, String courseIds) {
+        var request = given().contentType(ContentType.JSON);
+        if (ifMatch != null) {
+            request.header(HttpHeaders.IF_MATCH, ifMatch);
+        }
+        return request
+                .pathParam("matrixId", matrixId)
+                .pathParam("classId", classId)
+                .body("{\"timeSlotId\":" + (classId.equals(classA) ? 34 : 39) + ",\"professorId\":" + professorId
+                        + ",\"authorizedCourseIds\":" + courseIds + "}")
+                .when()
+                .put("/api/coordinator/matrices/{matrixId}/classes/{classId}");
+    }
+
+    private static Response delete(Long classId, String ifMatch) {
+        return given()
+                .header(HttpHeaders.IF_MATCH, ifMatch)
+                .pathParam("matrixId", matrixId)
+                .pathParam("classId", classId)
+                .when()
+                .delete("/api/coordinator/matrices/{matrixId}/classes/{classId}");
+    }
+
+    /** Waits until {@code waiters} sessions are blocked on a lock. */
+    private void awaitLockWaiters(int waiters) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count(dataSource, "SELECT count(*) FROM pg_stat_activity "
+                + "WHERE datname = current_database() AND wait_event_type = 'Lock'") < waiters) {
+            assertTrue(System.nanoTime() < deadline, "Requests did not reach the class row lock");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.unifor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * Metrics at /q/metrics.
+ * Validation criteria:
+ * - /q/metrics is served without authentication, in Prometheus format, with Agroal pool gauges and
+ *   per-endpoint HTTP latency histograms
+ * - enroll records its time by outcome and the row lock wait; conflicts are counted by code
+ * - listAvailable records its time
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class MetricsTest {
+
+    private static final String STUDENT = "gabriel.costa@unifor.br";
+
+    private static Long matrixClassId;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createActiveMatrixWithClass() {
+        Long matrixId = createMatrix("Matriz Metricas");
+
+        matrixClassId = createClass(matrixId, 12, 2, 34);
+
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void enroll_recordsOutcomeAndLockWait_andCountsConflicts() {
+        double enrolled = enrollTimerCount("ENROLLED");
+        double alreadyEnrolled = enrollTimerCount("CONFLICT_ALREADY_ENROLLED");
+        double conflicts = conflictCount("CONFLICT_ALREADY_ENROLLED");
+        double lockWaits = lockWaitCount();
+
+        for (int expectedStatus : new int[]{201, 409}) {
+            enroll(STUDENT, matrixClassId).then()
+                    .statusCode(expectedStatus);
+        }
+
+        assertEquals(enrolled + 1, enrollTimerCount("ENROLLED"));
+        assertEquals(alreadyEnrolled + 1, enrollTimerCount("CONFLICT_ALREADY_ENROLLED"));
+        assertEquals(conflicts + 1, conflictCount("CONFLICT_ALREADY_ENROLLED"));
+        assertEquals(lockWaits + 2, lockWaitCount(), "PESSIMISTIC seat mode locks the class row on every enroll");
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = STUDENT, roles = "student")
+    void listAvailable_recordsTime() {
+        Timer timer = registry.find("unifor.enrollment.list.available").timer();
+        assertNotNull(timer);
+        long before = timer.count();
+
+        given()
+                .when()
+                .get("/api/student/classes/available")
+                .then()
+                .statusCode(200);
+
+        assertEquals(before + 1, timer.count());
+    }
+
+    @Order(4)
+    @Test
+    void metricsEndpoint_isPublic_andExposesPoolAndEndpointHistograms() {
+        given()
+                .when()
+                .get("/q/metrics")
+                .then()
+                .statusCode(200)
+                .body(containsString("agroal_active_count"))
+                .body(containsString("agroal_max_used_count"))
+                .body(containsString("http_server_requests_seconds_bucket{"))
+                .body(containsString("uri=\"/api/student/enrollments\""))
+                .body(containsString("unifor_enrollment_enroll_seconds_bucket{"))
+                .body(containsString("unifor_enrollment_lock_wait_seconds_count{"))
+                .body(containsString("unifor_enrollment_conflicts_total{code=\"CONFLICT_ALREADY_ENROLLED\""));
+    }
+
+    private double enrollTimerCount(String outcome) {
+        Timer timer = registry.find("unifor.enrollment.enroll").tags("mode", "single", "outcome", outcome).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
+    private double conflictCount(String code) {
+        Counter counter = registry.find("unifor.enrollment.conflicts").tag("code", code).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    private double lockWaitCount() {
+        Timer timer = registry.find("unifor.enrollment.lock.wait").tag("mode", "single").timer();
+        return timer != null ? timer.count() : 0;
+    }
+}
@@ -0,0 +1,107 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.*;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * The list endpoints read projections (row records) instead of managed entities:
+ * Hibernate statistics must report no entity load or fetch while serving them.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReadProjectionTest {
+
+    private static Long matrixId;
+    private static Integer enrolledClassId;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createActiveMatrixWithTwoClasses() {
+        matrixId = createMatrix("Matriz Projecoes");
+
+        for (int subjectId : new int[]{13, 14}) {
+            createClass(matrixId, subjectId, 4, subjectId + 20, "[2]", 10);
+        }
+
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = "beatriz.rodrigues@unifor.br", roles = "student")
+    void setup_studentEnrollsInFirstAvailableClass() {
+        enrolledClassId = given()
+                .when()
+                .get("/api/student/classes/available")
+                .then()
+                .statusCode(200)
+                .extract().body().path("items[0].id");
+
+        enroll("beatriz.rodrigues@unifor.br", enrolledClassId.longValue()).then()
+                .statusCode(201);
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void coordinatorLists_loadNoEntities() {
+        assertNoEntityLoaded("/api/coordinator/matrices");
+        given()
+                .when()
+                .get("/api/coordinator/matrices")
+                .then()
+                .statusCode(200)
+                .body("items.find { it.id == " + matrixId + " }.classCount", equalTo(2));
+
+        assertNoEntityLoaded("/api/coordinator/matrices/" + matrixId + "/classes");
+        given()
+                .when()
+                .get("/api/coordinator/matrices/" + matrixId + "/classes")
+                .then()
+                .statusCode(200)
+                .body("items", hasSize(2))
+                .body("items.currentEnrollments.sum()", equalTo(1))
+                .body("items[0].authorizedCourses.id", contains(2));
+    }
+
+    @Order(4)
+    @Test
+    @TestSecurity(user = "beatriz.rodrigues@unifor.br", roles = "student")
+    void studentLists_loadNoEntities() {
+        assertNoEntityLoaded("/api/student/enrollments");
+        given()
+                .when()
+                .get("/api/student/enrollments")
+                .then()
+                .statusCode(200)
+                .body("items.matrixClassId", hasItem(enrolledClassId))
+                .body("items.find { it.matrixClassId == " + enrolledClassId + " }.subject.name", notNullValue())
+                .body("items.find { it.matrixClassId == " + enrolledClassId + " }.timeSlot.code", notNullValue());
+
+        assertNoEntityLoaded("/api/student/classes/available");
+    }
+
+    private void assertNoEntityLoaded(String path) {
+        // Warm-up: resolves and caches the principal (and the active matrix catalog)
+        given().when().get(path).then().statusCode(200);
+        var statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given().when().get(path).then().statusCode(200);
+        assertEquals(0, statistics.getEntityLoadCount(), "Entities loaded by GET " + path);
+        assertEquals(0, statistics.getEntityFetchCount(), "Entities fetched by GET " + path);
+    }
+}
@@ -0,0 +1,91 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.unifor.service.ReferenceDataCache;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reference data is served pre-serialized with a strong ETag; revalidation does not hit the database.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+class ReferenceDataCacheTest {
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Inject
+    ReferenceDataCache referenceDataCache;
+
+    @Test
+    void subjects_ifNoneMatch_returns304WithoutQueries() {
+        String etag = given()
+                .when()
+                .get("/api/coordinator/reference/subjects")
+                .then()
+                .statusCode(200)
+                .header("ETag", startsWith("\""))
+                .header("Cache-Control", equalTo("no-cache, private"))
+                .body("size()", equalTo(15))
+                .body("[0].id", equalTo(1))
+                .extract().header("ETag");
+
+        var statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        given()
+                .header("If-None-Match", etag)
+                .when()
+                .get("/api/coordinator/reference/subjects")
+                .then()
+                .statusCode(304)
+                .header("ETag", equalTo(etag));
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void staleEtag_returnsBody() {
+        given()
+                .header("If-None-Match", "\"stale\"")
+                .when()
+                .get("/api/coordinator/reference/time-slots")
+                .then()
+                .statusCode(200)
+                .body("size()", equalTo(40))
+                .body("[0].code", equalTo("M24AB"));
+    }
+
+    @Test
+    void bundle_containsAllReferenceLists() {
+        given()
+                .when()
+                .get("/api/coordinator/reference/bundle")
+                .then()
+                .statusCode(200)
+                .body("subjects.size()", equalTo(15))
+                .body("professors.size()", equalTo(5))
+                .body("timeSlots.size()", equalTo(40))
+                .body("courses.size()", equalTo(9));
+    }
+
+    @Test
+    void invalidate_unchangedContent_keepsEtag() {
+        String before = given().get("/api/coordinator/reference/courses").then().statusCode(200)
+                .extract().header("ETag");
+        referenceDataCache.invalidate();
+        given()
+                .header("If-None-Match", before)
+                .when()
+                .get("/api/coordinator/reference/courses")
+                .then()
+                .statusCode(304);
+    }
+}
@@ -0,0 +1,49 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResourceLifecycleManager;
+import org.flywaydb.core.Flyway;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.util.Map;
+
+/**
+ * Starts a second PostgreSQL container standing in for the read replica ({@code quarkus.datasource.replica}).
+ * It gets the migrations and seed data but never the writes made through the primary, i.e. a replica that has
+ * not caught up yet: a read that still sees the seed state came from the replica.
+ */
+public class ReplicaPostgresTestResource implements QuarkusTestResourceLifecycleManager {
+
+    private static final String IMAGE = "postgres:16-alpine";
+    private static final String DB_NAME = "unifor_replica";
+    private static final String USER = "unifor";
+    private static final String PASSWORD = "unifor";
+
+    static PostgreSQLContainer<?> replica;
+
+    @Override
+    public Map<String, String> start() {
+        replica = new PostgreSQLContainer<>(DockerImageName.parse(IMAGE))
+                .withDatabaseName(DB_NAME)
+                .withUsername(USER)
+                .withPassword(PASSWORD);
+        replica.start();
+        Flyway.configure()
+                .dataSource(replica.getJdbcUrl(), replica.getUsername(), replica.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+        return Map.of(
+                "quarkus.datasource.replica.jdbc.url", replica.getJdbcUrl(),
+                "quarkus.datasource.replica.username", replica.getUsername(),
+                "quarkus.datasource.replica.password", replica.getPassword()
+        );
+    }
+
+    @Override
+    public void stop() {
+        if (replica != null) {
+            replica.stop();
+        }
+    }
+}
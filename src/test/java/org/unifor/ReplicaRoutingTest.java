@@ -0,0 +1,122 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import org.junit.jupiter.api.*;
+
+import java.util.Map;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * Read/write routing with the replica on its own database ({@link ReplicaPostgresTestResource}), which keeps
+ * the seed state and never receives the writes; read-your-writes window of 3s.
+ * Validation criteria:
+ * - Writes (matrix, class, activation, enroll) go to the primary
+ * - The matrix list and the enrollments are read on the replica: once the window has passed, new data is not
+ *   visible there
+ * - Right after a write the same user's reads go to the primary: a student's /enrollments right after
+ *   enrolling includes the new enrollment, and a coordinator sees the matrix they just created
+ * - Available classes read the live seat counts from the replica: a class not replicated yet is not offered
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@QuarkusTestResource(value = ReplicaPostgresTestResource.class, restrictToAnnotatedClass = true)
+@TestProfile(ReplicaRoutingTest.ShortWindowProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReplicaRoutingTest {
+
+    public static class ShortWindowProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "unifor.replica.enabled", "true",
+                    "quarkus.cache.caffeine.\"recent-writers\".expire-after-write", "3S");
+        }
+    }
+
+    private static final long PAST_WINDOW_MILLIS = 3500;
+
+    private static Long matrixId;
+    private static Long matrixClassId;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void coordinator_seesOwnNewMatrix_thenReadsReplica() throws Exception {
+        matrixId = createMatrix("Matriz Replica");
+
+        given()
+                .when()
+                .get("/api/coordinator/matrices")
+                .then()
+                .statusCode(200)
+                .body("items.id", hasItem(matrixId.intValue()));
+
+        Thread.sleep(PAST_WINDOW_MILLIS);
+
+        given()
+                .when()
+                .get("/api/coordinator/matrices")
+                .then()
+                .statusCode(200)
+                .body("items.id", not(hasItem(matrixId.intValue())));
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createAndActivateClassOnPrimary() {
+        matrixClassId = createClass(matrixId, 12, 2, 34);
+
+        activate(matrixId);
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = "gabriel.costa@unifor.br", roles = "student")
+    void availableClasses_readSeatsOnReplica_hideClassNotReplicatedYet() {
+        given()
+                .when()
+                .get("/api/student/classes/available")
+                .then()
+                .statusCode(200)
+                .body("items.id", not(hasItem(matrixClassId.intValue())));
+    }
+
+    @Order(4)
+    @Test
+    @TestSecurity(user = "gabriel.costa@unifor.br", roles = "student")
+    void enrollments_readOwnWriteRightAfterEnroll_thenReplica() throws Exception {
+        given()
+                .when()
+                .get("/api/student/enrollments")
+                .then()
+                .statusCode(200)
+                .body("items.matrixClassId", not(hasItem(matrixClassId.intValue())));
+
+        enroll("gabriel.costa@unifor.br", matrixClassId).then()
+                .statusCode(201);
+
+        given()
+                .when()
+                .get("/api/student/enrollments")
+                .then()
+                .statusCode(200)
+                .body("items.matrixClassId", hasItem(matrixClassId.intValue()));
+
+        Thread.sleep(PAST_WINDOW_MILLIS);
+
+        given()
+                .when()
+                .get("/api/student/enrollments")
+                .then()
+                .statusCode(200)
+                .body("items.matrixClassId", not(hasItem(matrixClassId.intValue())));
+    }
+}
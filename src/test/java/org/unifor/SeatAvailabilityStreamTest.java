@@ -0,0 +1,234 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import io.smallrye.mutiny.helpers.test.AssertSubscriber;
+import io.smallrye.mutiny.subscription.BackPressureFailure;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+import org.unifor.service.student.SeatAvailabilityFeed;
+import org.unifor.service.student.SeatAvailabilityFeed.Seats;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * GET /api/student/classes/availability/stream (interval 2s, 2 updates buffered per subscriber).
+ * Classes A and B of the active matrix have 10 seats each.
+ * Validation criteria:
+ * - A new stream gets the seats of every class, then an update when an enrollment commits
+ * - Enrollments in the same class within one interval are pushed as a single update with the latest seats
+ * - 1000 open streams hold no thread each, and all of them get the update
+ * - A subscriber that stops reading is failed once its buffer is full, without holding back the others
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestProfile(SeatAvailabilityStreamTest.StreamProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SeatAvailabilityStreamTest {
+
+    public static class StreamProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of(
+                    "unifor.availability-stream.interval", "2s",
+                    "unifor.availability-stream.subscriber-buffer", "2");
+        }
+    }
+
+    private static final String STREAM = "/api/student/classes/availability/stream";
+    private static final int STREAMS = 1000;
+    private static final Duration WAIT = Duration.ofSeconds(20);
+
+    private static Long classA;
+    private static Long classB;
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    @Inject
+    SeatAvailabilityFeed seatAvailabilityFeed;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createActiveMatrixWithTwoClasses() {
+        Long matrixId = createMatrix("Matriz Vagas ao Vivo");
+        classA = createClass(matrixId, 12, 2, 34);
+        classB = createClass(matrixId, 15, 1, 39);
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = "gabriel.costa@unifor.br", roles = "student")
+    void stream_sendsEveryClass_thenUpdateOnEnroll() throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        try (SseStream stream = SseStream.open(http, baseUri.resolve(STREAM))) {
+            stream.await(classA, 10);
+            stream.await(classB, 10);
+
+            enroll("gabriel.costa@unifor.br", classA).then().statusCode(201);
+
+            stream.await(classA, 9);
+        }
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = "lucas.ferreira@unifor.br", roles = "student")
+    void enrollmentsWithinOneInterval_arePushedOnce() throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        try (SseStream stream = SseStream.open(http, baseUri.resolve(STREAM))) {
+            stream.await(classA, 9);
+            stream.await(classB, 10);
+
+            // Seeing B's update means a push just ran: the next one is an interval away
+            enroll("lucas.ferreira@unifor.br", classB).then().statusCode(201);
+            stream.await(classB, 9);
+            enroll("beatriz.rodrigues@unifor.br", classA).then().statusCode(201);
+            enroll("rafael.pereira@unifor.br", classA).then().statusCode(201);
+
+            List<String> skipped = stream.await(classA, 7);
+            assertFalse(skipped.contains(event(classA, 8)), "Updates within one interval must be coalesced: " + skipped);
+        }
+    }
+
+    @Order(4)
+    @Test
+    @TestSecurity(user = "juliana.martins@unifor.br", roles = "student")
+    void thousandIdleStreams_holdNoThread_andAllGetTheUpdate() throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        List<SseStream> streams = new ArrayList<>();
+        int threadsBefore = Thread.activeCount();
+        try {
+            for (int i = 0; i < STREAMS; i++) {
+                streams.add(SseStream.open(http, baseUri.resolve(STREAM)));
+            }
+            for (SseStream stream : streams) {
+                stream.await(classA, 7);
+                stream.await(classB, 9);
+            }
+            int threadsOpen = Thread.activeCount() - threadsBefore;
+            assertTrue(threadsOpen < STREAMS / 10, "Threads started for " + STREAMS + " streams: " + threadsOpen);
+
+            enroll("juliana.martins@unifor.br", classB).then().statusCode(201);
+
+            for (SseStream stream : streams) {
+                stream.await(classB, 8);
+            }
+        } finally {
+            streams.forEach(SseStream::close);
+        }
+    }
+
+    @Order(5)
+    @Test
+    @TestSecurity(user = "gabriel.costa@unifor.br", roles = "student")
+    void subscriberThatStopsReading_isFailed_othersStillServed() {
+        AssertSubscriber<Seats> stalled = seatAvailabilityFeed.subscribe()
+                .subscribe().withSubscriber(AssertSubscriber.create(0));
+        AssertSubscriber<Seats> reading = seatAvailabilityFeed.subscribe()
+                .subscribe().withSubscriber(AssertSubscriber.create(Long.MAX_VALUE));
+        reading.awaitItems(2, WAIT);
+
+        enroll("gabriel.costa@unifor.br", classB).then().statusCode(201);
+
+        reading.awaitItems(3, WAIT);
+        assertEquals(new Seats(classB, 7), reading.getItems().get(2));
+        stalled.awaitFailure(WAIT).assertFailedWith(BackPressureFailure.class);
+        reading.cancel();
+    }
+
+    private static String event(Long classId, int availableSeats) {
+        return "{\"classId\":" + classId + ",\"availableSeats\":" + availableSeats + "}";
+    }
+
+    /** The data lines of one open event stream. */
+    private static final class SseStream implements Flow.Subscriber<String>, AutoCloseable {
+
+        private final BlockingQueue<String> events = new LinkedBlockingQueue<>();
+        private CompletableFuture<HttpResponse<Void>> response;
+        private volatile Flow.Subscription subscription;
+
+        static SseStream open(HttpClient http, URI uri) {
+            SseStream stream = new SseStream();
+            stream.response = http.sendAsync(HttpRequest.newBuilder(uri)
+                            .header("Accept", "text/event-stream")
+                            .GET()
+                            .build(),
+                    HttpResponse.BodyHandlers.fromLineSubscriber(stream));
+            return stream;
+        }
+
+        /**
+         * Waits for the event with the class's seats.
+         *
+         * @return the events received before it
+         */
+        List<String> await(Long classId, int availableSeats) throws Exception {
+            String expected = event(classId, availableSeats);
+            List<String> before = new ArrayList<>();
+            long deadline = System.nanoTime() + WAIT.toNanos();
+            while (true) {
+                String next = events.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    HttpResponse<Void> done = response.getNow(null);
+                    fail("No " + expected + " (status " + (done != null ? done.statusCode() : "-") + "), got " + before);
+                }
+                if (next.equals(expected)) {
+                    return before;
+                }
+                before.add(next);
+            }
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.startsWith("data:")) {
+                events.add(line.substring("data:".length()).trim());
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+
+        @Override
+        public void close() {
+            if (subscription != null) {
+                subscription.cancel();
+            }
+            response.cancel(true);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * Seat buckets: a class with maxStudents=4 split across 3 buckets (capacities 2, 1, 1).
+ * 5 concurrent students; exactly 4 succeed and read paths sum the buckets. An enrollment racing the soft
+ * delete of a bucketed class never takes a seat in the deleted class.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestProfile(SeatCounterModeTest.CounterSeatModeProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SeatBucketTest {
+
+    @Inject
+    DataSource dataSource;
+
+    private static Long matrixId;
+    private static Long matrixClassId;
+    private static Long deletedClassId;
+
+    private static final String[] STUDENT_EMAILS = {
+            "lucas.ferreira@unifor.br",
+            "beatriz.rodrigues@unifor.br",
+            "rafael.pereira@unifor.br",
+            "juliana.martins@unifor.br",
+            "gabriel.costa@unifor.br"
+    };
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createMatrixAndBucketedClass() {
+        matrixId = createMatrix("Matriz Seat Buckets");
+
+        Object classId = postClass(matrixId, 14, 2, 4, "[1,2,4,6]", 4, 3)
+                .then()
+                .statusCode(201)
+                .body("seatBuckets", equalTo(3))
+                .body("currentEnrollments", equalTo(0))
+                .extract().body().path("id");
+        matrixClassId = ((Number) classId).longValue();
+        deletedClassId = createClass(matrixId, 12, 2, 34, "[1,2,4,6]", 4, 2);
+
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void createClass_moreBucketsThanSeats_returns400() {
+        postClass(matrixId, 13, 2, 4, "[1]", 2, 3)
+                .then()
+                .statusCode(400)
+                .body("code", equalTo("VALIDATION_ERROR"));
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = "lucas.ferreira@unifor.br", roles = "student")
+    void concurrentEnroll_fiveStudentsFourBucketedSeats_exactlyFourSucceed() throws Exception {
+        int n = STUDENT_EMAILS.length;
+        var barrier = new CyclicBarrier(n);
+        var executor = Executors.newFixedThreadPool(n);
+
+        try {
+            List<Future<Integer>> futures = new java.util.ArrayList<>();
+            for (String email : STUDENT_EMAILS) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return enroll(email, matrixClassId).getStatusCode();
+                }));
+            }
+
+            int successCount = 0;
+            int conflictCount = 0;
+            for (Future<Integer> f : futures) {
+                int status = f.get(10, TimeUnit.SECONDS);
+                if (status == 201) successCount++;
+                else if (status == 409) conflictCount++;
+                else fail("Expected 201 or 409, got: " + status);
+            }
+
+            assertEquals(4, successCount, "Exactly 4 enrollments must succeed (sum of bucket capacities)");
+            assertEquals(1, conflictCount, "Exactly 1 must fail with 409 (no seats)");
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(15, TimeUnit.SECONDS));
+        }
+    }
+
+    @Order(4)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void getClass_sumsBuckets() {
+        given()
+                .pathParam("matrixId", matrixId)
+                .pathParam("classId", matrixClassId)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes/{classId}")
+                .then()
+                .statusCode(200)
+                .body("currentEnrollments", equalTo(4));
+    }
+
+    /**
+     * The soft delete has updated the class row but not committed yet (what {@code MatrixClassService.softDelete}
+     * holds while it checks enrollments). The enrollment waits for it and, once it commits, gets no seat.
+     */
+    @Order(5)
+    @Test
+    @TestSecurity(user = "lucas.ferreira@unifor.br", roles = "student")
+    void enroll_whileClassIsSoftDeleted_takesNoSeat() throws Exception {
+        ExecutorService client = Executors.newSingleThreadExecutor();
+        try (Connection delete = dataSource.getConnection()) {
+            delete.setAutoCommit(false);
+            try (PreparedStatement statement = delete.prepareStatement(
+                    "UPDATE matrix_classes SET deleted_at = now() WHERE id = ?")) {
+                statement.setLong(1, deletedClassId);
+                statement.executeUpdate();
+            }
+            Future<Response> enrollment = client.submit(() -> enroll("gabriel.costa@unifor.br", deletedClassId));
+            awaitLockWaiters(1);
+            delete.commit();
+
+            assertEquals(409, enrollment.get(10, TimeUnit.SECONDS).getStatusCode());
+        } finally {
+            client.shutdownNow();
+        }
+        assertEquals(0, count(dataSource, "SELECT COALESCE(SUM(enrolled_count), 0) FROM matrix_class_seat_buckets "
+                + "WHERE matrix_class_id = " + deletedClassId));
+        assertEquals(0, count(dataSource, "SELECT count(*) FROM enrollments WHERE matrix_class_id = " + deletedClassId));
+    }
+
+    private void awaitLockWaiters(int waiters) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count(dataSource, "SELECT count(*) FROM pg_stat_activity "
+                + "WHERE datname = current_database() AND wait_event_type = 'Lock'") < waiters) {
+            assertTrue(System.nanoTime() < deadline, "The enrollment did not wait for the class row");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.unifor;
+
+import io.quarkus.narayana.jta.QuarkusTransaction;
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+import org.unifor.repository.MatrixClassRepository;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * Concurrency validation for seat mode COUNTER (unifor.enrollment.seat-mode=counter).
+ * Same scenario as Phase5Test: N students enroll in a class with N-1 seats; exactly N-1 succeed
+ * and enrolled_count matches the enrollments table.
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestProfile(SeatCounterModeTest.CounterSeatModeProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class SeatCounterModeTest {
+
+    public static class CounterSeatModeProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("unifor.enrollment.seat-mode", "counter");
+        }
+    }
+
+    private static Long matrixId;
+    private static Long matrixClassId;
+    /** The student left without a seat by the concurrent round, so not enrolled in the class. */
+    private static String rejectedStudent;
+
+    private static final String[] STUDENT_EMAILS = {
+            "lucas.ferreira@unifor.br",
+            "beatriz.rodrigues@unifor.br",
+            "rafael.pereira@unifor.br",
+            "juliana.martins@unifor.br",
+            "gabriel.costa@unifor.br"
+    };
+
+    @Inject
+    MatrixClassRepository matrixClassRepository;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createMatrixAndClassWithFourSeats() {
+        matrixId = createMatrix("Matriz Seat Counter");
+
+        matrixClassId = createClass(matrixId, 15, 1, 8, "[1,2,4,6]", 4);
+
+        activate(matrixId);
+    }
+
+    /**
+     * 5 students, 4 seats; exactly 4 succeed, 1 fails with CONFLICT_NO_SEATS. No overbooking.
+     */
+    @Order(2)
+    @Test
+    @TestSecurity(user = "lucas.ferreira@unifor.br", roles = "student")
+    void concurrentEnroll_fiveStudentsFourSeats_exactlyFourSucceed() throws Exception {
+        int n = STUDENT_EMAILS.length;
+        var barrier = new CyclicBarrier(n);
+        var executor = Executors.newFixedThreadPool(n);
+
+        try {
+            List<Future<Response>> futures = new java.util.ArrayList<>();
+            for (String email : STUDENT_EMAILS) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return enroll(email, matrixClassId);
+                }));
+            }
+
+            int successCount = 0;
+            int conflictCount = 0;
+            for (int i = 0; i < n; i++) {
+                Response response = futures.get(i).get(10, TimeUnit.SECONDS);
+                int status = response.getStatusCode();
+                if (status == 201) successCount++;
+                else if (status == 409) {
+                    conflictCount++;
+                    assertEquals("CONFLICT_NO_SEATS", response.path("code"));
+                    rejectedStudent = STUDENT_EMAILS[i];
+                } else fail("Expected 201 or 409, got: " + status);
+            }
+
+            assertEquals(4, successCount, "Exactly 4 enrollments must succeed (N-1 seats)");
+            assertEquals(1, conflictCount, "Exactly 1 must fail with 409 (no seats)");
+        } finally {
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(15, TimeUnit.SECONDS));
+        }
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void enrolledCount_matchesEnrollments() {
+        given()
+                .pathParam("matrixId", matrixId)
+                .pathParam("classId", matrixClassId)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes/{classId}")
+                .then()
+                .statusCode(200)
+                .body("currentEnrollments", equalTo(4));
+
+        Integer enrolledCount = QuarkusTransaction.requiringNew()
+                .call(() -> matrixClassRepository.findById(matrixClassId).enrolledCount);
+        assertEquals(4, enrolledCount);
+    }
+
+    @Order(4)
+    @Test
+    @TestSecurity(user = "lucas.ferreira@unifor.br", roles = "student")
+    void enroll_fullClass_returnsNoSeats() {
+        enroll(rejectedStudent, matrixClassId).then()
+                .statusCode(409)
+                .body("code", equalTo("CONFLICT_NO_SEATS"));
+
+        Integer enrolledCount = QuarkusTransaction.requiringNew()
+                .call(() -> matrixClassRepository.findById(matrixClassId).enrolledCount);
+        assertEquals(4, enrolledCount, "A rejected enrollment must not change enrolled_count");
+    }
+}
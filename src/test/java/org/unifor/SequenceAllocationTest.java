@@ -0,0 +1,41 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.unifor.TestFixtures.createMatrix;
+
+/**
+ * Entity ids come from sequences that Hibernate reads in blocks of 50 (migration V10). Own profile, so that
+ * the matrices created here do not show up in other tests.
+ * Validation criteria:
+ * - More than 50 matrices created one after another are all created (no duplicate key) with distinct ids
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestProfile(SequenceAllocationTest.FreshDatabaseProfile.class)
+class SequenceAllocationTest {
+
+    public static class FreshDatabaseProfile implements QuarkusTestProfile {
+    }
+
+    private static final int MATRICES = 120;
+
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void createMoreThanOneIdBlock_allCreatedWithDistinctIds() {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < MATRICES; i++) {
+            ids.add(createMatrix("Matriz " + i));
+        }
+        assertEquals(MATRICES, ids.size());
+    }
+}
@@ -0,0 +1,175 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.*;
+import org.unifor.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * Per-student serialization of enrollments (10s lock timeout). Classes: two of subject 12 (TER and QUI 19:00)
+ * and two other subjects both on TER 21:00.
+ * Validation criteria:
+ * - Parallel enrollments of each student in all four classes, single and batch, repeated: every student ends
+ *   with one class of subject 12 (EN-08) and one class on TER 21:00 (no schedule conflict)
+ * - An enrollment waits for the student's advisory lock held by another node, then succeeds
+ * - While one enrollment waits on it, a same-node enrollment of the student waits in process, not in the database
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestProfile(StudentEnrollmentLockTest.StudentLockProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class StudentEnrollmentLockTest {
+
+    public static class StudentLockProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("unifor.enrollment.lock-timeout", "10s");
+        }
+    }
+
+    private static final String[] STUDENTS = {
+            "gabriel.costa@unifor.br",
+            "lucas.ferreira@unifor.br",
+            "beatriz.rodrigues@unifor.br",
+            "rafael.pereira@unifor.br"
+    };
+    private static final String JULIANA = "juliana.martins@unifor.br";
+    private static final int REPEATS = 3;
+    private static final String COURSES = "[1,2,4,6]";
+
+    private static final List<Long> classes = new ArrayList<>();
+
+    @Inject
+    DataSource dataSource;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createActiveMatrixWithConflictingClasses() {
+        Long matrixId = createMatrix("Matriz Student Lock");
+        classes.add(createClass(matrixId, 12, 2, 34, COURSES, 10));
+        classes.add(createClass(matrixId, 12, 1, 35, COURSES, 10));
+        classes.add(createClass(matrixId, 15, 1, 39, COURSES, 10));
+        classes.add(createClass(matrixId, 13, 2, 39, COURSES, 10));
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "student")
+    void parallelCrossClassEnrollments_keepSubjectAndScheduleRules() throws Exception {
+        List<Future<Response>> responses = new ArrayList<>();
+        ExecutorService clients = Executors.newFixedThreadPool(STUDENTS.length * (classes.size() + 1) * REPEATS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (String student : STUDENTS) {
+                for (int i = 0; i < REPEATS; i++) {
+                    for (Long classId : classes) {
+                        responses.add(clients.submit(() -> {
+                            start.await();
+                            return enroll(student, classId);
+                        }));
+                    }
+                    responses.add(clients.submit(() -> {
+                        start.await();
+                        return given()
+                                .header("X-Test-User-Email", student)
+                                .contentType(ContentType.JSON)
+                                .body("{\"matrixClassIds\":[" + classes.get(1) + "," + classes.get(3)
+                                        + "],\"mode\":\"PARTIAL\"}")
+                                .when()
+                                .post("/api/student/enrollments/batch");
+                    }));
+                }
+            }
+            start.countDown();
+            for (Future<Response> response : responses) {
+                Response r = response.get(60, TimeUnit.SECONDS);
+                assertTrue(r.statusCode() == 201 || r.statusCode() == 409, r.asString());
+            }
+        } finally {
+            clients.shutdownNow();
+        }
+
+        for (String student : STUDENTS) {
+            String enrolled = "SELECT count(*) FROM enrollments e JOIN users u ON u.id = e.student_id "
+                    + "WHERE u.email = '" + student + "' AND e.matrix_class_id IN ";
+            assertEquals(1, count(dataSource, enrolled + "(" + classes.get(0) + "," + classes.get(1) + ")"),
+                    student + " must have one class of subject 12");
+            assertEquals(1, count(dataSource, enrolled + "(" + classes.get(2) + "," + classes.get(3) + ")"),
+                    student + " must have one class on TER 21:00");
+        }
+        for (Long classId : classes) {
+            assertEquals(count(dataSource, "SELECT count(*) FROM enrollments WHERE matrix_class_id = " + classId),
+                    count(dataSource, "SELECT enrolled_count FROM matrix_classes WHERE id = " + classId));
+        }
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "student")
+    void advisoryLockHeldElsewhere_enrollWaits_duplicateWaitsInProcess() throws Exception {
+        long studentId = count(dataSource, "SELECT id FROM users WHERE email = '" + JULIANA + "'");
+        ExecutorService clients = Executors.newFixedThreadPool(2);
+        try (Connection otherNode = dataSource.getConnection()) {
+            otherNode.setAutoCommit(false);
+            try (PreparedStatement lock = otherNode.prepareStatement("SELECT pg_advisory_xact_lock(?, ?)")) {
+                lock.setInt(1, UserRepository.STUDENT_LOCK_SPACE);
+                lock.setInt(2, Long.hashCode(studentId));
+                lock.execute();
+            }
+
+            Future<Response> first = clients.submit(() -> enroll(JULIANA, classes.get(0)));
+            awaitAdvisoryWaiters(1);
+            Future<Response> second = clients.submit(() -> enroll(JULIANA, classes.get(1)));
+            Thread.sleep(500);
+            assertFalse(second.isDone());
+            assertEquals(1, advisoryWaiters(), "The duplicate must wait in process, not on the advisory lock");
+
+            otherNode.rollback();
+            List<Integer> statuses = new ArrayList<>(List.of(
+                    first.get(30, TimeUnit.SECONDS).statusCode(),
+                    second.get(30, TimeUnit.SECONDS).statusCode()));
+            statuses.sort(null);
+            assertEquals(List.of(201, 409), statuses);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    private void awaitAdvisoryWaiters(int waiters) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (advisoryWaiters() < waiters) {
+            assertTrue(System.nanoTime() < deadline, "Enrollment did not reach the advisory lock");
+            Thread.sleep(20);
+        }
+    }
+
+    private long advisoryWaiters() throws Exception {
+        return count(dataSource, "SELECT count(*) FROM pg_stat_activity "
+                + "WHERE datname = current_database() AND wait_event = 'advisory'");
+    }
+}
@@ -0,0 +1,144 @@
+package org.unifor;
+
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Fixtures shared by the QuarkusTests: matrices and classes created through the coordinator API, enrollments
+ * through the student API, and direct SQL for counts and row locks.
+ * <p>
+ * The API helpers run as the user of the calling test ({@code @TestSecurity}); {@link #enroll} picks the
+ * student with the {@code X-Test-User-Email} header.
+ */
+public final class TestFixtures {
+
+    /** Every seeded course. */
+    public static final String ALL_COURSES = "[1,2,3,4,5,6]";
+
+    private TestFixtures() {
+    }
+
+    /**
+     * Creates a matrix (coordinator) and returns its id.
+     */
+    public static Long createMatrix(String name) {
+        return Long.valueOf(given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\":\"" + name + "\"}")
+                .when()
+                .post("/api/coordinator/matrices")
+                .then()
+                .statusCode(201)
+                .extract().body().path("id").toString());
+    }
+
+    /**
+     * Activates the matrix (coordinator).
+     */
+    public static void activate(Long matrixId) {
+        given()
+                .pathParam("matrixId", matrixId)
+                .when()
+                .put("/api/coordinator/matrices/{matrixId}/activate")
+                .then()
+                .statusCode(anyOf(equalTo(200), equalTo(204)));
+    }
+
+    /**
+     * Creates a class for every course with 10 seats (coordinator) and returns its id.
+     */
+    public static Long createClass(Long matrixId, int subjectId, int professorId, long timeSlotId) {
+        return createClass(matrixId, subjectId, professorId, timeSlotId, ALL_COURSES, 10);
+    }
+
+    /**
+     * Creates a class (coordinator) and returns its id. {@code courses} is a JSON array of course ids.
+     */
+    public static Long createClass(Long matrixId, int subjectId, int professorId, long timeSlotId,
+                                   String courses, int maxStudents) {
+        return createClass(matrixId, subjectId, professorId, timeSlotId, courses, maxStudents, null);
+    }
+
+    /**
+     * Creates a class with its seats split into {@code seatBuckets} (coordinator) and returns its id.
+     */
+    public static Long createClass(Long matrixId, int subjectId, int professorId, long timeSlotId,
+                                   String courses, int maxStudents, Integer seatBuckets) {
+        return Long.valueOf(postClass(matrixId, subjectId, professorId, timeSlotId, courses, maxStudents, seatBuckets)
+                .then()
+                .statusCode(201)
+                .extract().body().path("id").toString());
+    }
+
+    /**
+     * POST of a class without checking the response, for tests that assert on its status or headers.
+     */
+    public static Response postClass(Long matrixId, int subjectId, int professorId, long timeSlotId,
+                                     String courses, int maxStudents) {
+        return postClass(matrixId, subjectId, professorId, timeSlotId, courses, maxStudents, null);
+    }
+
+    /**
+     * POST of a class without checking the response; {@code seatBuckets} is left out when null.
+     */
+    public static Response postClass(Long matrixId, int subjectId, int professorId, long timeSlotId,
+                                     String courses, int maxStudents, Integer seatBuckets) {
+        return given()
+                .contentType(ContentType.JSON)
+                .pathParam("matrixId", matrixId)
+                .body("{\"subjectId\":" + subjectId + ",\"professorId\":" + professorId
+                        + ",\"timeSlotId\":" + timeSlotId + ",\"authorizedCourseIds\":" + courses
+                        + ",\"maxStudents\":" + maxStudents
+                        + (seatBuckets != null ? ",\"seatBuckets\":" + seatBuckets : "") + "}")
+                .when()
+                .post("/api/coordinator/matrices/{matrixId}/classes");
+    }
+
+    /**
+     * Enrolls {@code student} in the class; the caller checks the response.
+     */
+    public static Response enroll(String student, Long matrixClassId) {
+        return given()
+                .header("X-Test-User-Email", student)
+                .contentType(ContentType.JSON)
+                .body("{\"matrixClassId\":" + matrixClassId + "}")
+                .when()
+                .post("/api/student/enrollments");
+    }
+
+    /**
+     * First column of the first row of {@code sql}, e.g. a {@code SELECT COUNT(*)}.
+     */
+    public static long count(DataSource dataSource, String sql) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql);
+             ResultSet rows = statement.executeQuery()) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    /**
+     * Holds the class row lock (SELECT FOR UPDATE) in an open transaction, as a concurrent enrollment would.
+     * Roll back and close the returned connection to release it.
+     */
+    public static Connection lockClassRow(DataSource dataSource, Long matrixClassId) throws Exception {
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id FROM matrix_classes WHERE id = ? FOR UPDATE")) {
+            statement.setLong(1, matrixClassId);
+            statement.executeQuery().close();
+        }
+        return connection;
+    }
+}
@@ -0,0 +1,193 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import io.restassured.response.ValidatableResponse;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.*;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * Time slot changes of a class with enrollments: conflict check on update and the impact preview.
+ * Class A (TER 19:00) and class B (TER 21:00) share two enrolled students.
+ * Validation criteria:
+ * - The preview of moving A onto B's slot lists both students with B as the conflicting class
+ * - The preview runs the same number of statements with one or two affected students (one conflict query)
+ * - A free slot, or A's own slot, has no impact
+ * - Another day of an enrolled class's meeting pattern (N35AB) conflicts like its own day
+ * - PUT onto the conflicting slot is rejected with 409 CONFLICT_SCHEDULE_CONFLICT; onto a free slot it succeeds
+ * - An unknown slot is 400, a missing timeSlotId is 400
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestProfile(TimeSlotImpactTest.OwnDatabaseProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class TimeSlotImpactTest {
+
+    /** Own application start, so the students' enrollments of other test classes are not in the way. */
+    public static class OwnDatabaseProfile implements QuarkusTestProfile {
+    }
+
+    private static final String GABRIEL = "gabriel.costa@unifor.br";
+    private static final String LUCAS = "lucas.ferreira@unifor.br";
+    private static final long SLOT_A = 34;
+    private static final long SLOT_B = 39;
+    private static final long FREE_SLOT = 35;
+
+    private static Long matrixId;
+    private static Long classA;
+    private static Long classB;
+    private static long statementsWithOneStudent;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void setup_createActiveMatrixWithTwoClasses() {
+        matrixId = createMatrix("Matriz Impacto Horario");
+        classA = createClass(matrixId, 12, 2, SLOT_A);
+        classB = createClass(matrixId, 15, 1, SLOT_B);
+        activate(matrixId);
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = GABRIEL, roles = "student")
+    void setup_firstStudentEnrollsInBoth() {
+        enroll(GABRIEL, classA).then().statusCode(201);
+        enroll(GABRIEL, classB).then().statusCode(201);
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void preview_oneAffectedStudent() {
+        statementsWithOneStudent = countStatements(() -> preview(SLOT_B)
+                .statusCode(200)
+                .body("conflict", equalTo(true))
+                .body("students", hasSize(1)));
+    }
+
+    @Order(4)
+    @Test
+    @TestSecurity(user = LUCAS, roles = "student")
+    void setup_secondStudentEnrollsInBoth() {
+        enroll(LUCAS, classA).then().statusCode(201);
+        enroll(LUCAS, classB).then().statusCode(201);
+    }
+
+    @Order(5)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void preview_listsAffectedStudentsAndConflictingClasses_withOneConflictQuery() {
+        long statements = countStatements(() -> preview(SLOT_B)
+                .statusCode(200)
+                .body("matrixClassId", equalTo(classA.intValue()))
+                .body("timeSlotId", equalTo((int) SLOT_B))
+                .body("conflict", equalTo(true))
+                .body("students", hasSize(2))
+                .body("students.name", everyItem(not(emptyOrNullString())))
+                .body("students.conflictingClasses.flatten().matrixClassId", everyItem(equalTo(classB.intValue())))
+                .body("students[0].conflictingClasses[0].subject.id", equalTo(15))
+                .body("students[0].conflictingClasses[0].timeSlot.id", equalTo((int) SLOT_B)));
+
+        assertEquals(statementsWithOneStudent, statements, "The preview must not query per enrolled student");
+    }
+
+    @Order(6)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void preview_freeOrCurrentSlot_hasNoImpact() {
+        preview(FREE_SLOT)
+                .statusCode(200)
+                .body("conflict", equalTo(false))
+                .body("students", empty());
+        preview(SLOT_A)
+                .statusCode(200)
+                .body("conflict", equalTo(false))
+                .body("students", empty());
+    }
+
+    /**
+     * A (TER 19:00) is on pattern N35AB, which also meets QUI 19:00: moving B there collides with A.
+     */
+    @Order(7)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void preview_otherDayOfAnEnrolledClassPattern_conflicts() {
+        preview(classB, FREE_SLOT)
+                .statusCode(200)
+                .body("conflict", equalTo(true))
+                .body("students", hasSize(2))
+                .body("students.conflictingClasses.flatten().matrixClassId", everyItem(equalTo(classA.intValue())));
+    }
+
+    @Order(8)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void preview_unknownOrMissingSlot_is400() {
+        preview(99999).statusCode(400);
+        given()
+                .pathParam("matrixId", matrixId)
+                .pathParam("classId", classA)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes/{classId}/time-slot-impact")
+                .then()
+                .statusCode(400);
+    }
+
+    @Order(9)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void update_ontoConflictingSlot_is409_ontoFreeSlot_succeeds() {
+        update(SLOT_B)
+                .statusCode(409)
+                .body("code", equalTo("CONFLICT_SCHEDULE_CONFLICT"));
+        update(FREE_SLOT)
+                .statusCode(200)
+                .body("timeSlot.id", equalTo((int) FREE_SLOT));
+    }
+
+    private ValidatableResponse preview(long timeSlotId) {
+        return preview(classA, timeSlotId);
+    }
+
+    private ValidatableResponse preview(Long classId, long timeSlotId) {
+        return given()
+                .pathParam("matrixId", matrixId)
+                .pathParam("classId", classId)
+                .queryParam("timeSlotId", timeSlotId)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes/{classId}/time-slot-impact")
+                .then();
+    }
+
+    private ValidatableResponse update(long timeSlotId) {
+        return given()
+                .contentType(ContentType.JSON)
+                .pathParam("matrixId", matrixId)
+                .pathParam("classId", classA)
+                .body("{\"timeSlotId\":" + timeSlotId + ",\"professorId\":2,\"authorizedCourseIds\":[1,2,3,4,5,6]}")
+                .when()
+                .put("/api/coordinator/matrices/{matrixId}/classes/{classId}")
+                .then();
+    }
+
+    private long countStatements(Runnable request) {
+        var statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        request.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
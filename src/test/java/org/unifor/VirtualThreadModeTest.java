@@ -0,0 +1,127 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.common.http.TestHTTPResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.junit.QuarkusTestProfile;
+import io.quarkus.test.junit.TestProfile;
+import io.quarkus.test.security.TestSecurity;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.unifor.TestFixtures.*;
+
+/**
+ * REST resources with {@code quarkus.virtual-threads.enabled=true}.
+ * Validation criteria:
+ * - Student and coordinator endpoints run on virtual threads, including the transactional enroll path
+ * - 1000 concurrent clients, far more than the worker pool, all get their answer
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+@TestProfile(VirtualThreadModeTest.VirtualThreadsProfile.class)
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class VirtualThreadModeTest {
+
+    public static class VirtualThreadsProfile implements QuarkusTestProfile {
+        @Override
+        public Map<String, String> getConfigOverrides() {
+            return Map.of("quarkus.virtual-threads.enabled", "true");
+        }
+    }
+
+    private static final int CLIENTS = 1000;
+
+    private static Long matrixClassId;
+
+    @TestHTTPResource("/")
+    URI baseUri;
+
+    @Order(1)
+    @Test
+    @TestSecurity(user = "carmen.lima@unifor.br", roles = "coordinator")
+    void coordinatorEndpoints_runOnVirtualThreads() {
+        Long matrixId = Long.valueOf(given()
+                .contentType(ContentType.JSON)
+                .body("{\"name\":\"Matriz Virtual Threads\"}")
+                .when()
+                .post("/api/coordinator/matrices")
+                .then()
+                .statusCode(201)
+                .header(ExecutionThreadFilter.HEADER, "true")
+                .extract().body().path("id").toString());
+
+        matrixClassId = createClass(matrixId, 12, 2, 34);
+
+        activate(matrixId);
+
+        given()
+                .pathParam("matrixId", matrixId)
+                .when()
+                .get("/api/coordinator/matrices/{matrixId}/classes")
+                .then()
+                .statusCode(200)
+                .header(ExecutionThreadFilter.HEADER, "true")
+                .body("items", hasSize(1));
+    }
+
+    @Order(2)
+    @Test
+    @TestSecurity(user = "gabriel.costa@unifor.br", roles = "student")
+    void studentEndpoints_runOnVirtualThreads() {
+        given()
+                .when()
+                .get("/api/student/classes/available")
+                .then()
+                .statusCode(200)
+                .header(ExecutionThreadFilter.HEADER, "true")
+                .body("items.id", hasItem(matrixClassId.intValue()));
+
+        enroll("gabriel.costa@unifor.br", matrixClassId).then()
+                .statusCode(201)
+                .header(ExecutionThreadFilter.HEADER, "true")
+                .body("matrixClassId", equalTo(matrixClassId.intValue()));
+    }
+
+    @Order(3)
+    @Test
+    @TestSecurity(user = "lucas.ferreira@unifor.br", roles = "student")
+    void thousandConcurrentClients_allAnswered() throws Exception {
+        var start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             ExecutorService httpExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient http = HttpClient.newBuilder().executor(httpExecutor).build();
+            var request = HttpRequest.newBuilder(baseUri.resolve("/api/student/classes/available"))
+                    .timeout(Duration.ofMinutes(2))
+                    .GET()
+                    .build();
+            for (int i = 0; i < CLIENTS; i++) {
+                statuses.add(clients.submit(() -> {
+                    start.await();
+                    return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> status : statuses) {
+                assertEquals(200, status.get());
+            }
+        }
+    }
+}
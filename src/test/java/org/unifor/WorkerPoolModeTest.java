@@ -0,0 +1,29 @@
+package org.unifor;
+
+import io.quarkus.test.common.QuarkusTestResource;
+import io.quarkus.test.junit.QuarkusTest;
+import io.quarkus.test.security.TestSecurity;
+import org.junit.jupiter.api.Test;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Default execution mode ({@code quarkus.virtual-threads.enabled=false}).
+ * Validation criteria:
+ * - Resources annotated with @RunOnVirtualThread still run on the worker pool
+ */
+@QuarkusTest
+@QuarkusTestResource(PostgresTestResource.class)
+class WorkerPoolModeTest {
+
+    @Test
+    @TestSecurity(user = "gabriel.costa@unifor.br", roles = "student")
+    void studentEndpoint_runsOnWorkerPool() {
+        given()
+                .when()
+                .get("/api/student/me")
+                .then()
+                .statusCode(200)
+                .header(ExecutionThreadFilter.HEADER, "false");
+    }
+}
@@ -0,0 +1,93 @@
+package org.unifor.service;
+
+import org.junit.jupiter.api.Test;
+import org.unifor.service.CacheInvalidation.Type;
+import org.unifor.service.CacheInvalidationBus.Message;
+import org.unifor.service.CacheInvalidationBus.PendingSeats;
+import org.unifor.service.CacheInvalidationBus.Sequences;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the invalidation bus wire format, the per-node sequence check that triggers a full flush, the
+ * coalescing of SEATS changes and the channel check.
+ */
+class CacheInvalidationBusTest {
+
+    @Test
+    void message_roundTripsWithAndWithoutIds() {
+        var classChange = new Message("node-a", 7, new CacheInvalidation(Type.MATRIX_CLASS, 3L, 42L));
+        var activation = new Message("node-a", 8, CacheInvalidation.of(new MatrixChanged(3L, null)));
+
+        assertEquals("node-a 7 MATRIX_CLASS 3 42", classChange.encode());
+        assertEquals(classChange, Message.parse(classChange.encode()));
+        assertEquals(new CacheInvalidation(Type.MATRIX, 3L, null), Message.parse(activation.encode()).invalidation());
+    }
+
+    @Test
+    void parse_foreignPayload_isIgnored() {
+        assertNull(Message.parse(null));
+        assertNull(Message.parse(""));
+        assertNull(Message.parse("hello"));
+        assertNull(Message.parse("node-a x MATRIX 1 -"));
+        assertNull(Message.parse("node-a 1 UNKNOWN 1 -"));
+        assertNull(Message.parse("node-a 1 MATRIX 1 - extra"));
+    }
+
+    @Test
+    void sequences_firstMessageOfNodeAndConsecutive_areInOrder() {
+        var sequences = new Sequences();
+
+        assertTrue(sequences.inOrder("a", 12));
+        assertTrue(sequences.inOrder("a", 13));
+        assertTrue(sequences.inOrder("b", 1));
+        assertTrue(sequences.inOrder("a", 14));
+    }
+
+    @Test
+    void sequences_skippedOrRepeatedNumber_isAGap() {
+        var sequences = new Sequences();
+        sequences.inOrder("a", 1);
+
+        assertFalse(sequences.inOrder("a", 3));
+        assertTrue(sequences.inOrder("a", 4));
+        assertFalse(sequences.inOrder("a", 4));
+    }
+
+    @Test
+    void sequences_afterClear_startOver() {
+        var sequences = new Sequences();
+        sequences.inOrder("a", 1);
+        sequences.clear();
+
+        assertTrue(sequences.inOrder("a", 9));
+    }
+
+    @Test
+    void pendingSeats_classChangedRepeatedly_isDrainedOnce() {
+        var pending = new PendingSeats();
+        pending.add(List.of(1L, 2L));
+        pending.add(List.of(1L));
+        pending.add(List.of(2L, 3L));
+
+        assertEquals(Set.of(1L, 2L, 3L), Set.copyOf(pending.drain()));
+        assertTrue(pending.drain().isEmpty());
+    }
+
+    @Test
+    void listenStatement_plainIdentifier_isQuoted() {
+        assertEquals("LISTEN \"unifor_cache\"", CacheInvalidationBus.listenStatement("unifor_cache"));
+        assertEquals("LISTEN \"Cache2\"", CacheInvalidationBus.listenStatement("Cache2"));
+    }
+
+    @Test
+    void listenStatement_otherChannel_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> CacheInvalidationBus.listenStatement(""));
+        assertThrows(IllegalArgumentException.class, () -> CacheInvalidationBus.listenStatement("2cache"));
+        assertThrows(IllegalArgumentException.class, () -> CacheInvalidationBus.listenStatement("cache\"; DROP TABLE users; --"));
+        assertThrows(IllegalArgumentException.class, () -> CacheInvalidationBus.listenStatement("a".repeat(64)));
+    }
+}
@@ -0,0 +1,102 @@
+package org.unifor.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.unifor.config.ContentionConfig;
+import org.unifor.exception.ServiceUnavailableException;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the contention retry policy: what is retried, attempt limit, budget and 503.
+ */
+class ContentionRetryTest {
+
+    private record Config(int maxAttempts, double budgetRatio, int budgetCapacity) implements ContentionConfig {
+        public Duration initialBackoff() { return Duration.ofMillis(1); }
+        public Duration maxBackoff() { return Duration.ofMillis(5); }
+        public Duration retryAfter() { return Duration.ofSeconds(4); }
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void call_lockTimeoutThenSuccess_retriesAndReturns() throws Exception {
+        var retry = new ContentionRetry(new Config(3, 0.2, 10), registry);
+        var calls = new AtomicInteger();
+
+        String result = retry.call("op", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw contention("55P03");
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2, registry.get("unifor.contention.retries").tag("sqlstate", "55P03").counter().count());
+    }
+
+    @Test
+    void call_deadlockEveryAttempt_givesUpWith503() {
+        var retry = new ContentionRetry(new Config(3, 0.2, 10), registry);
+        var calls = new AtomicInteger();
+
+        var e = assertThrows(ServiceUnavailableException.class, () -> retry.call("op", () -> {
+            calls.incrementAndGet();
+            throw contention("40P01");
+        }));
+
+        assertEquals("CONTENTION", e.getErrorCode());
+        assertEquals(Duration.ofSeconds(4), e.getRetryAfter());
+        assertEquals(3, calls.get());
+        assertEquals(1, registry.get("unifor.contention.exhausted").tag("reason", "attempts").counter().count());
+    }
+
+    @Test
+    void call_otherFailure_isNotRetried() {
+        var retry = new ContentionRetry(new Config(3, 0.2, 10), registry);
+        var calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.call("op", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException(new SQLException("duplicate key", "23505"));
+        }));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void call_budgetSpent_givesUpWithoutRetrying() throws Exception {
+        var retry = new ContentionRetry(new Config(5, 0.0, 2), registry);
+        var calls = new AtomicInteger();
+
+        // Two retries drain the budget; the third call cannot retry at all
+        assertThrows(ServiceUnavailableException.class, () -> retry.call("op", () -> {
+            calls.incrementAndGet();
+            throw contention("40001");
+        }));
+        assertEquals(3, calls.get());
+
+        calls.set(0);
+        assertThrows(ServiceUnavailableException.class, () -> retry.call("op", () -> {
+            calls.incrementAndGet();
+            throw contention("40001");
+        }));
+        assertEquals(1, calls.get());
+        assertEquals(2, registry.get("unifor.contention.exhausted").tag("reason", "budget").counter().count());
+    }
+
+    @Test
+    void contentionState_findsSqlStateInCauseChain() {
+        assertEquals("55P03", ContentionRetry.contentionState(new RuntimeException(contention("55P03"))));
+        assertNull(ContentionRetry.contentionState(new RuntimeException("x")));
+    }
+
+    private static RuntimeException contention(String sqlState) {
+        return new RuntimeException(new SQLException("contention", sqlState));
+    }
+}
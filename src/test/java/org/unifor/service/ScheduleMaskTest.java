@@ -0,0 +1,168 @@
+package org.unifor.service;
+
+import org.junit.jupiter.api.Test;
+import org.unifor.entity.TimeSlot;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the weekly occupancy bitmap and meeting pattern codes (PRD 7.2, Appendix C).
+ */
+class ScheduleMaskTest {
+
+    private static TimeSlot slot(String day, String start, String end) {
+        return new TimeSlot(day, LocalTime.parse(start), LocalTime.parse(end));
+    }
+
+    private static TimeSlot slot(String day, String start, String end, String code) {
+        return new TimeSlot(day, LocalTime.parse(start), LocalTime.parse(end), code);
+    }
+
+    @Test
+    void of_alignedSlot_isExact() {
+        var mask = ScheduleMask.of(slot("SEG", "07:30", "09:10"));
+        assertNotNull(mask);
+        assertTrue(mask.isExact());
+        assertFalse(mask.isEmpty());
+    }
+
+    @Test
+    void of_unknownDay_returnsNull() {
+        assertNull(ScheduleMask.of(slot("XYZ", "07:30", "09:10")));
+    }
+
+    @Test
+    void overlaps_offGridTimes_fallsBackToExactComparison() {
+        var a = slot("SEG", "08:00", "09:05");
+        var b = slot("SEG", "09:05", "10:00");
+        assertFalse(ScheduleMask.of(a).isExact());
+        assertFalse(ScheduleConflictUtil.overlaps(a, b));
+        assertTrue(ScheduleConflictUtil.overlaps(a, slot("SEG", "09:04", "10:00")));
+    }
+
+    @Test
+    void overlaps_dayCodesComparedExactly() {
+        assertFalse(ScheduleConflictUtil.overlaps(slot("SEG", "08:00", "10:00"), slot("seg", "09:00", "11:00")));
+        assertFalse(ScheduleConflictUtil.overlaps(slot("SEG", "08:00", "10:00"), slot("MON", "09:00", "11:00")));
+    }
+
+    @Test
+    void overlaps_endOfDay_isEncoded() {
+        assertTrue(ScheduleConflictUtil.overlaps(slot("SEX", "22:00", "23:59"), slot("SEX", "23:50", "23:59")));
+    }
+
+    @Test
+    void overlaps_matchesPairwiseReference_forRandomSlots() {
+        var random = new Random(42);
+        String[] days = {"SEG", "TER", "QUA", "QUI", "SEX", "FOO"};
+        for (int i = 0; i < 20_000; i++) {
+            var a = randomSlot(random, days);
+            var b = randomSlot(random, days);
+            assertEquals(ScheduleConflictUtil.overlapsPairwise(a, b), ScheduleConflictUtil.overlaps(a, b),
+                    () -> a.dayOfWeek + a.startTime + "-" + a.endTime + " vs " + b.dayOfWeek + b.startTime + "-" + b.endTime);
+        }
+    }
+
+    @Test
+    void timetable_conflictsWith_anyEnrolledSlot() {
+        var timetable = Timetable.of(List.of(
+                slot("SEG", "07:30", "09:10"),
+                slot("TER", "13:30", "15:10"),
+                slot("QUI", "19:00", "20:40")));
+        assertTrue(timetable.conflictsWith(slot("TER", "15:00", "16:00")));
+        assertFalse(timetable.conflictsWith(slot("TER", "15:10", "16:00")));
+        assertFalse(timetable.conflictsWith(slot("QUA", "07:30", "09:10")));
+    }
+
+    @Test
+    void timetable_empty_neverConflicts() {
+        assertFalse(Timetable.of(List.of()).conflictsWith(slot("SEG", "07:30", "09:10")));
+    }
+
+    @Test
+    void timetable_with_addsSlotAndLeavesReceiverUnchanged() {
+        var empty = Timetable.of(List.of());
+        var grown = empty.with(slot("QUA", "09:30", "11:10")).with(slot("SEX", "10:00", "10:45"));
+        assertTrue(grown.conflictsWith(slot("QUA", "10:00", "12:00")));
+        assertTrue(grown.conflictsWith(slot("SEX", "10:30", "11:00")));
+        assertFalse(grown.conflictsWith(slot("QUA", "11:10", "12:00")));
+        assertFalse(empty.conflictsWith(slot("QUA", "10:00", "12:00")));
+    }
+
+    @Test
+    void pattern_parse_expandsShortDayForm() {
+        var pattern = TimeSlotPattern.parse("M24AB");
+        assertNotNull(pattern);
+        assertEquals(List.of("SEG", "QUA", "SEX"), pattern.days());
+        assertEquals(LocalTime.of(7, 30), pattern.start());
+        assertEquals(LocalTime.of(9, 10), pattern.end());
+
+        var evening = TimeSlotPattern.parse("N35CD");
+        assertEquals(List.of("TER", "QUI"), evening.days());
+        assertEquals(LocalTime.of(21, 0), evening.start());
+    }
+
+    @Test
+    void pattern_parse_invalidCodes_returnNull() {
+        assertNull(TimeSlotPattern.parse(null));
+        assertNull(TimeSlotPattern.parse("N24EF"));
+        assertNull(TimeSlotPattern.parse("X24AB"));
+        assertNull(TimeSlotPattern.parse("M19AB"));
+    }
+
+    @Test
+    void ofPattern_multiDayPattern_checkedAsOneUnit() {
+        var m24ab = ScheduleMask.ofPattern("M24AB");
+        assertTrue(m24ab.intersects(ScheduleMask.of(slot("SEX", "08:00", "08:30"))));
+        assertFalse(m24ab.intersects(ScheduleMask.ofPattern("M35AB")));
+        assertFalse(m24ab.intersects(ScheduleMask.ofPattern("M24CD")));
+        assertEquals(ScheduleMask.of(slot("SEG", "07:30", "09:10"))
+                        .or(ScheduleMask.of(slot("QUA", "07:30", "09:10")))
+                        .or(ScheduleMask.of(slot("SEX", "07:30", "09:10"))),
+                m24ab);
+    }
+
+    @Test
+    void of_patternRow_encodesWholePattern() {
+        assertEquals(ScheduleMask.ofPattern("N35CD"), ScheduleMask.of(slot("QUI", "21:00", "22:40", "N35CD")));
+    }
+
+    @Test
+    void of_rowDisagreeingWithItsCode_encodesTheRowOnly() {
+        assertEquals(ScheduleMask.of(slot("SEG", "07:30", "09:10")),
+                ScheduleMask.of(slot("SEG", "07:30", "09:10", "M35AB")));
+        assertEquals(ScheduleMask.of(slot("SEG", "08:00", "09:10")),
+                ScheduleMask.of(slot("SEG", "08:00", "09:10", "M24AB")));
+    }
+
+    @Test
+    void overlaps_rowsOfOnePattern_overlapOnEveryDay() {
+        var monday = slot("SEG", "07:30", "09:10", "M24AB");
+        var wednesday = slot("QUA", "07:30", "09:10", "M24AB");
+        assertTrue(ScheduleConflictUtil.overlaps(monday, wednesday));
+        assertTrue(ScheduleConflictUtil.overlapsPairwise(monday, wednesday));
+        assertTrue(ScheduleConflictUtil.overlaps(monday, slot("SEX", "09:00", "10:00")));
+        assertFalse(ScheduleConflictUtil.overlaps(monday, slot("TER", "07:30", "09:10", "M35AB")));
+    }
+
+    @Test
+    void timetable_patternRow_conflictsWithTheOtherDaysOfThePattern() {
+        var timetable = Timetable.of(List.of(slot("TER", "19:00", "20:40", "N35AB")));
+        assertTrue(timetable.conflictsWith(slot("QUI", "19:00", "20:40", "N35AB")));
+        assertTrue(timetable.conflictsWith(slot("QUI", "20:00", "21:00")));
+        assertFalse(timetable.conflictsWith(slot("QUI", "21:00", "22:40", "N35CD")));
+        assertFalse(timetable.conflictsWith(slot("SEG", "19:00", "20:40")));
+    }
+
+    private static TimeSlot randomSlot(Random random, String[] days) {
+        int start = random.nextInt(24 * 60 - 1);
+        int end = start + 1 + random.nextInt(24 * 60 - 1 - start);
+        return new TimeSlot(days[random.nextInt(days.length)],
+                LocalTime.of(start / 60, start % 60),
+                LocalTime.of(end / 60, end % 60));
+    }
+}
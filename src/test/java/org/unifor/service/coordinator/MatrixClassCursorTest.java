@@ -0,0 +1,49 @@
+package org.unifor.service.coordinator;
+
+import org.junit.jupiter.api.Test;
+import org.unifor.exception.ValidationException;
+import org.unifor.repository.MatrixClassSearch.Keyset;
+import org.unifor.repository.MatrixClassSort;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the keyset cursor of the class listing (VM-01).
+ */
+class MatrixClassCursorTest {
+
+    @Test
+    void roundTrip_maxStudents() {
+        String cursor = MatrixClassCursor.encode(MatrixClassSort.MAX_STUDENTS, true, new Keyset(30, 42L));
+        assertEquals(new Keyset(30, 42L), MatrixClassCursor.decode(cursor, MatrixClassSort.MAX_STUDENTS, true));
+    }
+
+    @Test
+    void roundTrip_createdAt_keepsMicroseconds() {
+        Instant createdAt = Instant.parse("2026-02-03T10:15:30.123456Z");
+        String cursor = MatrixClassCursor.encode(MatrixClassSort.CREATED_AT, false, new Keyset(createdAt, 7L));
+        assertEquals(new Keyset(createdAt, 7L), MatrixClassCursor.decode(cursor, MatrixClassSort.CREATED_AT, false));
+    }
+
+    @Test
+    void roundTrip_id() {
+        String cursor = MatrixClassCursor.encode(MatrixClassSort.ID, false, new Keyset(null, 9L));
+        assertEquals(new Keyset(null, 9L), MatrixClassCursor.decode(cursor, MatrixClassSort.ID, false));
+    }
+
+    @Test
+    void decode_otherSortOrDirection_rejected() {
+        String cursor = MatrixClassCursor.encode(MatrixClassSort.MAX_STUDENTS, false, new Keyset(30, 42L));
+        assertThrows(ValidationException.class, () -> MatrixClassCursor.decode(cursor, MatrixClassSort.ID, false));
+        assertThrows(ValidationException.class,
+                () -> MatrixClassCursor.decode(cursor, MatrixClassSort.MAX_STUDENTS, true));
+    }
+
+    @Test
+    void decode_garbage_rejected() {
+        assertThrows(ValidationException.class, () -> MatrixClassCursor.decode("%%%", MatrixClassSort.ID, false));
+        assertThrows(ValidationException.class, () -> MatrixClassCursor.decode("YWJj", MatrixClassSort.ID, false));
+    }
+}
@@ -0,0 +1,219 @@
+package org.unifor.service.student;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.unifor.config.AdmissionConfig;
+import org.unifor.dto.response.EnrollmentResponse;
+import org.unifor.exception.ConflictException;
+import org.unifor.exception.NotFoundException;
+import org.unifor.exception.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the enroll admission queue: immediate admission, tickets, FIFO resubmission, back-pressure,
+ * queue timeout and eviction of idle class lines.
+ */
+class EnrollmentAdmissionTest {
+
+    private record Config(int perClassPermits, int queueCapacity, Duration queueTimeout) implements AdmissionConfig {
+        Config(int perClassPermits, int queueCapacity) {
+            this(perClassPermits, queueCapacity, Duration.ofMinutes(5));
+        }
+
+        public boolean enabled() { return true; }
+        public int globalPermits() { return 4; }
+        public Duration admissionWait() { return Duration.ZERO; }
+        public Duration retryAfter() { return Duration.ofSeconds(7); }
+        public Duration pollInterval() { return Duration.ofSeconds(1); }
+        public Duration ticketTtl() { return Duration.ofMinutes(10); }
+    }
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService requests = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private EnrollmentAdmission admission;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        requests.shutdownNow();
+        admission.shutdown();
+    }
+
+    @Test
+    void submit_freePermits_runsImmediately() {
+        admission = new EnrollmentAdmission(new Config(1, 10), registry);
+        var result = admission.submit(1L, 10L, () -> enrollment(1L));
+        assertNull(result.ticket());
+        assertEquals(1L, result.enrollment().id());
+        assertEquals(1, registry.get("unifor.admission.wait").tag("path", "immediate").timer().count());
+    }
+
+    @Test
+    void submit_busyClass_queuesTicketAndRunsItWhenPermitFrees() throws Exception {
+        admission = new EnrollmentAdmission(new Config(1, 10), registry);
+        occupy(1L);
+
+        var ticket = admission.submit(1L, 20L, () -> enrollment(2L)).ticket();
+        assertNotNull(ticket);
+        assertEquals(EnrollmentTicket.Status.QUEUED, ticket.status());
+        assertEquals(1L, admission.position(ticket));
+        assertSame(ticket, admission.submit(1L, 20L, () -> enrollment(3L)).ticket(), "Resubmission keeps its place");
+        assertEquals(1.0, registry.get("unifor.admission.queue.depth").gauge().value());
+
+        release.countDown();
+        awaitFinished(ticket);
+        assertEquals(EnrollmentTicket.Status.ENROLLED, ticket.status());
+        assertEquals(2L, ticket.enrollment().id());
+        assertNull(admission.position(ticket));
+        assertSame(ticket, admission.getTicket(ticket.id(), 20L));
+        assertThrows(NotFoundException.class, () -> admission.getTicket(ticket.id(), 21L));
+    }
+
+    @Test
+    void submit_otherClass_isNotBlockedByBusyClass() throws Exception {
+        admission = new EnrollmentAdmission(new Config(1, 10), registry);
+        occupy(1L);
+        assertNull(admission.submit(2L, 20L, () -> enrollment(2L)).ticket());
+    }
+
+    @Test
+    void submit_hotClassLineFull_ticketOfOtherClassStillRuns() throws Exception {
+        admission = new EnrollmentAdmission(new Config(1, 10), registry);
+        occupy(1L);
+        List<Long> finished = new CopyOnWriteArrayList<>();
+        List<EnrollmentTicket> hot = new ArrayList<>();
+        for (long student = 20; student < 26; student++) {
+            long enrollmentId = student;
+            hot.add(admission.submit(1L, student, () -> {
+                finished.add(enrollmentId);
+                return enrollment(enrollmentId);
+            }).ticket());
+        }
+        assertEquals(6.0, registry.get("unifor.admission.queue.depth").gauge().value(),
+                "More hot-class tickets than workers");
+
+        var other = admission.submit(2L, 30L, () -> enrollment(30L)).ticket();
+        assertNotNull(other, "Tickets are waiting, so the other class queues too");
+        awaitFinished(other);
+        assertEquals(EnrollmentTicket.Status.ENROLLED, other.status());
+        assertTrue(finished.isEmpty(), "The hot class still has no free permit");
+
+        release.countDown();
+        for (EnrollmentTicket ticket : hot) {
+            awaitFinished(ticket);
+            assertEquals(EnrollmentTicket.Status.ENROLLED, ticket.status());
+        }
+        assertEquals(List.of(20L, 21L, 22L, 23L, 24L, 25L), finished, "Class line runs in arrival order");
+    }
+
+    @Test
+    void submit_queuedEnrollmentFails_ticketIsRejectedWithErrorCode() throws Exception {
+        admission = new EnrollmentAdmission(new Config(1, 10), registry);
+        occupy(1L);
+        var ticket = admission.submit(1L, 20L, () -> {
+            throw new ConflictException("CONFLICT_NO_SEATS", "Turma sem vagas disponíveis");
+        }).ticket();
+
+        release.countDown();
+        awaitFinished(ticket);
+        assertEquals(EnrollmentTicket.Status.REJECTED, ticket.status());
+        assertEquals("CONFLICT_NO_SEATS", ticket.error().code());
+    }
+
+    @Test
+    void submit_queueFull_throwsServiceUnavailable() throws Exception {
+        admission = new EnrollmentAdmission(new Config(1, 1), registry);
+        occupy(1L);
+        assertNotNull(admission.submit(1L, 20L, () -> enrollment(2L)).ticket());
+
+        var e = assertThrows(ServiceUnavailableException.class, () -> admission.submit(1L, 30L, () -> enrollment(3L)));
+        assertEquals(Duration.ofSeconds(7), e.getRetryAfter());
+        assertEquals(1.0, registry.get("unifor.admission.rejected").counter().count());
+    }
+
+    @Test
+    void submit_finishedRequests_dropTheirClassLine() throws Exception {
+        admission = new EnrollmentAdmission(new Config(1, 10), registry);
+        admission.submit(1L, 10L, () -> enrollment(1L));
+        assertEquals(0, admission.classLineCount(), "Immediate admission keeps nothing");
+
+        occupy(1L);
+        var ticket = admission.submit(1L, 20L, () -> enrollment(2L)).ticket();
+        admission.submit(1L, 20L, () -> enrollment(3L));
+        assertEquals(1, admission.classLineCount());
+
+        release.countDown();
+        awaitFinished(ticket);
+        awaitNoClassLines();
+        assertEquals(0, admission.classLineCount(), "Line of the idle class is dropped");
+    }
+
+    @Test
+    void sweep_ticketQueuedPastTimeout_isRejectedAndFreesItsPlace() throws Exception {
+        admission = new EnrollmentAdmission(new Config(1, 1, Duration.ofMillis(1)), registry);
+        occupy(1L);
+        var ticket = admission.submit(1L, 20L, () -> enrollment(2L)).ticket();
+        Thread.sleep(10);
+
+        admission.sweep();
+        assertEquals(EnrollmentTicket.Status.REJECTED, ticket.status());
+        assertEquals("QUEUE_TIMEOUT", ticket.error().code());
+        assertEquals(0.0, registry.get("unifor.admission.queue.depth").gauge().value());
+        assertEquals(1.0, registry.get("unifor.admission.expired").counter().count());
+        assertSame(ticket, admission.getTicket(ticket.id(), 20L), "Still polled until ticket-ttl");
+
+        var again = admission.submit(1L, 20L, () -> enrollment(3L)).ticket();
+        assertNotSame(ticket, again, "Resubmission gets a new ticket");
+        release.countDown();
+        awaitFinished(again);
+        assertEquals(EnrollmentTicket.Status.ENROLLED, again.status());
+        awaitNoClassLines();
+        assertEquals(0, admission.classLineCount());
+    }
+
+    /** Starts an enrollment in the class that holds its only permit until {@link #release} opens. */
+    private void occupy(Long matrixClassId) throws InterruptedException {
+        var running = new CountDownLatch(1);
+        requests.submit(() -> admission.submit(matrixClassId, 10L, () -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return enrollment(1L);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+    }
+
+    private static void awaitFinished(EnrollmentTicket ticket) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (ticket.status() == EnrollmentTicket.Status.QUEUED && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    /** The permit of a finished ticket is given back just after the ticket is marked finished. */
+    private void awaitNoClassLines() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (admission.classLineCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static EnrollmentResponse enrollment(Long id) {
+        return new EnrollmentResponse(id, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,120 @@
+package org.unifor.service.student;
+
+import jakarta.persistence.LockTimeoutException;
+import jakarta.transaction.Status;
+import jakarta.transaction.Synchronization;
+import jakarta.transaction.TransactionSynchronizationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.unifor.config.EnrollmentConfig;
+import org.unifor.service.ContentionRetry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the in-process student locks: held until the transaction completes, bounded wait, reentrant
+ * within a transaction, independent across stripes.
+ */
+class StudentLocksTest {
+
+    private record Config(Duration lockTimeout, int studentLockStripes) implements EnrollmentConfig {
+        public SeatAccountingMode seatMode() { return SeatAccountingMode.PESSIMISTIC; }
+        public int maxSeatBuckets() { return 32; }
+    }
+
+    /** One transaction: its resources and synchronizations. */
+    private static final class Transaction {
+        final Map<Object, Object> resources = new HashMap<>();
+        final List<Synchronization> synchronizations = new ArrayList<>();
+
+        void complete() {
+            synchronizations.forEach(s -> s.afterCompletion(Status.STATUS_COMMITTED));
+        }
+    }
+
+    /** Registry of the transaction bound to the calling thread. */
+    private static final class Registry implements TransactionSynchronizationRegistry {
+        final ThreadLocal<Transaction> current = new ThreadLocal<>();
+
+        public Object getTransactionKey() { return current.get(); }
+        public void putResource(Object key, Object value) { current.get().resources.put(key, value); }
+        public Object getResource(Object key) { return current.get().resources.get(key); }
+        public void registerInterposedSynchronization(Synchronization sync) { current.get().synchronizations.add(sync); }
+        public int getTransactionStatus() { return Status.STATUS_ACTIVE; }
+        public void setRollbackOnly() { }
+        public boolean getRollbackOnly() { return false; }
+    }
+
+    private final Registry registry = new Registry();
+    private final ExecutorService others = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        others.shutdownNow();
+    }
+
+    @Test
+    void lock_sameStudentInOtherTransaction_waitsUntilFirstCompletes() throws Exception {
+        var locks = new StudentLocks(new Config(Duration.ofSeconds(5), 16), registry);
+        Transaction first = begin();
+        locks.lock(7L);
+
+        Future<?> second = inOtherTransaction(locks, 7L);
+        assertThrows(TimeoutException.class, () -> second.get(200, TimeUnit.MILLISECONDS));
+
+        first.complete();
+        second.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lock_notFreeWithinTimeout_failsAsContention() throws Exception {
+        var locks = new StudentLocks(new Config(Duration.ofMillis(50), 16), registry);
+        begin();
+        locks.lock(7L);
+
+        var failure = assertThrows(Exception.class, () -> inOtherTransaction(locks, 7L).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(LockTimeoutException.class, failure.getCause());
+        assertEquals("55P03", ContentionRetry.contentionState(failure.getCause()));
+    }
+
+    @Test
+    void lock_sameTransactionTwice_doesNotWait() {
+        var locks = new StudentLocks(new Config(Duration.ofMillis(50), 16), registry);
+        Transaction tx = begin();
+        locks.lock(7L);
+        locks.lock(7L);
+        assertEquals(1, tx.synchronizations.size());
+    }
+
+    @Test
+    void lock_studentOnOtherStripe_doesNotWait() throws Exception {
+        var locks = new StudentLocks(new Config(Duration.ofMillis(50), 16), registry);
+        begin();
+        locks.lock(7L);
+        inOtherTransaction(locks, 8L).get(5, TimeUnit.SECONDS);
+    }
+
+    private Transaction begin() {
+        var tx = new Transaction();
+        registry.current.set(tx);
+        return tx;
+    }
+
+    private Future<?> inOtherTransaction(StudentLocks locks, Long studentId) {
+        return others.submit(() -> {
+            begin();
+            locks.lock(studentId);
+        });
+    }
+}